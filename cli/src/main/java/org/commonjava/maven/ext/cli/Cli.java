@@ -61,6 +61,8 @@ import org.commonjava.maven.ext.common.model.SimpleScopedArtifactRef;
 import org.commonjava.maven.ext.core.ManipulationManager;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.impl.RESTCollector;
+import org.commonjava.maven.ext.core.state.DependencyState;
+import org.commonjava.maven.ext.core.util.DependencyOverride;
 import org.commonjava.maven.ext.io.ConfigIO;
 import org.commonjava.maven.ext.io.PomIO;
 import org.commonjava.maven.ext.io.XMLIO;
@@ -76,7 +78,6 @@ import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathFactory;
 import java.io.File;
-import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -118,6 +119,11 @@ public class Cli
      */
     private Properties userProps;
 
+    /**
+     * Optional dependency overrides read from a file.
+     */
+    private List<DependencyOverride> fileOverrides;
+
     public static void main( String[] args )
     {
         System.exit ( new Cli().run( args ) );
@@ -191,7 +197,7 @@ public class Cli
                 .build() );
         options.addOption( Option.builder()
                 .longOpt( "overrides-from-file" )
-                .desc( "Reads the overrides, in GAV format, one per-line, from a file" )
+                .desc( "Reads the dependency overrides, in groupId:artifactId@module=version format, one per-line, from a file" )
                 .numberOfArgs( 1 )
                 .build() );
 
@@ -314,7 +320,9 @@ public class Cli
 
             if (cmd.hasOption("overrides-from-file"))
             {
-                loadOverridesFromFile(cmd);
+                File file = new File( cmd.getOptionValue( "overrides-from-file" ) );
+                fileOverrides = DependencyOverride.parseFile( file );
+                logger.debug( "Read {} overrides from {}", fileOverrides.size(), file );
             }
         }
         catch ( ManipulationException e )
@@ -337,6 +345,11 @@ public class Cli
 
             manipulationManager.init( session );
 
+            if ( fileOverrides != null )
+            {
+                session.getState( DependencyState.class ).addDependencyOverrides( fileOverrides );
+            }
+
             Set<String> activeProfiles = null;
             if ( cmd.hasOption( 'P' ) )
             {
@@ -444,22 +457,6 @@ public class Cli
         return 0;
     }
 
-    private void loadOverridesFromFile(CommandLine cmd) throws ManipulationException {
-        File file = new File(cmd.getOptionValue("overrides-from-file"));
-
-        try
-        {
-            List<String> lines = FileUtils.readLines(file, Charset.defaultCharset());
-            for (String line : lines) {
-                String kv[] = line.split("=");
-                session.getUserProperties().setProperty( "dependencyOverride." + kv[0], kv[1] );
-            }
-        } catch (IOException e)
-        {
-            throw new ManipulationException("Unable to read overrides file", e);
-        }
-    }
-
     @SuppressWarnings( "deprecation" )
     private void createSession( File target, File settings )
     {
@@ -19,7 +19,9 @@ import ch.qos.logback.classic.Level;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.reflect.FieldUtils;
 import org.apache.maven.execution.MavenSession;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.state.DependencyState;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,6 +37,8 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class CliTest
@@ -202,6 +206,47 @@ public class CliTest
         assertTrue( ms.getRequest().getLocalRepository().getBasedir().equals( ms.getRequest().getLocalRepositoryPath().toString() ) );
     }
 
+    @Test
+    public void checkOverridesFromFile() throws Exception
+    {
+        Cli c = new Cli();
+        File pom1 = temp.newFile( );
+        File overrides = temp.newFile( );
+        FileUtils.writeStringToFile( overrides, "# comment\norg.foo:bar@*=1.0\norg.foo:qux=2.0\n"
+                        + "org.foo:baz@org.module:child=\n" );
+
+        executeMethod( c, "run", new Object[] { new String[] { "-f", pom1.toString(), "--overrides-from-file",
+                        overrides.toString(), "-DdependencyOverride.org.foo:other@*=3.0" } } );
+
+        DependencyState state = ( (ManipulationSession) FieldUtils.readField( c, "session", true ) ).getState(
+                        DependencyState.class );
+
+        assertEquals( 3, state.getDependencyExclusions().size() );
+        assertEquals( "1.0", state.getDependencyExclusions().get( "org.foo:bar@*" ) );
+        assertEquals( "3.0", state.getDependencyExclusions().get( "org.foo:other@*" ) );
+        assertFalse( state.getDependencyExclusions().containsKey( "org.foo:qux" ) );
+        assertEquals( 2, state.getGlobalOverrides().size() );
+        assertEquals( 1, state.getModuleOverrides( SimpleProjectRef.parse( "org.module:child" ) ).size() );
+    }
+
+    @Test
+    public void checkOverridesFromFileClash() throws Exception
+    {
+        Cli c = new Cli();
+        File pom1 = temp.newFile( );
+        File overrides = temp.newFile( );
+        FileUtils.writeStringToFile( overrides, "org.foo:bar@*=1.0\n" );
+
+        Object result = executeMethod( c, "run", new Object[] { new String[] { "-f", pom1.toString(),
+                        "--overrides-from-file", overrides.toString(), "-DdependencyExclusion.org.foo:bar@*=2.0" } } );
+
+        DependencyState state = ( (ManipulationSession) FieldUtils.readField( c, "session", true ) ).getState(
+                        DependencyState.class );
+
+        assertEquals( 10, result );
+        assertEquals( "2.0", state.getDependencyExclusions().get( "org.foo:bar@*" ) );
+    }
+
     /**
      * Executes a method on an object instance.  The name and parameters of
      * the method are specified.  The method will be executed and the value
@@ -34,7 +34,9 @@ import org.commonjava.maven.ext.common.model.GAV;
 import org.commonjava.maven.ext.common.model.Project;
 import org.commonjava.maven.ext.common.callbacks.ComparatorCallback;
 import org.commonjava.maven.ext.core.impl.Manipulator;
+import org.commonjava.maven.ext.core.impl.RESTPipeline;
 import org.commonjava.maven.ext.core.state.CommonState;
+import org.commonjava.maven.ext.core.state.RESTState;
 import org.commonjava.maven.ext.core.state.State;
 import org.commonjava.maven.ext.core.state.VersioningState;
 import org.commonjava.maven.ext.core.util.ManipulatorPriorityComparator;
@@ -130,6 +132,8 @@ public class ManipulationManager
                         session.getSettings(), session.getActiveProfiles() );
         }
 
+        session.snapshotUserProperties();
+
         orderedManipulators = new ArrayList<>( manipulators.values() );
         // The RESTState depends upon the VersionState being initialised. Therefore initialise in reverse order
         // and do a final sort to run in the correct order. See the Manipulator interface for detailed discussion
@@ -145,7 +149,7 @@ public class ManipulationManager
         orderedManipulators.sort( new ManipulatorPriorityComparator() );
 
         // Now init the common state
-        session.setState( new CommonState( session.getUserProperties()) );
+        session.setState( new CommonState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
@@ -157,57 +161,93 @@ public class ManipulationManager
     public void scanAndApply( final ManipulationSession session )
                     throws ManipulationException
     {
-        final List<Project> currentProjects = pomIO.parseProject( session.getPom() );
-        final List<Project> originalProjects = new ArrayList<>(  );
-        currentProjects.forEach( p -> originalProjects.add( new Project( p ) ) );
+        // If enabled, start translating the GAVs that are already known while the remaining POMs are parsed.
+        final RESTPipeline pipeline = RESTPipeline.create( session );
 
-        session.getActiveProfiles().addAll( parseActiveProfiles( session, currentProjects ) );
-        session.setProjects( currentProjects );
+        try
+        {
+            final List<Project> currentProjects;
+            boolean parsed = false;
 
-        if (logger.isDebugEnabled()) {
-            for (final Project project : currentProjects) {
-                logger.debug("Got {} (POM: {})", project, project.getPom());
+            try
+            {
+                currentProjects = pomIO.parseProject( session.getPom(), pipeline );
+                parsed = true;
             }
-        }
+            finally
+            {
+                if ( pipeline != null )
+                {
+                    if ( parsed )
+                    {
+                        pipeline.finish();
+                    }
+                    else
+                    {
+                        pipeline.cancel();
+                    }
+                }
+            }
+            final List<Project> originalProjects = new ArrayList<>(  );
+            currentProjects.forEach( p -> originalProjects.add( new Project( p ) ) );
 
-        Set<Project> changed = applyManipulations( currentProjects );
+            session.getActiveProfiles().addAll( parseActiveProfiles( session, currentProjects ) );
+            session.setProjects( currentProjects );
 
-        // Create a marker file if we made some changes to prevent duplicate runs.
-        if ( !changed.isEmpty() )
-        {
-            logger.info( "Maven-Manipulation-Extension: Rewrite changed: {}", currentProjects );
+            if (logger.isDebugEnabled()) {
+                for (final Project project : currentProjects) {
+                    logger.debug("Got {} (POM: {})", project, project.getPom());
+                }
+            }
 
-            GAV gav = pomIO.rewritePOMs( changed );
+            Set<Project> changed = applyManipulations( currentProjects );
 
-            try
+            // Create a marker file if we made some changes to prevent duplicate runs.
+            if ( !changed.isEmpty() )
             {
-                final VersioningState state = session.getState( VersioningState.class );
-                state.setExecutionRootModified( gav );
+                logger.info( "Maven-Manipulation-Extension: Rewrite changed: {}", currentProjects );
 
-                new File( session.getTargetDir().getParentFile(), ManipulationManager.MARKER_PATH ).mkdirs();
+                GAV gav = pomIO.rewritePOMs( changed );
 
-                new File( session.getTargetDir().getParentFile(), ManipulationManager.MARKER_FILE ).createNewFile();
+                try
+                {
+                    final VersioningState state = session.getState( VersioningState.class );
+                    state.setExecutionRootModified( gav );
+
+                    new File( session.getTargetDir().getParentFile(), ManipulationManager.MARKER_PATH ).mkdirs();
+
+                    new File( session.getTargetDir().getParentFile(), ManipulationManager.MARKER_FILE ).createNewFile();
 
-                try (FileWriter writer = new FileWriter( new File( session.getTargetDir().getParentFile(), RESULT_FILE ) ))
+                    try (FileWriter writer = new FileWriter( new File( session.getTargetDir().getParentFile(), RESULT_FILE ) ))
+                    {
+                        writer.write( collectResults( session ) );
+                    }
+                }
+                catch ( IOException e )
                 {
-                    writer.write( collectResults( session ) );
+                    logger.error( "Unable to create marker or result file", e );
+                    throw new ManipulationException( "Marker/result file creation failed", e );
+                }
+
+                for (PostAlignmentCallback postAlignmentCallback : postAlignmentCallbacks) {
+                    postAlignmentCallback.call(session, originalProjects, currentProjects);
                 }
-            }
-            catch ( IOException e )
-            {
-                logger.error( "Unable to create marker or result file", e );
-                throw new ManipulationException( "Marker/result file creation failed", e );
             }
 
-            for (PostAlignmentCallback postAlignmentCallback : postAlignmentCallbacks) {
-                postAlignmentCallback.call(session, originalProjects, currentProjects);
+            // Ensure reset of GalleyInfrastructure Executor Service
+            for ( ExtensionInfrastructure e : infrastructure.values() )
+            {
+                e.finish();
             }
         }
-
-        // Ensure reset of GalleyInfrastructure Executor Service
-        for ( ExtensionInfrastructure e : infrastructure.values() )
+        finally
         {
-            e.finish();
+            // Release any pooled REST connections, once background lookups have been joined or cancelled.
+            final RESTState restState = session.getState( RESTState.class );
+            if ( restState != null )
+            {
+                restState.finish();
+            }
         }
 
         logger.info( "Maven-Manipulation-Extension: Finished." );
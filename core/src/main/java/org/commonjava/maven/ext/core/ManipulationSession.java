@@ -26,6 +26,7 @@ import org.commonjava.maven.ext.core.impl.Manipulator;
 import org.commonjava.maven.ext.core.state.CommonState;
 import org.commonjava.maven.ext.core.state.State;
 import org.commonjava.maven.ext.core.state.VersioningState;
+import org.commonjava.maven.ext.core.util.IndexedProperties;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -64,6 +65,11 @@ public class ManipulationSession
 
     private ManipulationException error;
 
+    /**
+     * Immutable, prefix indexed, copy of the user properties taken when the manipulators are initialised.
+     */
+    private IndexedProperties userPropertiesSnapshot;
+
     public ManipulationSession()
     {
         try
@@ -116,6 +122,28 @@ public class ManipulationSession
                                                                      .getUserProperties();
     }
 
+    /**
+     * Takes an immutable, prefix indexed, snapshot of the current user properties. This should be called once
+     * all user properties (e.g. from configuration files) have been established and before the {@link State}
+     * instances are created.
+     */
+    void snapshotUserProperties()
+    {
+        userPropertiesSnapshot = new IndexedProperties( getUserProperties() );
+    }
+
+    /**
+     * Returns the user properties snapshot for use by state initialisation. Prefix queries against this via
+     * {@link org.commonjava.maven.ext.core.util.PropertiesUtils#getPropertiesByPrefix(Properties, String)} only
+     * visit the matching properties. If no snapshot has been taken the live user properties are returned.
+     *
+     * @return the user properties snapshot
+     */
+    public Properties getUserPropertiesSnapshot()
+    {
+        return userPropertiesSnapshot == null ? getUserProperties() : userPropertiesSnapshot;
+    }
+
     public void setProjects( final List<Project> projects )
     {
         this.projects = projects;
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of candidate versions used to answer {@link Version#findHighestMatchingBuildNumber(String, Set)} without
+ * rescanning every candidate. Each candidate of the form &lt;prefix&gt;&lt;delim&gt;&lt;qualifier&gt;&lt;delim&gt;
+ * &lt;build number&gt; is split once, when added, into every possible numeric prefix / qualifier pair and indexed
+ * on the qualifier and the prefix with any trailing zero components removed. The build number is pre-parsed and only
+ * the highest is retained for each exact prefix.
+ */
+final class BuildNumberIndex
+{
+    private static final Logger logger = LoggerFactory.getLogger( BuildNumberIndex.class );
+
+    private static final String EMPTY_STRING = "";
+
+    private final Set<String> versions = new HashSet<>();
+
+    /**
+     * Qualifier : canonical prefix : exact prefix : highest build number
+     */
+    private final Map<String, Map<String, Map<String, Integer>>> index = new HashMap<>();
+
+    private int buildNumberLength;
+
+    /**
+     * Adds a candidate version.
+     *
+     * @param version the version to add.
+     */
+    void add( final String version )
+    {
+        if ( !versions.add( version ) )
+        {
+            return;
+        }
+        buildNumberLength = Math.max( buildNumberLength, Version.getBuildNumber( version ).length() );
+
+        // Only candidates ending in <delim><digits> can match.
+        int start = version.length();
+        while ( start > 0 && isDigit( version.charAt( start - 1 ) ) )
+        {
+            start--;
+        }
+        if ( start == version.length() || start == 0 || !VersionTokens.isDelimiter( version.charAt( start - 1 ) ) )
+        {
+            return;
+        }
+
+        final int buildNumber;
+        try
+        {
+            buildNumber = Integer.parseInt( version.substring( start ) );
+        }
+        catch ( NumberFormatException e )
+        {
+            logger.debug( "Ignoring candidate {} as build number is too large", version );
+            return;
+        }
+
+        // The prefix may only contain the numeric components (and delimiters) so try each split point within them.
+        final String head = version.substring( 0, start - 1 );
+        for ( int i = 0; i <= head.length(); i++ )
+        {
+            if ( i == head.length() )
+            {
+                addEntry( EMPTY_STRING, head, buildNumber );
+                break;
+            }
+            final char c = head.charAt( i );
+            if ( VersionTokens.isDelimiter( c ) )
+            {
+                if ( i + 1 < head.length() )
+                {
+                    addEntry( head.substring( i + 1 ), head.substring( 0, i ), buildNumber );
+                }
+            }
+            else if ( !isDigit( c ) )
+            {
+                break;
+            }
+        }
+    }
+
+    private void addEntry( final String qualifier, final String prefix, final int buildNumber )
+    {
+        index.computeIfAbsent( qualifier, k -> new HashMap<>() )
+             .computeIfAbsent( canonicalPrefix( prefix ), k -> new HashMap<>() )
+             .merge( prefix, buildNumber, Math::max );
+    }
+
+    /**
+     * Equivalent to {@link Version#findHighestMatchingBuildNumber(String, Set)} against the versions in this index.
+     *
+     * @param version the version to match.
+     * @return the highest build number, or 0 if no matching build numbers are found.
+     */
+    int findHighestMatchingBuildNumber( final String version )
+    {
+        final String mmm = Version.getMMM( version );
+        String qualifier = Version.removeLeadingDelimiter(
+                        VersionTokens.parse( Version.getOsgiVersion( version ) ).getQualifierWithoutBuildNumber() );
+        if ( Version.isEmpty( qualifier ) )
+        {
+            qualifier = EMPTY_STRING;
+        }
+
+        int highestBuildNum = 0;
+        final Map<String, Map<String, Integer>> byPrefix = index.get( qualifier );
+        if ( byPrefix != null )
+        {
+            final String canonical = canonicalPrefix( mmm );
+            final Map<String, Integer> matches = byPrefix.get( canonical );
+            if ( matches != null )
+            {
+                for ( Map.Entry<String, Integer> entry : matches.entrySet() )
+                {
+                    // Prefix must be <mmm>(<delim>0)*
+                    if ( entry.getKey().startsWith( mmm ) && isZeroPadding( entry.getKey(), mmm.length() ) )
+                    {
+                        highestBuildNum = Math.max( highestBuildNum, entry.getValue() );
+                    }
+                }
+            }
+            // The prefix is optional.
+            if ( !canonical.isEmpty() )
+            {
+                final Map<String, Integer> empty = byPrefix.get( EMPTY_STRING );
+                if ( empty != null && empty.containsKey( EMPTY_STRING ) )
+                {
+                    highestBuildNum = Math.max( highestBuildNum, empty.get( EMPTY_STRING ) );
+                }
+            }
+        }
+        logger.debug( "Found highest matching build number {} for {} from {} candidates", highestBuildNum, version,
+                      versions.size() );
+        return highestBuildNum;
+    }
+
+    /**
+     * Equivalent to {@link Version#getBuildNumberPadding(int, Set)} against the versions in this index.
+     *
+     * @param incrementalSerialSuffixPadding if there is an explicit padding override.
+     * @return the amount of padding to apply.
+     */
+    int getBuildNumberPadding( final int incrementalSerialSuffixPadding )
+    {
+        return incrementalSerialSuffixPadding == 0 ? buildNumberLength : incrementalSerialSuffixPadding;
+    }
+
+    Set<String> getVersions()
+    {
+        return versions;
+    }
+
+    /**
+     * Removes any trailing <code>&lt;delim&gt;0</code> components.
+     */
+    private static String canonicalPrefix( final String prefix )
+    {
+        int end = prefix.length();
+        while ( end >= 2 && prefix.charAt( end - 1 ) == '0' && VersionTokens.isDelimiter( prefix.charAt( end - 2 ) ) )
+        {
+            end -= 2;
+        }
+        return prefix.substring( 0, end );
+    }
+
+    private static boolean isZeroPadding( final String prefix, final int from )
+    {
+        if ( ( prefix.length() - from ) % 2 != 0 )
+        {
+            return false;
+        }
+        for ( int i = from; i < prefix.length(); i += 2 )
+        {
+            if ( !VersionTokens.isDelimiter( prefix.charAt( i ) ) || prefix.charAt( i + 1 ) != '0' )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit( final char c )
+    {
+        return c >= '0' && c <= '9';
+    }
+}
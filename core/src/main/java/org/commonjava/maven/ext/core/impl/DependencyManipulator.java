@@ -34,6 +34,7 @@ import org.commonjava.maven.ext.core.state.CommonState;
 import org.commonjava.maven.ext.core.state.DependencyState;
 import org.commonjava.maven.ext.core.state.DependencyState.DependencyPrecedence;
 import org.commonjava.maven.ext.core.state.RESTState;
+import org.commonjava.maven.ext.core.util.DependencyOverride;
 import org.commonjava.maven.ext.core.util.PropertiesUtils;
 import org.commonjava.maven.ext.core.util.PropertyMapper;
 import org.commonjava.maven.ext.core.util.WildcardMap;
@@ -100,7 +101,7 @@ public class DependencyManipulator implements Manipulator
     @Override
     public void init( final ManipulationSession session ) throws ManipulationException
     {
-        session.setState( new DependencyState( session.getUserProperties() ) );
+        session.setState( new DependencyState( session.getUserPropertiesSnapshot() ) );
         this.session = session;
     }
 
@@ -347,10 +348,11 @@ public class DependencyManipulator implements Manipulator
 
         try
         {
-            moduleOverrides = applyModuleVersionOverrides( projectGA,
-                                                           dependencyState.getDependencyExclusions(),
+            moduleOverrides = applyModuleVersionOverrides( projectGA, dependencyState,
                                                            moduleOverrides, explicitOverrides,
                                                            dependencyState.getExtraBOMDepMgmts() );
+            // The explicit overrides are only read from here on.
+            explicitOverrides.freeze();
             logger.debug( "Module overrides are:\n{}", moduleOverrides );
             logger.debug( "Explicit overrides are:\n{}", explicitOverrides);
         }
@@ -762,22 +764,22 @@ public class DependencyManipulator implements Manipulator
     }
 
     /**
-     * Remove module overrides which do not apply to the current module. Searches the full list of version overrides
-     * for any keys which contain the '@' symbol.  Removes these from the version overrides list, and add them back
-     * without the '@' symbol only if they apply to the current module.
+     * Remove module overrides which do not apply to the current module. Module specific overrides are looked up from
+     * the rules precompiled by {@link DependencyState} ; those that apply to the current module are added to the
+     * explicit overrides (or, if empty, prevent alignment of the artifact).
      *
      * @param projectGA the current project group : artifact
+     * @param dependencyState the state holding the compiled module and global overrides
      * @param originalOverrides The full list of version overrides, both global and module specific
-     * @param moduleOverrides are individual overrides e.g. group:artifact@groupId:artifactId :: value
      * @param explicitOverrides a custom map to handle wildcard overrides
      * @param extraBOMOverrides a nested map of additional overrides, keyed on a String
      * @return The map of global and module specific overrides which apply to the given module
      * @throws ManipulationException if an error occurs
      */
     private Map<ArtifactRef, String> applyModuleVersionOverrides( final String projectGA,
-                                                                  final Map<String, String> moduleOverrides,
+                                                                  final DependencyState dependencyState,
                                                                   Map<ArtifactRef, String> originalOverrides,
-                                                                  final WildcardMap explicitOverrides,
+                                                                  final WildcardMap<String> explicitOverrides,
                                                                   final Map<String, Map<ProjectRef, String>> extraBOMOverrides )
                     throws ManipulationException
     {
@@ -789,137 +791,81 @@ public class DependencyManipulator implements Manipulator
                     join(remainingOverrides.entrySet(), "\n  "));
         }
 
-        // These modes correspond to two different kinds of passes over the available override properties:
+        // These correspond to two different kinds of passes over the available overrides:
         // 1. Module-specific: Don't process wildcard overrides here, allow module-specific settings to take precedence.
         // 2. Wildcards: Add these IF there is no corresponding module-specific override.
-        final boolean wildcardMode[] = { false, true };
-        for ( boolean aWildcardMode : wildcardMode )
+        for ( final DependencyOverride override : dependencyState.getModuleOverrides( SimpleProjectRef.parse( projectGA ) ) )
         {
-            for ( final String currentKey : new HashSet<>( moduleOverrides.keySet() ) )
+            if ( !override.getValue().isEmpty() )
             {
-                final String currentValue = moduleOverrides.get( currentKey );
-
-                logger.debug( "Processing key {} for override with value {}", currentKey, currentValue );
-
-                if ( !currentKey.contains( "@" ) )
-                {
-                    logger.debug( "Not an override. Skip." );
-                    continue;
-                }
-
-                final boolean isModuleWildcard = currentKey.endsWith( "@*" );
-                logger.debug( "Is wildcard? {} and in module wildcard mode? {} ", isModuleWildcard, aWildcardMode );
-
-                String artifactGA = null;
-                boolean replace = false;
-                // process module-specific overrides (first)
-                if ( !aWildcardMode )
-                {
-                    // skip wildcard overrides in this mode
-                    if ( isModuleWildcard )
-                    {
-                        logger.debug( "Not currently in wildcard mode. Skip." );
-                        continue;
-                    }
-
-                    final String[] artifactAndModule = currentKey.split( "@" );
-                    if ( artifactAndModule.length != 2 )
-                    {
-                        throw new ManipulationException( "Invalid format for exclusion key " + currentKey );
-                    }
-                    artifactGA = artifactAndModule[0];
-                    final ProjectRef moduleGA = SimpleProjectRef.parse( artifactAndModule[1] );
-
-                    logger.debug( "For artifact override: {}, comparing parsed module: {} to current project: {}",
-                                  artifactGA, moduleGA, projectGA );
-
-                    if ( moduleGA.toString().equals( projectGA ) ||
-                                    (
-                                        moduleGA.getArtifactId().equals( "*" ) &&
-                                        SimpleProjectRef.parse( projectGA ).getGroupId().equals( moduleGA.getGroupId()
-                                    )
-                        ) )
-                    {
-                        if ( currentValue != null && !currentValue.isEmpty() )
-                        {
-                            replace = true;
-                            logger.debug( "Overriding module dependency for {} with {} : {}", moduleGA, artifactGA,
-                                          currentValue );
-                        }
-                        else
-                        {
-                            // Override prevention...
-                            removeGA( remainingOverrides, SimpleProjectRef.parse( artifactGA ) );
-                            logger.debug( "For module {}, ignoring dependency override for {} ", moduleGA, artifactGA);
-                        }
-                    }
-                }
-                // process wildcard overrides (second)
-                else
-                {
-                    // skip module-specific overrides in this mode i.e. format of groupdId:artifactId@*=
-                    if ( !isModuleWildcard )
-                    {
-                        logger.debug( "Currently in wildcard mode. Skip." );
-                        continue;
-                    }
-
-                    artifactGA = currentKey.substring( 0, currentKey.length() - 2 );
-                    logger.debug( "For artifact override: {}, checking if current overrides already contain a module-specific version.",
-                                  artifactGA );
-
-                    if ( explicitOverrides.containsKey( SimpleProjectRef.parse( artifactGA ) ) )
-                    {
-                        logger.debug( "For artifact override: {}, current overrides already contain a module-specific version. Skip.",
-                                      artifactGA );
-                        continue;
-                    }
+                logger.debug( "Overriding module dependency for {} with {} : {}", override.getModule(),
+                              override.getArtifact(), override.getValue() );
+                addExplicitOverride( explicitOverrides, extraBOMOverrides, override );
+            }
+            else
+            {
+                // Override prevention...
+                removeGA( remainingOverrides, override.getArtifact() );
+                logger.debug( "For module {}, ignoring dependency override for {} ", override.getModule(),
+                              override.getArtifact() );
+            }
+        }
 
-                    // I think this is only used for e.g. dependencyExclusion.groupId:artifactId@*=<explicitVersion>
-                    if ( currentValue != null && !currentValue.isEmpty() )
-                    {
-                        logger.debug( "Overriding module dependency for {} with {} : {}", projectGA, artifactGA,
-                                      currentValue );
-                        replace = true;
-                    }
-                    else
-                    {
-                        // If we have a wildcard artifact we want to replace any prior explicit overrides
-                        // with this one i.e. this takes precedence.
-                        removeGA( remainingOverrides, SimpleProjectRef.parse( artifactGA ) );
-                        logger.debug( "Removing artifactGA {} from overrides", artifactGA );
-                    }
-                }
+        for ( final DependencyOverride override : dependencyState.getGlobalOverrides() )
+        {
+            if ( explicitOverrides.containsKey( override.getArtifact() ) )
+            {
+                logger.debug( "For artifact override: {}, current overrides already contain a module-specific version. Skip.",
+                              override.getArtifact() );
+                continue;
+            }
 
-                if ( replace )
-                {
-                    ProjectRef projectRef = SimpleProjectRef.parse( artifactGA );
-                    String newArtifactValue;
-                    // Expand values that reference an extra BOM
-                    Map<ProjectRef, String> extraBOM = extraBOMOverrides.get( currentValue );
-                    if ( extraBOM == null )
-                    {
-                        newArtifactValue = currentValue;
-                    }
-                    else
-                    {
-                        newArtifactValue = extraBOM.get( projectRef );
-                        if ( newArtifactValue == null )
-                        {
-                            throw new ManipulationException( "Extra BOM {} does not define a version for artifact {} targeted by {}",
-                                                             currentValue, artifactGA, currentKey );
-                        }
-                        logger.debug( "Dereferenced value {} for {} from extra BOM {}", newArtifactValue, artifactGA,
-                                      currentValue );
-                    }
-                    explicitOverrides.put( projectRef, newArtifactValue );
-                }
+            // I think this is only used for e.g. dependencyExclusion.groupId:artifactId@*=<explicitVersion>
+            if ( !override.getValue().isEmpty() )
+            {
+                logger.debug( "Overriding module dependency for {} with {} : {}", projectGA, override.getArtifact(),
+                              override.getValue() );
+                addExplicitOverride( explicitOverrides, extraBOMOverrides, override );
+            }
+            else
+            {
+                // If we have a wildcard artifact we want to replace any prior explicit overrides
+                // with this one i.e. this takes precedence.
+                removeGA( remainingOverrides, override.getArtifact() );
+                logger.debug( "Removing artifactGA {} from overrides", override.getArtifact() );
             }
         }
 
         return remainingOverrides;
     }
 
+    private void addExplicitOverride( final WildcardMap<String> explicitOverrides,
+                                      final Map<String, Map<ProjectRef, String>> extraBOMOverrides,
+                                      final DependencyOverride override ) throws ManipulationException
+    {
+        final ProjectRef projectRef = override.getArtifact();
+        final String currentValue = override.getValue();
+        String newArtifactValue;
+        // Expand values that reference an extra BOM
+        Map<ProjectRef, String> extraBOM = extraBOMOverrides.get( currentValue );
+        if ( extraBOM == null )
+        {
+            newArtifactValue = currentValue;
+        }
+        else
+        {
+            newArtifactValue = extraBOM.get( projectRef );
+            if ( newArtifactValue == null )
+            {
+                throw new ManipulationException( "Extra BOM {} does not define a version for artifact {} targeted by {}",
+                                                 currentValue, projectRef.toString(), override.getKey() );
+            }
+            logger.debug( "Dereferenced value {} for {} from extra BOM {}", newArtifactValue, projectRef,
+                          currentValue );
+        }
+        explicitOverrides.put( projectRef, newArtifactValue );
+    }
+
     private void removeGA( Map<ArtifactRef, String> overrides, ProjectRef ref )
     {
         Iterator<ArtifactRef> it = overrides.keySet().iterator();
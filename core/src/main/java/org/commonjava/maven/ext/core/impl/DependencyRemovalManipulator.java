@@ -20,13 +20,13 @@ import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Profile;
 import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
-import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.common.model.Project;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.DependencyRemovalState;
 import org.commonjava.maven.ext.core.state.DependencyState;
 import org.commonjava.maven.ext.core.state.State;
+import org.commonjava.maven.ext.core.util.ProjectRefMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +34,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,7 +62,7 @@ public class DependencyRemovalManipulator
     @Override
     public void init( final ManipulationSession session )
     {
-        session.setState( new DependencyRemovalState( session.getUserProperties() ) );
+        session.setState( new DependencyRemovalState( session.getUserPropertiesSnapshot() ) );
         this.session = session;
     }
 
@@ -98,60 +99,64 @@ public class DependencyRemovalManipulator
     private boolean apply( final Project project, final Model model ) throws ManipulationException
     {
         final DependencyRemovalState state = session.getState(DependencyRemovalState.class);
+        final ProjectRefMatcher dependenciesToRemove = state.getDependencyRemovalMatcher();
 
         logger.info("Applying Dependency changes to: " + ga(project));
 
-        List<ProjectRef> dependenciesToRemove = state.getDependencyRemoval();
-        boolean result = scanDependencies( project.getAllResolvedDependencies( session ), dependenciesToRemove, model.getDependencies());
+        int removed = scanDependencies( project.getAllResolvedDependencies( session ), dependenciesToRemove,
+                                        model.getDependencies() );
 
-        if ( model.getDependencyManagement() != null &&
-             scanDependencies(project.getResolvedManagedDependencies( session ), dependenciesToRemove, model.getDependencyManagement().getDependencies()))
+        if ( model.getDependencyManagement() != null )
         {
-            result = true;
+            removed += scanDependencies( project.getResolvedManagedDependencies( session ), dependenciesToRemove,
+                                         model.getDependencyManagement().getDependencies() );
         }
 
         final Map<Profile, Map<ArtifactRef, Dependency>> pd = project.getAllResolvedProfileDependencies( session );
         final Map<Profile, Map<ArtifactRef, Dependency>> pmd = project.getResolvedProfileManagedDependencies( session );
-        for ( Profile profile : pd.keySet())
+        // Both maps are keyed by the same Profile instances from the model so a single pass covers each profile.
+        for ( Profile profile : pd.keySet() )
         {
-            int index = model.getProfiles().indexOf( profile );
-            if ( scanDependencies( pd.get( profile ), dependenciesToRemove, model.getProfiles().get( index ).getDependencies() ) )
+            removed += scanDependencies( pd.get( profile ), dependenciesToRemove, profile.getDependencies() );
+
+            DependencyManagement dm = profile.getDependencyManagement();
+            if ( dm != null )
             {
-                result = true;
+                removed += scanDependencies( pmd.get( profile ), dependenciesToRemove, dm.getDependencies() );
             }
         }
-        for ( Profile profile : pmd.keySet())
+
+        if ( removed > 0 )
         {
-            int index = model.getProfiles().indexOf( profile );
-            DependencyManagement dm = model.getProfiles().get( index ).getDependencyManagement();
-            if ( dm != null )
-            {
-                if ( scanDependencies( pmd.get( profile ), dependenciesToRemove, dm.getDependencies() ) )
-                {
-                    result = true;
-                }
-            }
+            logger.info( "Removed {} dependencies from {}", removed, ga( project ) );
         }
-        return result;
+        return removed > 0;
     }
 
-    private boolean scanDependencies( Map<ArtifactRef, Dependency> resolvedDependencies,
-                                      List<ProjectRef> dependenciesToRemove, List<Dependency> dependencies )
+    private int scanDependencies( Map<ArtifactRef, Dependency> resolvedDependencies,
+                                  ProjectRefMatcher dependenciesToRemove, List<Dependency> dependencies )
     {
-        boolean result = false;
-        if ( dependencies != null )
+        if ( dependencies == null || dependencies.isEmpty() || resolvedDependencies == null )
         {
-            for ( ArtifactRef pvr : resolvedDependencies.keySet() )
+            return 0;
+        }
+
+        // The resolved map values are the model instances so removal is by identity.
+        final Set<Dependency> toRemove = Collections.newSetFromMap( new IdentityHashMap<Dependency, Boolean>() );
+        for ( Map.Entry<ArtifactRef, Dependency> entry : resolvedDependencies.entrySet() )
+        {
+            if ( dependenciesToRemove.matches( entry.getKey() ) )
             {
-                if ( dependenciesToRemove.contains( pvr.asProjectRef() ) )
-                {
-                    logger.debug( "Removing {} ", resolvedDependencies.get( pvr ) );
-                    dependencies.remove( resolvedDependencies.get( pvr ) );
-                    result = true;
-                }
+                logger.debug( "Removing {} ", entry.getValue() );
+                toRemove.add( entry.getValue() );
             }
         }
-        return result;
+
+        if ( !toRemove.isEmpty() )
+        {
+            dependencies.removeIf( toRemove::contains );
+        }
+        return toRemove.size();
     }
 
     @Override
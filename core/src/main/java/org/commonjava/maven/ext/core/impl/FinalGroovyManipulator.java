@@ -59,7 +59,7 @@ public class FinalGroovyManipulator
     @Override
     public void init( final ManipulationSession session ) throws ManipulationException
     {
-        GroovyState gs = new GroovyState( session.getUserProperties() );
+        GroovyState gs = new GroovyState( session.getUserPropertiesSnapshot() );
         this.session = session;
         session.setState( gs );
     }
@@ -67,7 +67,7 @@ public class JSONManipulator
                     throws ManipulationException
     {
         this.session = session;
-        session.setState( new JSONState( session.getUserProperties() ) );
+        session.setState( new JSONState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
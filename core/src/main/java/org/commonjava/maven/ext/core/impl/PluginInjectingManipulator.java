@@ -80,7 +80,7 @@ public class PluginInjectingManipulator
         throws ManipulationException
     {
         this.session = session;
-        session.setState( new PluginInjectingState( session.getUserProperties() ) );
+        session.setState( new PluginInjectingState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
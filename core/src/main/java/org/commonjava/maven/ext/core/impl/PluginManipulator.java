@@ -116,7 +116,7 @@ public class PluginManipulator
     public void init( final ManipulationSession session ) throws ManipulationException
     {
         this.session = session;
-        session.setState( new PluginState( session.getUserProperties() ) );
+        session.setState( new PluginState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
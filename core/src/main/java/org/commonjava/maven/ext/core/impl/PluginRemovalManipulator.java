@@ -61,7 +61,7 @@ public class PluginRemovalManipulator
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new PluginRemovalState( session.getUserProperties() ) );
+        session.setState( new PluginRemovalState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
@@ -55,7 +55,7 @@ public class ProfileRemovalManipulator
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new ProfileRemovalState( session.getUserProperties() ) );
+        session.setState( new ProfileRemovalState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
@@ -80,7 +80,7 @@ public class ProjectVersioningManipulator
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new VersioningState( session.getUserProperties() ) );
+        session.setState( new VersioningState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
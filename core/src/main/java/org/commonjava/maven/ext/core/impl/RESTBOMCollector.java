@@ -15,6 +15,7 @@
  */
 package org.commonjava.maven.ext.core.impl;
 
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationException;
@@ -27,6 +28,7 @@ import org.commonjava.maven.ext.core.state.RESTState;
 import org.commonjava.maven.ext.core.util.PropertiesUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -37,12 +39,18 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 /**
  * This Manipulator runs very early. It makes a REST call to an external service to increment the GAVs to align the project version
  * and dependencies to. It will prepopulate Project GA versions into the VersioningState in case the VersioningManipulator has been
  * activated and the various remove BOM/Plugin/Profiles as well.
+ * <p>
+ * As this is the first REST lookup it also plans those of the {@link RESTCollector}: the reactor and dependency GAVs
+ * are sent in the same request and the blacklist lookup is started alongside it. The results are recorded in the
+ * {@link RESTState} so that the RESTCollector only needs to send anything changed by the manipulators in between.
  */
 @Named("rest-bom-manipulator")
 @Singleton
@@ -66,7 +74,7 @@ public class RESTBOMCollector
     @Override
     public Set<Project> applyChanges( final List<Project> projects )
     {
-        populateBOMVersions( );
+        populateBOMVersions( projects );
 
         return Collections.emptySet();
     }
@@ -78,7 +86,7 @@ public class RESTBOMCollector
         return 4;
     }
 
-    private void populateBOMVersions( )
+    private void populateBOMVersions( final List<Project> projects )
     {
         final RESTState state = session.getState( RESTState.class );
         final DependencyState ds = session.getState( DependencyState.class );
@@ -101,10 +109,17 @@ public class RESTBOMCollector
 
         // Call the REST to populate the result.
         logger.debug ("Passing {} BOM GAVs following into the REST client api {} ", restParam.size(), restParam);
-        logger.info ("Calling REST client for BOMs...");
-        Map<ProjectVersionRef, String> restResult = state.getVersionTranslator().translateVersions( restParam );
+
+        final List<ProjectVersionRef> prefetch = establishPrefetch( projects );
+        restParam.addAll( prefetch );
+        prefetchBlacklist( state, projects );
+
+        logger.info ("Calling REST client for BOMs and {} project and dependency GAVs...", prefetch.size());
+        Map<ProjectVersionRef, String> restResult = state.translateVersions( restParam );
         logger.debug ("REST Client returned for BOMs {} ", restResult);
 
+        state.setPrefetchedVersions( prefetch, restResult );
+
         final ListIterator<ProjectVersionRef> emptyIterator = Collections.<ProjectVersionRef>emptyList().listIterator();
 
         // Process rest result for boms
@@ -114,6 +129,64 @@ public class RESTBOMCollector
     }
 
 
+    /**
+     * Establishes the GAVs the RESTCollector will look up, as far as they are known at this point.
+     */
+    private List<ProjectVersionRef> establishPrefetch( final List<Project> projects )
+    {
+        final List<ProjectVersionRef> prefetch = new ArrayList<>( RESTCollector.establishProjectKeys( session, projects ) );
+
+        try
+        {
+            RESTCollector.establishAllDependencies( session, projects, null ).forEach( a -> prefetch.add( a.asProjectVersionRef() ) );
+        }
+        catch ( ManipulationException e )
+        {
+            // The RESTCollector will report this if it still applies once the intervening manipulators have run.
+            logger.debug( "Unable to establish dependencies in advance ({}) ; only prefetching project GAVs", e.getMessage() );
+        }
+        return prefetch;
+    }
+
+    /**
+     * Starts the blacklist lookup for the execution root in the background.
+     */
+    private void prefetchBlacklist( final RESTState state, final List<Project> projects )
+    {
+        for ( Project p : projects )
+        {
+            if ( p.isExecutionRoot() )
+            {
+                final ProjectRef project = p.getKey().asProjectRef();
+                final Map<String, String> mdc = MDC.getCopyOfContextMap();
+                final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+                try
+                {
+                    state.setPrefetchedBlacklist( project, executor.submit( () -> {
+                        if ( mdc != null )
+                        {
+                            MDC.setContextMap( mdc );
+                        }
+                        try
+                        {
+                            return state.getVersionTranslator().findBlacklisted( project );
+                        }
+                        finally
+                        {
+                            MDC.clear();
+                        }
+                    } ) );
+                }
+                finally
+                {
+                    executor.shutdown();
+                }
+                break;
+            }
+        }
+    }
+
     private void populateRestParam( final ArrayList<ProjectVersionRef> restParam, final String log, final List<ProjectVersionRef> bomMgmt )
     {
         asStream( bomMgmt ).filter
@@ -90,28 +90,7 @@ public class RESTCollector
             return;
         }
 
-        final ArrayList<ProjectVersionRef> newProjectKeys = new ArrayList<>();
-        final String override = vs.getOverride();
-
-        for ( final Project project : projects )
-        {
-            if ( isEmpty( override ) )
-            {
-                // TODO: Check this : For the rest API I think we need to check every project GA not just inheritance root.
-                // Strip SNAPSHOT and handle alternate suffixes from the version for matching. DA will handle OSGi conversion.
-                newProjectKeys.add( new SimpleProjectVersionRef(
-                                project.getKey().asProjectRef(), handlePotentialSnapshotVersion(
-                                                vs, VersionCalculator.handleAlternate( vs, project.getVersion() ) ) ) );
-            }
-            else if ( project.isExecutionRoot() )
-            {
-                // We want to manually override the version ; therefore ignore what is in the project and calculate potential
-                // matches for that instead.
-                Project p = projects.get( 0 );
-                newProjectKeys.add( new SimpleProjectVersionRef( p.getGroupId(), p.getArtifactId(), override ) );
-            }
-        }
-
+        final List<ProjectVersionRef> newProjectKeys = establishProjectKeys( session, projects );
         final ArrayList<ProjectVersionRef> restParam = new ArrayList<>( newProjectKeys );
         final Set<ArtifactRef> localDeps = establishAllDependencies( session, projects, null );
 
@@ -130,7 +109,7 @@ public class RESTCollector
 
         try
         {
-            restResult = state.getVersionTranslator().translateVersions( restParam );
+            restResult = state.translateVersions( restParam );
         }
         finally
         {
@@ -160,7 +139,7 @@ public class RESTCollector
      * Parse the rest result for the project GAs and store them in versioning state for use
      * there by incremental suffix calculation.
      */
-    private Map<ProjectRef, Set<String>> parseVersions( ManipulationSession session, List<Project> projects, RESTState state, ArrayList<ProjectVersionRef> newProjectKeys,
+    private Map<ProjectRef, Set<String>> parseVersions( ManipulationSession session, List<Project> projects, RESTState state, List<ProjectVersionRef> newProjectKeys,
                                                         Map<ProjectVersionRef, String> restResult )
                     throws ManipulationException
     {
@@ -193,7 +172,7 @@ public class RESTCollector
             if ( p.isExecutionRoot() )
             {
                 logger.debug ("Calling REST client for blacklist with {}...", p.getKey().asProjectRef());
-                blacklist = state.getVersionTranslator().findBlacklisted( p.getKey().asProjectRef() );
+                blacklist = state.findBlacklisted( p.getKey().asProjectRef() );
 
                 if ( blacklist.size() > 0)
                 {
@@ -257,6 +236,47 @@ public class RESTCollector
     }
 
 
+    /**
+     * Establishes the project GAVs to look up, stripping SNAPSHOT and alternate suffixes or applying any version
+     * override. The keys are registered with the {@link RESTState} so that they bypass any translation cache.
+     *
+     * @param session the ManipulationSession
+     * @param projects the projects to scan.
+     * @return the project GAVs to send to the REST service.
+     */
+    static List<ProjectVersionRef> establishProjectKeys( ManipulationSession session, final List<Project> projects )
+    {
+        final VersioningState vs = session.getState( VersioningState.class );
+        final List<ProjectVersionRef> newProjectKeys = new ArrayList<>();
+        final String override = vs.getOverride();
+
+        for ( final Project project : projects )
+        {
+            if ( isEmpty( override ) )
+            {
+                // TODO: Check this : For the rest API I think we need to check every project GA not just inheritance root.
+                // Strip SNAPSHOT and handle alternate suffixes from the version for matching. DA will handle OSGi conversion.
+                newProjectKeys.add( new SimpleProjectVersionRef(
+                                project.getKey().asProjectRef(), handlePotentialSnapshotVersion(
+                                                vs, VersionCalculator.handleAlternate( vs, project.getVersion() ) ) ) );
+            }
+            else if ( project.isExecutionRoot() )
+            {
+                // We want to manually override the version ; therefore ignore what is in the project and calculate potential
+                // matches for that instead.
+                Project p = projects.get( 0 );
+                newProjectKeys.add( new SimpleProjectVersionRef( p.getGroupId(), p.getArtifactId(), override ) );
+            }
+        }
+
+        final RESTState state = session.getState( RESTState.class );
+        if ( state != null )
+        {
+            state.addProjectKeys( newProjectKeys );
+        }
+        return newProjectKeys;
+    }
+
     /**
      * Scans a list of projects and accumulates all dependencies and returns them.
      *
@@ -395,7 +415,7 @@ public class RESTCollector
     }
 
 
-    private static String handlePotentialSnapshotVersion( VersioningState vs, String version )
+    static String handlePotentialSnapshotVersion( VersioningState vs, String version )
     {
         if ( vs != null && ! vs.isPreserveSnapshot() )
         {
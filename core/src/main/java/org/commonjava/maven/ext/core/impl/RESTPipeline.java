@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.state.RESTState;
+import org.commonjava.maven.ext.core.state.VersioningState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Overlaps the REST lookups with parsing of the POMs. As each project is parsed the GAVs that can already be
+ * established from it, i.e. its own GAV, its parent and any dependencies and plugins with literal versions, are
+ * translated in batches on a background thread. The pending results are handed to the {@link RESTState} so that the
+ * collectors only need to send whatever remains.
+ * <p>
+ * Only enabled if <code>restPipeline</code> is set to true.
+ */
+public class RESTPipeline
+                implements Consumer<Project>
+{
+    public static final String REST_PIPELINE = "restPipeline";
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger( RESTPipeline.class );
+
+    private final ManipulationSession session;
+
+    private final RESTState state;
+
+    private final Set<ProjectVersionRef> seen = new HashSet<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+    private List<ProjectVersionRef> batch = new ArrayList<>();
+
+    RESTPipeline( ManipulationSession session, RESTState state )
+    {
+        this.session = session;
+        this.state = state;
+    }
+
+    /**
+     * @param session the ManipulationSession
+     * @return a pipeline to pass the projects to as they are parsed, or null if pipelining is not enabled.
+     */
+    public static RESTPipeline create( ManipulationSession session )
+    {
+        final RESTState state = session.getState( RESTState.class );
+
+        if ( !session.isEnabled() || state == null || !state.isEnabled() || !Boolean.parseBoolean(
+                        session.getUserPropertiesSnapshot().getProperty( REST_PIPELINE ) ) )
+        {
+            return null;
+        }
+        return new RESTPipeline( session, state );
+    }
+
+    @Override
+    public void accept( Project project )
+    {
+        establishGAVs( project ).stream().filter( seen::add ).forEach( batch::add );
+
+        if ( batch.size() >= BATCH_SIZE )
+        {
+            submit();
+        }
+    }
+
+    /**
+     * Sends any remaining GAVs. No further projects may be passed in afterwards.
+     */
+    public void finish()
+    {
+        submit();
+        executor.shutdown();
+    }
+
+    /**
+     * Abandons the pipeline, e.g. because parsing failed. Any remaining GAVs are discarded and a lookup that is
+     * still running is interrupted.
+     */
+    public void cancel()
+    {
+        batch.clear();
+        executor.shutdownNow();
+    }
+
+    private void submit()
+    {
+        if ( batch.isEmpty() )
+        {
+            return;
+        }
+
+        final List<ProjectVersionRef> requested = batch;
+        batch = new ArrayList<>();
+
+        logger.debug( "Translating {} GAVs in the background", requested.size() );
+
+        state.addPrefetchedVersions( requested, executor.submit( () -> {
+            if ( mdc != null )
+            {
+                MDC.setContextMap( mdc );
+            }
+            try
+            {
+                return state.getVersionTranslator().translateVersions( requested );
+            }
+            finally
+            {
+                MDC.clear();
+            }
+        } ) );
+    }
+
+    /**
+     * Establishes the GAVs of a single project that do not depend upon property resolution or inheritance.
+     *
+     * @param project the project, which may not yet have its inheritance information filled out.
+     * @return the GAVs in the form they will later be requested by the collectors.
+     */
+    List<ProjectVersionRef> establishGAVs( Project project )
+    {
+        final List<ProjectVersionRef> result =
+                        new ArrayList<>( RESTCollector.establishProjectKeys( session, Collections.singletonList( project ) ) );
+        final Parent parent = project.getModelParent();
+
+        if ( parent != null )
+        {
+            addLiteral( result, parent.getGroupId(), parent.getArtifactId(), parent.getVersion() );
+        }
+
+        addModelBase( result, project.getModel() );
+        addBuild( result, project.getModel().getBuild() );
+
+        for ( Profile profile : project.getModel().getProfiles() )
+        {
+            addModelBase( result, profile );
+            addBuild( result, profile.getBuild() );
+        }
+        return result;
+    }
+
+    private void addModelBase( List<ProjectVersionRef> result, ModelBase base )
+    {
+        final DependencyManagement dm = base.getDependencyManagement();
+        final List<Dependency> dependencies = new ArrayList<>( base.getDependencies() );
+
+        if ( dm != null )
+        {
+            dependencies.addAll( dm.getDependencies() );
+        }
+        for ( Dependency d : dependencies )
+        {
+            if ( !session.getExcludedScopes().contains( d.getScope() ) )
+            {
+                addLiteral( result, d.getGroupId(), d.getArtifactId(), d.getVersion() );
+            }
+        }
+    }
+
+    private void addBuild( List<ProjectVersionRef> result, BuildBase build )
+    {
+        if ( build == null )
+        {
+            return;
+        }
+
+        final List<Plugin> plugins = new ArrayList<>( build.getPlugins() );
+
+        if ( build.getPluginManagement() != null )
+        {
+            plugins.addAll( build.getPluginManagement().getPlugins() );
+        }
+        for ( Plugin p : plugins )
+        {
+            addLiteral( result, p.getGroupId(), p.getArtifactId(), p.getVersion() );
+        }
+    }
+
+    private void addLiteral( List<ProjectVersionRef> result, String groupId, String artifactId, String version )
+    {
+        if ( isLiteral( groupId ) && isLiteral( artifactId ) && isLiteral( version ) )
+        {
+            result.add( new SimpleProjectVersionRef( groupId, artifactId, RESTCollector.handlePotentialSnapshotVersion(
+                            session.getState( VersioningState.class ), version ) ) );
+        }
+    }
+
+    private static boolean isLiteral( String value )
+    {
+        return value != null && !value.isEmpty() && !value.contains( "$" );
+    }
+}
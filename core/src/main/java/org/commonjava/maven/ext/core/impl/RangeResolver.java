@@ -21,6 +21,7 @@ import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.Profile;
 import org.commonjava.maven.atlas.ident.ref.ProjectRef;
@@ -32,20 +33,24 @@ import org.commonjava.maven.ext.core.state.RangeResolverState;
 import org.commonjava.maven.ext.core.state.State;
 import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
 import org.commonjava.maven.galley.maven.GalleyMavenException;
-import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * This Manipulator runs first and is active by default. It will resolve any ranges and update
@@ -72,13 +77,12 @@ public class RangeResolver
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new RangeResolverState( session.getUserProperties() ) );
+        session.setState( new RangeResolverState( session.getUserPropertiesSnapshot() ) );
     }
 
     @Override
     public Set<Project> applyChanges( final List<Project> projects ) throws ManipulationException
     {
-        final Set<Project> changed = new HashSet<>();
         final RangeResolverState state = session.getState( RangeResolverState.class );
 
         if ( !session.isEnabled() || !session.anyStateEnabled( State.activeByDefault ) || state == null || !state.isEnabled() )
@@ -87,112 +91,69 @@ public class RangeResolver
             return Collections.emptySet();
         }
 
-        for ( Project p : projects )
-        {
-            try
-            {
-                // TODO:
-                // Ranges in properties are not currently handled.
-
-                if ( p.getModel().getBuild() != null )
-                {
-                    // PluginManagement
-                    if ( p.getModel().getBuild().getPluginManagement() != null )
-                    {
-                        p.getModel()
-                         .getBuild()
-                         .getPluginManagement()
-                         .getPlugins()
-                         .stream()
-                         .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                         .forEach( this::handleVersionWithRange );
-                    }
-                    // Plugins
-                    p.getModel()
-                     .getBuild()
-                     .getPlugins()
-                     .stream()
-                     .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                     .forEach( this::handleVersionWithRange );
-                }
-
-                // DependencyManagement
-                if ( p.getModel().getDependencyManagement() != null )
-                {
-                    p.getModel().getDependencyManagement().getDependencies().stream()
-                     .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                     .forEach( this::handleVersionWithRange );
-                }
-                // Dependencies
-                p.getModel().getDependencies().stream()
-                 .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                 .forEach( this::handleVersionWithRange );
-
-                asStream( p.getModel().getProfiles() ).forEach( profile -> {
-                    // DependencyManagement
-                    if ( profile.getDependencyManagement() != null )
-                    {
-                        profile.getDependencyManagement().getDependencies().stream()
-                         .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                         .forEach( this::handleVersionWithRange );
-                    }
-                    // Dependencies
-                    profile.getDependencies().stream()
-                     .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                     .forEach( this::handleVersionWithRange );
-
-                    if ( profile.getBuild() != null )
-                    {
-                        // PluginManagement
-                        if ( profile.getBuild().getPluginManagement() != null )
-                        {
-                            profile.getBuild()
-                             .getPluginManagement()
-                             .getPlugins()
-                             .stream()
-                             .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                             .forEach( this::handleVersionWithRange );
-                        }
-                        // Plugins
-                        profile.getBuild()
-                         .getPlugins()
-                         .stream()
-                         .filter( d -> StringUtils.isNotEmpty( d.getVersion() ) )
-                         .forEach( this::handleVersionWithRange );
-                    }
-                } );
+        // First find every ranged version in the reactor so that their metadata may be retrieved together.
+        // TODO:
+        // Ranges in properties are not currently handled.
+        final Map<String, VersionRange> ranges = new HashMap<>();
+        final Map<Project, List<RangedVersion>> rangedVersions = new LinkedHashMap<>();
+        final Set<ProjectRef> gas = new LinkedHashSet<>();
 
-                changed.add( p );
-            }
-            catch ( RuntimeException e )
+        for ( final Project p : projects )
+        {
+            final List<RangedVersion> found = findRangedVersions( p, ranges );
+            if ( !found.isEmpty() )
             {
-                if ( e.getCause() instanceof ManipulationException )
-                {
-                    throw (ManipulationException)e.getCause();
-                }
-                throw e;
+                rangedVersions.put( p, found );
+                found.forEach( r -> gas.add( r.ga ) );
             }
         }
-        return changed;
-    }
 
-    private void handleVersionWithRange( Plugin p )
-    {
+        if ( rangedVersions.isEmpty() )
+        {
+            return Collections.emptySet();
+        }
+
+        final Map<ProjectRef, List<String>> metadata;
         try
         {
-            VersionRange versionRange = VersionRange.createFromVersionSpec( p.getVersion() );
+            metadata = readerWrapper.getMetadataVersions( gas );
+        }
+        catch ( GalleyMavenException e )
+        {
+            throw new ManipulationException( "Caught Galley exception processing artifact", e );
+        }
+
+        final Map<ProjectRef, List<ArtifactVersion>> availableVersions = new HashMap<>();
+        final Map<ProjectRef, Map<VersionRange, Optional<ArtifactVersion>>> resolved = new HashMap<>();
+        final Set<Project> changed = new HashSet<>();
 
-            // If its a range then try to use a matching version...
-            if ( versionRange.hasRestrictions() )
+        for ( final Map.Entry<Project, List<RangedVersion>> entry : rangedVersions.entrySet() )
+        {
+            for ( final RangedVersion r : entry.getValue() )
             {
-                final List<ArtifactVersion> versions = getVersions( new SimpleProjectRef( p.getGroupId(), p.getArtifactId() ) );
-                final ArtifactVersion result = versionRange.matchVersion( versions );
+                final Map<VersionRange, Optional<ArtifactVersion>> gaResults =
+                                resolved.computeIfAbsent( r.ga, k -> new HashMap<>() );
+                Optional<ArtifactVersion> result = gaResults.get( r.range );
+
+                if ( result == null )
+                {
+                    final List<ArtifactVersion> versions =
+                                    availableVersions.computeIfAbsent( r.ga, k -> toVersions( metadata.get( k ) ) );
+                    result = Optional.ofNullable( r.range.matchVersion( versions ) );
+                    gaResults.put( r.range, result );
+                }
 
-                logger.debug( "Resolved range for plugin {} got versionRange {} and potential replacement of {} ", p, versionRange, result );
+                logger.debug( "Resolved range for {} got versionRange {} and potential replacement of {} ", r.source,
+                              r.range, result.orElse( null ) );
 
-                if ( result != null )
+                if ( result.isPresent() )
                 {
-                    p.setVersion( result.toString() );
+                    final String version = result.get().toString();
+                    if ( !version.equals( r.version ) )
+                    {
+                        r.setter.accept( version );
+                        changed.add( entry.getKey() );
+                    }
                 }
                 else
                 {
@@ -200,60 +161,144 @@ public class RangeResolver
                 }
             }
         }
-        catch ( InvalidVersionSpecificationException e )
+        return changed;
+    }
+
+    /**
+     * @param versions the versions from the repository metadata, may be null
+     * @return the versions, in metadata order.
+     */
+    private static List<ArtifactVersion> toVersions( final List<String> versions )
+    {
+        if ( versions == null )
         {
-            throw new RuntimeException( "UNCHECKED LAMBDA", new ManipulationException( "Invalid range", e ) );
+            return Collections.emptyList();
         }
+        return versions.stream().map( DefaultArtifactVersion::new ).collect( Collectors.toList() );
     }
 
-    private void handleVersionWithRange( Dependency d )
+    private List<RangedVersion> findRangedVersions( final Project p, final Map<String, VersionRange> ranges )
+                    throws ManipulationException
     {
-        try
-        {
-            VersionRange versionRange = VersionRange.createFromVersionSpec( d.getVersion() );
+        final List<RangedVersion> result = new ArrayList<>();
+        final Model model = p.getModel();
 
-            // If its a range then try to use a matching version...
-            if ( versionRange.hasRestrictions() )
+        if ( model.getBuild() != null )
+        {
+            // PluginManagement
+            if ( model.getBuild().getPluginManagement() != null )
             {
-                final List<ArtifactVersion> versions = getVersions( new SimpleProjectRef( d.getGroupId(), d.getArtifactId() ) );
-                final ArtifactVersion result = versionRange.matchVersion( versions );
+                addPlugins( model.getBuild().getPluginManagement().getPlugins(), ranges, result );
+            }
+            // Plugins
+            addPlugins( model.getBuild().getPlugins(), ranges, result );
+        }
 
-                logger.debug( "Resolved range for dependency {} got versionRange {} and potential replacement of {} ", d, versionRange, result );
+        // DependencyManagement
+        if ( model.getDependencyManagement() != null )
+        {
+            addDependencies( model.getDependencyManagement().getDependencies(), ranges, result );
+        }
+        // Dependencies
+        addDependencies( model.getDependencies(), ranges, result );
 
-                if ( result != null )
-                {
-                    d.setVersion( result.toString() );
-                }
-                else
+        for ( final Profile profile : asList( model.getProfiles() ) )
+        {
+            // DependencyManagement
+            if ( profile.getDependencyManagement() != null )
+            {
+                addDependencies( profile.getDependencyManagement().getDependencies(), ranges, result );
+            }
+            // Dependencies
+            addDependencies( profile.getDependencies(), ranges, result );
+
+            if ( profile.getBuild() != null )
+            {
+                // PluginManagement
+                if ( profile.getBuild().getPluginManagement() != null )
                 {
-                    logger.warn( "Unable to find replacement for range." );
+                    addPlugins( profile.getBuild().getPluginManagement().getPlugins(), ranges, result );
                 }
+                // Plugins
+                addPlugins( profile.getBuild().getPlugins(), ranges, result );
             }
         }
-        catch ( InvalidVersionSpecificationException e )
+        return result;
+    }
+
+    private void addPlugins( final List<Plugin> plugins, final Map<String, VersionRange> ranges,
+                             final List<RangedVersion> result ) throws ManipulationException
+    {
+        for ( final Plugin p : plugins )
         {
-            throw new RuntimeException( "UNCHECKED LAMBDA", new ManipulationException( "Invalid range", e ) );
+            addIfRanged( p, p.getGroupId(), p.getArtifactId(), p.getVersion(), p::setVersion, ranges, result );
         }
     }
 
-    private List<ArtifactVersion> getVersions( ProjectRef ga )
+    private void addDependencies( final List<Dependency> dependencies, final Map<String, VersionRange> ranges,
+                                  final List<RangedVersion> result ) throws ManipulationException
     {
-        MavenMetadataView mavenMetadataView;
-        try
+        for ( final Dependency d : dependencies )
         {
-            mavenMetadataView = readerWrapper.readMetadataView( ga );
+            addIfRanged( d, d.getGroupId(), d.getArtifactId(), d.getVersion(), d::setVersion, ranges, result );
         }
-        catch ( GalleyMavenException e )
+    }
+
+    private void addIfRanged( final Object source, final String groupId, final String artifactId, final String version,
+                              final Consumer<String> setter, final Map<String, VersionRange> ranges,
+                              final List<RangedVersion> result ) throws ManipulationException
+    {
+        if ( StringUtils.isEmpty( version ) )
         {
-            throw new RuntimeException( "UNCHECKED-LAMBDA", new ManipulationException( "Caught Galley exception processing artifact", e ) );
+            return;
         }
-        return mavenMetadataView.resolveXPathToAggregatedStringList( "/metadata/versioning/versions/version", true, -1 )
-                                .stream()
-                                .distinct()
-                                .map( DefaultArtifactVersion::new )
-                                .collect( Collectors.toList() );
 
+        VersionRange versionRange = ranges.get( version );
+        if ( versionRange == null )
+        {
+            try
+            {
+                versionRange = VersionRange.createFromVersionSpec( version );
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                throw new ManipulationException( "Invalid range", e );
+            }
+            ranges.put( version, versionRange );
+        }
 
+        // If its a range then try to use a matching version...
+        if ( versionRange.hasRestrictions() )
+        {
+            result.add( new RangedVersion( source, new SimpleProjectRef( groupId, artifactId ), version, versionRange,
+                                           setter ) );
+        }
+    }
+
+    /**
+     * A dependency or plugin whose version is a range.
+     */
+    private static final class RangedVersion
+    {
+        private final Object source;
+
+        private final ProjectRef ga;
+
+        private final String version;
+
+        private final VersionRange range;
+
+        private final Consumer<String> setter;
+
+        private RangedVersion( final Object source, final ProjectRef ga, final String version, final VersionRange range,
+                               final Consumer<String> setter )
+        {
+            this.source = source;
+            this.ga = ga;
+            this.version = version;
+            this.range = range;
+            this.setter = setter;
+        }
     }
 
     @Override
@@ -263,8 +308,8 @@ public class RangeResolver
         return 2;
     }
 
-    private static Stream<Profile> asStream ( final Collection<Profile> collection)
+    private static List<Profile> asList( final List<Profile> profiles )
     {
-        return ( collection == null ? Stream.empty() : collection.stream() );
+        return ( profiles == null ? Collections.emptyList() : profiles );
     }
 }
@@ -21,10 +21,8 @@ import org.apache.maven.model.Model;
 import org.apache.maven.model.Profile;
 import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
-import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.common.model.Project;
-import org.commonjava.maven.ext.common.util.ProfileUtils;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.DependencyState;
 import org.commonjava.maven.ext.core.state.PluginState;
@@ -37,9 +35,7 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -70,7 +66,7 @@ public class RelocationManipulator
                     throws ManipulationException
     {
         this.session = session;
-        session.setState( new RelocationState( session.getUserProperties() ) );
+        session.setState( new RelocationState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
@@ -106,79 +102,72 @@ public class RelocationManipulator
     private boolean apply( final Project project, final Model model ) throws ManipulationException
     {
         boolean result = false;
-        final RelocationState state = session.getState( RelocationState.class );
-        final WildcardMap<ProjectVersionRef> relocations = state.getDependencyRelocations();
 
         logger.debug( "Applying relocation changes to: " + ga( project ) );
 
         DependencyManagement dependencyManagement = model.getDependencyManagement();
         if ( dependencyManagement != null )
         {
-            result = updateDependencies( relocations, project.getResolvedManagedDependencies( session ) );
+            result = updateDependencies( project.getResolvedManagedDependencies( session ) );
         }
-        result |= updateDependencies( relocations, project.getAllResolvedDependencies( session ) );
+        result |= updateDependencies( project.getAllResolvedDependencies( session ) );
+
+        final Map<Profile, Map<ArtifactRef, Dependency>> pmd = project.getResolvedProfileManagedDependencies( session );
+        final Map<Profile, Map<ArtifactRef, Dependency>> pd = project.getAllResolvedProfileDependencies( session );
 
-        for ( final Profile profile : ProfileUtils.getProfiles( session, model) )
+        for ( final Profile profile : pd.keySet() )
         {
-            dependencyManagement = profile.getDependencyManagement();
-            if ( dependencyManagement != null )
+            if ( profile.getDependencyManagement() != null )
             {
-                result |= updateDependencies( relocations, project.getResolvedProfileManagedDependencies( session ).get( profile ) );
+                result |= updateDependencies( pmd.get( profile ) );
             }
-            result |= updateDependencies( relocations, project.getAllResolvedProfileDependencies( session ).get( profile ) );
-
+            result |= updateDependencies( pd.get( profile ) );
         }
         return result;
     }
 
-    private boolean updateDependencies( WildcardMap<ProjectVersionRef> relocations, Map<ArtifactRef, Dependency> dependencies )
+    private boolean updateDependencies( Map<ArtifactRef, Dependency> dependencies ) throws ManipulationException
     {
+        final RelocationState state = session.getState( RelocationState.class );
         boolean result = false;
-        final HashMap<ArtifactRef, Dependency> postFixUp = new HashMap<>(  );
 
-        // If we do a single pass over the dependencies that will handle the relocations *but* it will not handle
-        // where one relocation alters the dependency and a subsequent relocation alters it again. For instance, the
-        // first might wildcard alter the groupId and the second, more specifically alters one with the artifactId
-        for ( int i = 0 ; i < relocations.size(); i++ )
+        // The relocation chain is resolved to a fixed point by the state so a single pass over the dependencies
+        // handles where one relocation alters the dependency and a subsequent relocation alters it again. For
+        // instance, the first might wildcard alter the groupId and the second, more specifically alters one with
+        // the artifactId.
+        for ( final Map.Entry<ArtifactRef, Dependency> entry : dependencies.entrySet() )
         {
-            Iterator<ArtifactRef> it = dependencies.keySet().iterator();
-            while ( it.hasNext() )
+            final ArtifactRef pvr = entry.getKey();
+            final List<ProjectVersionRef> chain = state.getRelocationChain( pvr.getGroupId(), pvr.getArtifactId() );
+
+            if ( chain.isEmpty() )
             {
-                final ArtifactRef pvr = it.next();
-                if ( relocations.containsKey( pvr.asProjectRef() ) )
-                {
-                    ProjectVersionRef relocation = relocations.get( pvr.asProjectRef() );
-                    updateDependencyExclusion( pvr, relocation );
-
-                    logger.info( "Replacing groupId {} by {} and artifactId {} with {}",
-                                 dependencies.get( pvr ).getGroupId(), relocation.getGroupId(), dependencies.get( pvr ).getArtifactId(), relocation.getArtifactId() );
-
-                    if ( !relocation.getArtifactId().equals( WildcardMap.WILDCARD ) )
-                    {
-                        dependencies.get( pvr ).setArtifactId( relocation.getArtifactId() );
-                    }
-                    dependencies.get( pvr ).setGroupId( relocation.getGroupId() );
-
-                    // Unfortunately because we iterate using the resolved project keys if the relocation updates those
-                    // keys multiple iterations will not work. Therefore we need to remove the original key:dependency
-                    // to map to the relocated form.
-                    postFixUp.put( SimpleArtifactRef.parse( dependencies.get( pvr ).getManagementKey() ), dependencies.get( pvr ) );
-                    it.remove();
-
-                    result = true;
-                }
+                continue;
             }
-            dependencies.putAll( postFixUp );
-            postFixUp.clear();
+
+            final Dependency dependency = entry.getValue();
+            final ProjectVersionRef target = chain.get( chain.size() - 1 );
+
+            for ( final ProjectVersionRef relocation : chain )
+            {
+                updateDependencyExclusion( relocation );
+            }
+
+            logger.info( "Replacing groupId {} by {} and artifactId {} with {}", dependency.getGroupId(),
+                         target.getGroupId(), dependency.getArtifactId(), target.getArtifactId() );
+
+            dependency.setGroupId( target.getGroupId() );
+            dependency.setArtifactId( target.getArtifactId() );
+
+            result = true;
         }
         return result;
     }
 
     /**
-     * @param depPvr the resolved dependency we are processing the exclusion for.
-     * @param relocation Map containing the update information for relocations.
+     * @param relocation the relocation step (with resolved artifactId) containing the update information.
      */
-    private void updateDependencyExclusion( ProjectVersionRef depPvr, ProjectVersionRef relocation )
+    private void updateDependencyExclusion( ProjectVersionRef relocation ) throws ManipulationException
     {
         final DependencyState state = session.getState( DependencyState.class );
 
@@ -188,15 +177,11 @@ public class RelocationManipulator
         }
         else
         {
-            String artifact = depPvr.getArtifactId();
-            if ( ! relocation.getArtifactId().equals( WildcardMap.WILDCARD ))
-            {
-                artifact = relocation.getArtifactId();
-            }
-
-            logger.debug ("Adding dependencyOverride {} & {}", relocation.getGroupId() + ':' + artifact + "@*",
+            logger.debug( "Adding dependencyOverride {} & {}",
+                          relocation.getGroupId() + ':' + relocation.getArtifactId() + "@*",
                           relocation.getVersionString() );
-            state.updateExclusions( relocation.getGroupId() + ':' + artifact + "@*", relocation.getVersionString() );
+            state.updateExclusions( relocation.getGroupId() + ':' + relocation.getArtifactId() + "@*",
+                                    relocation.getVersionString() );
         }
     }
 
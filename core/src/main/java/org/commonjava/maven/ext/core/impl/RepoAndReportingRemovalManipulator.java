@@ -74,7 +74,7 @@ public class RepoAndReportingRemovalManipulator
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new RepoReportingState( session.getUserProperties() ) );
+        session.setState( new RepoReportingState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
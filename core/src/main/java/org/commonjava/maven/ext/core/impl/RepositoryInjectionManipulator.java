@@ -68,7 +68,7 @@ public class RepositoryInjectionManipulator
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new RepositoryInjectionState( session.getUserProperties() ) );
+        session.setState( new RepositoryInjectionState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
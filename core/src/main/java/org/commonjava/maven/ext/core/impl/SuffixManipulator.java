@@ -62,7 +62,7 @@ public class SuffixManipulator
     public void init( final ManipulationSession session )
     {
         this.session = session;
-        session.setState( new SuffixState( session.getUserProperties() ) );
+        session.setState( new SuffixState( session.getUserPropertiesSnapshot() ) );
     }
 
 
@@ -82,7 +82,7 @@ public class SuffixManipulator
         }
 
         final Set<Project> changed = new HashSet<>();
-        final Pattern suffixStripPattern = Pattern.compile( state.getSuffixStrip() );
+        final Pattern suffixStripPattern = state.getSuffixStripPattern();
 
         for ( final Project project : projects )
         {
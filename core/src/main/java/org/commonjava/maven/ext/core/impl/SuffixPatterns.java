@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Global cache of the compiled regular expressions built from version suffixes, shared by {@link Version},
+ * {@link VersionCalculator} and the property alignment code so that a pattern is not compiled per project or
+ * dependency. It is not tied to a session: the caches are static, JVM-wide and bounded, each keeping the
+ * 256 most recently used suffixes, so a long-lived JVM running builds with different suffix
+ * configurations may recompile patterns that have been evicted.
+ */
+public final class SuffixPatterns
+{
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * Regular expression used to match version string delimiters
+     */
+    private static final String DELIMITER_REGEX = "[.\\-_]";
+
+    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+
+    private static final Map<String, Pattern> qualifierSuffixPatterns = createCache();
+
+    private static final Map<String, Pattern> alternateSuffixPatterns = createCache();
+
+    private SuffixPatterns()
+    {
+    }
+
+    private static Map<String, Pattern> createCache()
+    {
+        return Collections.synchronizedMap( new LinkedHashMap<String, Pattern>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String, Pattern> eldest )
+            {
+                return size() > CACHE_SIZE;
+            }
+        } );
+    }
+
+    /**
+     * Returns the pattern matching a version that already ends with the qualifier suffix, optionally followed by a
+     * build number and/or snapshot i.e. <code>(.*?)(delim)?(suffix)((delim)?(\d+))?((delim)?(SNAPSHOT))?$</code>
+     *
+     * @param suffix the qualifier suffix (which is treated as a regular expression)
+     * @return the compiled pattern
+     */
+    public static Pattern getQualifierSuffixPattern( final String suffix )
+    {
+        return qualifierSuffixPatterns.computeIfAbsent( suffix, s -> Pattern.compile(
+                        "(.*?)(" + DELIMITER_REGEX + ")?(" + s + ")((" + DELIMITER_REGEX + ")?(\\d+))?(("
+                                        + DELIMITER_REGEX + ")?((?i:" + SNAPSHOT_SUFFIX + ")))?$" ) );
+    }
+
+    /**
+     * Returns the pattern matching a version with an alternate suffix and build number e.g.
+     * <code>1.0.0.redhat-1</code> i.e. <code>(.*)([.|-])(suffix-\d+)</code>
+     *
+     * @param suffix the alternate suffix
+     * @return the compiled pattern
+     */
+    public static Pattern getAlternateSuffixPattern( final String suffix )
+    {
+        return alternateSuffixPatterns.computeIfAbsent( suffix,
+                                                        s -> Pattern.compile( "(.*)([.|-])(" + s + "-\\d+)" ) );
+    }
+}
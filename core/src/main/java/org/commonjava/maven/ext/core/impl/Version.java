@@ -18,9 +18,7 @@ package org.commonjava.maven.ext.core.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -38,8 +36,6 @@ public class Version
 
     private final static String EMPTY_STRING = "";
 
-    private final static Character[] DEFAULT_DELIMITERS = {'.', '-', '_'};
-
     private final static String OSGI_VERSION_DELIMITER = ".";
 
     private final static String OSGI_QUALIFIER_DELIMITER = "-";
@@ -51,49 +47,13 @@ public class Version
      */
     private final static String DEFAULT_QUALIFIER_DELIMITER = "-";
 
-    private final static List<Character> versionStringDelimiters = Arrays.asList( DEFAULT_DELIMITERS );
-
     /**
      * Regular expression used to match version string delimiters
      */
     private final static String DELIMITER_REGEX = "[.\\-_]";
 
-    /**
-     * Regular expression used to match version string delimiters
-     */
-    private final static String LEADING_DELIMITER_REGEX = "^" + DELIMITER_REGEX;
-
-    /**
-     * Regular expression used to match the major, minor, and micro versions
-     */
-    private final static String MMM_REGEX = "(\\d+)(" + DELIMITER_REGEX + "(\\d+)(" + DELIMITER_REGEX + "(\\d+))?)?";
-
-    private final static Pattern mmmPattern = Pattern.compile(MMM_REGEX);
-
     private final static String SNAPSHOT_SUFFIX = "SNAPSHOT";
 
-    private final static String SNAPSHOT_REGEX = "(.*?)((" + DELIMITER_REGEX + ")?((?i:" + SNAPSHOT_SUFFIX + ")))$";
-
-    private final static Pattern snapshotPattern = Pattern.compile(SNAPSHOT_REGEX);
-
-    /**
-     * Regular expression used to match the parts of the qualifier "base-buildnum-snapshot"
-     * Note : Technically within the rebuild-numeric the dash is currently optional and can be any
-     *        delimeter type within the regex. It could be made mandatory via '{1}'.
-     */
-    private final static String QUALIFIER_REGEX = "(.*?)((" + DELIMITER_REGEX + ")?(\\d+))?((" + DELIMITER_REGEX + ")?((?i:" + SNAPSHOT_SUFFIX + ")))?$";
-
-    private final static Pattern qualifierPattern = Pattern.compile(QUALIFIER_REGEX);
-
-    /**
-     * Version string must start with a digit to match the regex.  Otherwise we have only a
-     * qualifier.
-     */
-    private final static String VERSION_REGEX = "(" + MMM_REGEX + ")" + "((" + DELIMITER_REGEX + ")?"
-            + "(" + QUALIFIER_REGEX + "))";
-
-    private final static Pattern versionPattern = Pattern.compile(VERSION_REGEX);
-
     /**
      * Used to match valid OSGi version based on section 3.2.5 of the OSGi specification
      */
@@ -106,12 +66,7 @@ public class Version
 
     public static String getBuildNumber(String version)
     {
-        Matcher qualifierMatcher = qualifierPattern.matcher( getQualifier( version ) );
-        if( qualifierMatcher.matches() && !isEmpty( qualifierMatcher.group( 4 ) ) )
-        {
-            return qualifierMatcher.group( 4 );
-        }
-        return EMPTY_STRING;
+        return VersionTokens.parse( version ).getBuildNumber();
     }
 
     /**
@@ -144,12 +99,7 @@ public class Version
      */
     public static String getMMM(String version)
     {
-        Matcher versionMatcher = versionPattern.matcher( version );
-        if ( versionMatcher.matches() )
-        {
-            return versionMatcher.group( 1 );
-        }
-        return EMPTY_STRING;
+        return VersionTokens.parse( version ).getMMM();
     }
 
     /**
@@ -161,12 +111,15 @@ public class Version
      */
     static String getOsgiMMM(String version, boolean fill)
     {
-        String mmm = getMMM( version );
-        Matcher mmmMatcher = mmmPattern.matcher( mmm );
-        if ( mmmMatcher.matches() )
+        return getOsgiMMM( VersionTokens.parse( version ), fill );
+    }
+
+    private static String getOsgiMMM(VersionTokens tokens, boolean fill)
+    {
+        if ( !isEmpty( tokens.getMMM() ) )
         {
-            String osgiMMM = mmmMatcher.group( 1 );
-            String minorVersion = mmmMatcher.group( 3 );
+            String osgiMMM = tokens.getMajor();
+            String minorVersion = tokens.getMinor();
             if ( !isEmpty( minorVersion ) )
             {
                 osgiMMM += OSGI_VERSION_DELIMITER + minorVersion;
@@ -175,7 +128,7 @@ public class Version
             {
                 osgiMMM += OSGI_VERSION_DELIMITER + "0";
             }
-            String microVersion = mmmMatcher.group( 5 );
+            String microVersion = tokens.getMicro();
             if ( !isEmpty( microVersion ) )
             {
                 osgiMMM += OSGI_VERSION_DELIMITER + microVersion;
@@ -191,12 +144,13 @@ public class Version
 
     public static String getOsgiVersion(String version)
     {
-        String qualifier = getQualifier( version );
+        final VersionTokens tokens = VersionTokens.parse( version );
+        String qualifier = tokens.getQualifier();
         if ( !isEmpty( qualifier ) )
         {
             qualifier = OSGI_VERSION_DELIMITER + qualifier.replace( OSGI_VERSION_DELIMITER, OSGI_QUALIFIER_DELIMITER );
         }
-        String mmm = getOsgiMMM( version, !isEmpty( qualifier ) );
+        String mmm = getOsgiMMM( tokens, !isEmpty( qualifier ) );
         if ( isEmpty( mmm ) )
         {
             logger.warn( "Unable to parse version for OSGi: {}", version );
@@ -207,12 +161,7 @@ public class Version
 
     public static String getQualifier(String version)
     {
-        Matcher versionMatcher = versionPattern.matcher( version );
-        if ( versionMatcher.matches() )
-        {
-            return versionMatcher.group( 9 );
-        }
-        return removeLeadingDelimiter( version );
+        return VersionTokens.parse( version ).getQualifier();
     }
 
     /**
@@ -235,57 +184,32 @@ public class Version
      */
     public static String getQualifierBase(String version)
     {
-        Matcher versionMatcher = versionPattern.matcher( version );
-        if ( versionMatcher.matches() )
-        {
-            return versionMatcher.group( 10 );
-        }
-        Matcher qualifierMatcher = qualifierPattern.matcher( version );
-        if ( qualifierMatcher.matches() )
-        {
-            return qualifierMatcher.group( 1 );
-        }
-        return removeLeadingDelimiter( version );
+        return VersionTokens.parse( version ).getQualifierBase();
     }
 
     public static String getQualifierWithDelim(String version)
     {
-        Matcher versionMatcher = versionPattern.matcher( version );
-        if ( versionMatcher.matches() )
-        {
-            return versionMatcher.group( 7 );
-        }
-        return version;
+        return VersionTokens.parse( version ).getQualifierWithDelim();
     }
 
     public static String getSnapshot( String version )
     {
-        Matcher snapshotMatcher = snapshotPattern.matcher( version );
-        if ( snapshotMatcher.matches() )
-        {
-            return snapshotMatcher.group(4);
-        }
-        return EMPTY_STRING;
+        return VersionTokens.parse( version ).getSnapshot();
     }
 
     public static String getSnapshotWithDelim( String version )
     {
-        Matcher snapshotMatcher = snapshotPattern.matcher( version );
-        if ( snapshotMatcher.matches() )
-        {
-            return snapshotMatcher.group(2);
-        }
-        return EMPTY_STRING;
+        return VersionTokens.parse( version ).getSnapshotWithDelim();
     }
 
     public static boolean hasBuildNumber( String version )
     {
-        return !isEmpty( getBuildNumber( version ) );
+        return VersionTokens.parse( version ).hasBuildNumber();
     }
 
     public static boolean hasQualifier( String version )
     {
-        return !isEmpty( getQualifier( version ) );
+        return VersionTokens.parse( version ).hasQualifier();
     }
 
     public static boolean isEmpty( String string )
@@ -295,8 +219,7 @@ public class Version
 
     public static boolean isSnapshot( String version )
     {
-        Matcher snapshotMatcher = snapshotPattern.matcher( version );
-        return snapshotMatcher.matches();
+        return VersionTokens.parse( version ).isSnapshot();
     }
 
     /**
@@ -314,12 +237,7 @@ public class Version
      */
     public static String removeBuildNumber( String version )
     {
-        Matcher qualifierMatcher = qualifierPattern.matcher( version );
-        if ( qualifierMatcher.matches() )
-        {
-            return qualifierMatcher.replaceFirst( "$1$5" );
-        }
-        return version;
+        return VersionTokens.parse( version ).getWithoutBuildNumber();
     }
 
     /**
@@ -328,12 +246,7 @@ public class Version
      */
     public static String removeSnapshot( String version )
     {
-        Matcher snapshotMatcher = snapshotPattern.matcher( version );
-        if ( snapshotMatcher.matches() )
-        {
-            return snapshotMatcher.group(1);
-        }
-        return version;
+        return VersionTokens.parse( version ).getWithoutSnapshot();
     }
 
     private static boolean hasLeadingDelimiter( String versionPart )
@@ -342,7 +255,7 @@ public class Version
         {
             return false;
         }
-        return versionStringDelimiters.contains( versionPart.charAt( 0 ) );
+        return VersionTokens.isDelimiter( versionPart.charAt( 0 ) );
     }
 
     /**
@@ -350,7 +263,11 @@ public class Version
      */
     static String removeLeadingDelimiter(String versionPart )
     {
-        return versionPart.replaceAll(LEADING_DELIMITER_REGEX, "");
+        if ( hasLeadingDelimiter( versionPart ) )
+        {
+            return versionPart.substring( 1 );
+        }
+        return versionPart;
     }
 
     /**
@@ -432,38 +349,34 @@ public class Version
             return newVersion;
         }
 
-        Matcher qualifierMatcher = qualifierPattern.matcher( version );
-        if ( qualifierMatcher.matches() )
+        final VersionTokens tokens = VersionTokens.parse( version );
+        final String trailingBase = tokens.getTrailingBase() + tokens.getTrailingBuildNumberDelim()
+                        + tokens.getTrailingBuildNumber();
+        if ( hasLeadingDelimiter( suffixWoSnapshot ) )
         {
-            if ( hasLeadingDelimiter( suffixWoSnapshot ) )
-            {
-                String newVersion = qualifierMatcher.replaceFirst( "$1$3$4" + suffixWoSnapshot + "$5");
-                if ( isSnapshot( suffix ) )
-                {
-                    newVersion = Version.setSnapshot( newVersion, true );
-                }
-                return newVersion;
-            }
-            String delimiter = DEFAULT_QUALIFIER_DELIMITER;
-            if ( isEmpty( getQualifierBase( version ) ) )
-            {
-                delimiter = DEFAULT_DELIMITER;
-            }
-            String newVersion = qualifierMatcher.replaceFirst( "$1$3$4" + delimiter + suffixWoSnapshot + "$5");
+            String newVersion = trailingBase + suffixWoSnapshot + tokens.getTrailingSnapshotWithDelim();
             if ( isSnapshot( suffix ) )
             {
                 newVersion = Version.setSnapshot( newVersion, true );
             }
             return newVersion;
         }
-        return version;
+        String delimiter = DEFAULT_QUALIFIER_DELIMITER;
+        if ( isEmpty( tokens.getQualifierBase() ) )
+        {
+            delimiter = DEFAULT_DELIMITER;
+        }
+        String newVersion = trailingBase + delimiter + suffixWoSnapshot + tokens.getTrailingSnapshotWithDelim();
+        if ( isSnapshot( suffix ) )
+        {
+            newVersion = Version.setSnapshot( newVersion, true );
+        }
+        return newVersion;
     }
 
     private static Matcher createSuffixMatcher( String version, String suffix )
     {
-        final String SUFFIX_REGEX = "(.*?)(" + DELIMITER_REGEX + ")?(" + suffix + ")(("
-                + DELIMITER_REGEX + ")?(\\d+))?((" + DELIMITER_REGEX + ")?((?i:" + SNAPSHOT_SUFFIX + ")))?$";
-        return Pattern.compile( SUFFIX_REGEX ).matcher( version );
+        return SuffixPatterns.getQualifierSuffixPattern( suffix ).matcher( version );
     }
 
     /**
@@ -483,20 +396,17 @@ public class Version
         {
             buildNumber = EMPTY_STRING;
         }
-        if ( isEmpty( getQualifier( version ) ) )
+        final VersionTokens tokens = VersionTokens.parse( version );
+        if ( !tokens.hasQualifier() )
         {
             return version + DEFAULT_DELIMITER + buildNumber;
         }
-        Matcher qualifierMatcher = qualifierPattern.matcher( version );
-        if ( qualifierMatcher.matches() )
+        if ( isEmpty( tokens.getTrailingBuildNumber() ) )
         {
-            if ( isEmpty( qualifierMatcher.group( 2 ) ) )
-            {
-                buildNumber = prependDelimiter( buildNumber, DEFAULT_QUALIFIER_DELIMITER );
-            }
-            return qualifierMatcher.replaceFirst( "$1$3" + buildNumber + "$5" );
+            buildNumber = prependDelimiter( buildNumber, DEFAULT_QUALIFIER_DELIMITER );
         }
-        return version;
+        return tokens.getTrailingBase() + tokens.getTrailingBuildNumberDelim() + buildNumber
+                        + tokens.getTrailingSnapshotWithDelim();
     }
 
     /**
@@ -539,12 +449,7 @@ public class Version
         int highestBuildNum = 0;
 
         String osgiVersion = getOsgiVersion( version );
-        String qualifier = getQualifier( osgiVersion );
-        Matcher qualifierMatcher = qualifierPattern.matcher( qualifier );
-        if ( qualifierMatcher.matches() )
-        {
-            qualifier = removeLeadingDelimiter( qualifierMatcher.group( 1 ) );
-        }
+        String qualifier = removeLeadingDelimiter( VersionTokens.parse( osgiVersion ).getQualifierWithoutBuildNumber() );
 
         // Build version pattern regex, matches something like "<mmm>.<qualifier>.<buildnum>".
         StringBuilder versionPatternBuf = new StringBuilder();
@@ -589,7 +494,7 @@ public class Version
      */
     public static int getIntegerBuildNumber( String version )
     {
-        String buildNumber = getBuildNumber( version );
+        String buildNumber = VersionTokens.parse( version ).getBuildNumber();
         if ( isEmpty( buildNumber ) )
         {
             return 0;
@@ -26,15 +26,16 @@ import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.state.VersioningState;
 import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
 import org.commonjava.maven.galley.maven.GalleyMavenException;
-import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -82,7 +83,12 @@ public class VersionCalculator
     {
         final VersioningState state = session.getState( VersioningState.class );
         final Map<ProjectVersionRef, String> versionsByGAV = new HashMap<>();
-        final Set<String> versionsWithBuildNums = new HashSet<>();
+        final BuildNumberIndex versionsWithBuildNums = new BuildNumberIndex();
+
+        if ( state.getIncrementalSerialSuffix() != null && state.getSuffix() == null && state.getRESTMetadata() == null )
+        {
+            prefetchMetadataVersions( projects, state );
+        }
 
         for ( final Project project : projects )
         {
@@ -111,15 +117,16 @@ public class VersionCalculator
 
             // If there is only a single version there is no real need to try and find the highest matching.
             // This also fixes the problem where there is a single version and leading zeros.
-            int buildNumber = findHighestMatchingBuildNumber( modifiedVersion, versionsWithBuildNums );
+            int buildNumber = versionsWithBuildNums.findHighestMatchingBuildNumber( modifiedVersion );
 
             // If the buildNumber is greater than zero, it means we found a match and have to
             // set the build number to avoid version conflicts.
             if ( buildNumber > 0 )
             {
                 String paddedBuildNum = StringUtils.leftPad( Integer.toString( buildNumber ),
-                                                             Version.getBuildNumberPadding( state.getIncrementalSerialSuffixPadding(),
-                                                                                            versionsWithBuildNums ), '0' );
+                                                             versionsWithBuildNums.getBuildNumberPadding(
+                                                                             state.getIncrementalSerialSuffixPadding() ),
+                                                             '0' );
                 modifiedVersion = Version.setBuildNumber( modifiedVersion, paddedBuildNum );
             }
 
@@ -140,6 +147,54 @@ public class VersionCalculator
         return versionsByGAV;
     }
 
+    /**
+     * Reads the repository metadata for every distinct project GA up front, downloading up to the configured number
+     * of metadata files concurrently. The results are stored within the VersioningState so that the per-project
+     * calculation does not have to wait on each read in turn.
+     *
+     * @param projects the Projects to prefetch metadata for.
+     * @param state the VersioningState
+     * @throws ManipulationException if an error occurs.
+     */
+    private void prefetchMetadataVersions( final List<Project> projects, final VersioningState state )
+                    throws ManipulationException
+    {
+        final Set<ProjectRef> gas = new LinkedHashSet<>();
+        for ( final Project project : projects )
+        {
+            gas.add( new SimpleProjectRef( project.getGroupId(), project.getArtifactId() ) );
+        }
+
+        final int concurrency = state.getMetadataConcurrency();
+        if ( concurrency < 2 || gas.size() < 2 )
+        {
+            return;
+        }
+
+        logger.debug( "Prefetching repository metadata for {} projects, {} at a time", gas.size(), concurrency );
+
+        final Map<ProjectRef, Set<String>> results = new HashMap<>();
+        final List<ProjectRef> pending = new ArrayList<>( gas );
+
+        for ( int i = 0; i < pending.size(); i += concurrency )
+        {
+            final List<ProjectRef> chunk = pending.subList( i, Math.min( i + concurrency, pending.size() ) );
+            try
+            {
+                for ( final Map.Entry<ProjectRef, List<String>> entry : readerWrapper.getMetadataVersions( chunk ).entrySet() )
+                {
+                    results.put( entry.getKey(), new HashSet<>( entry.getValue() ) );
+                }
+            }
+            catch ( final GalleyMavenException e )
+            {
+                throw new ManipulationException( "Failed to resolve metadata for: %s.", e, chunk );
+            }
+        }
+
+        state.setMetadataVersions( results );
+    }
+
     /**
      * Calculate the version modification for a given GAV.
      *
@@ -252,6 +307,12 @@ public class VersionCalculator
                 }
             }
         }
+        else if ( state.getMetadataVersions() != null
+                        && state.getMetadataVersions().containsKey( new SimpleProjectRef( groupId, artifactId ) ) )
+        {
+            // Use the metadata already read concurrently for the reactor.
+            versionCandidates.addAll( state.getMetadataVersions().get( new SimpleProjectRef( groupId, artifactId ) ) );
+        }
         else
         {
             // Load metadata from local repository
@@ -275,13 +336,7 @@ public class VersionCalculator
 
         try
         {
-            final MavenMetadataView metadataView =
-                readerWrapper.readMetadataView( new SimpleProjectRef( groupId, artifactId ) );
-
-            final List<String> versions =
-                metadataView.resolveXPathToAggregatedStringList( "/metadata/versioning/versions/version", true, -1 );
-
-            return new HashSet<>( versions );
+            return new HashSet<>( readerWrapper.getMetadataVersions( new SimpleProjectRef( groupId, artifactId ) ) );
         }
         catch ( final GalleyMavenException e )
         {
@@ -301,10 +356,8 @@ public class VersionCalculator
      */
     protected static String handleAlternate( VersioningState state, String version )
     {
-        for ( String suffix : state.getSuffixAlternatives() )
+        for ( Pattern suffixStripPattern : state.getSuffixAlternativePatterns() )
         {
-            final String suffixStripRegExp = "(.*)([.|-])(" + suffix + "-\\d+)";
-            final Pattern suffixStripPattern = Pattern.compile( suffixStripRegExp );
             final Matcher suffixMatcher = suffixStripPattern.matcher( version );
 
             if ( suffixMatcher.matches() && !version.contains( state.getRebuildSuffix() ) )
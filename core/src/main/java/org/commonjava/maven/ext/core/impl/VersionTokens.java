@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable decomposition of a version string into the parts used by {@link Version} i.e.
+ * &lt;major&gt;.&lt;minor&gt;.&lt;micro&gt;.&lt;qualifierBase&gt;-&lt;buildnumber&gt;-&lt;snapshot&gt;. Parsing is
+ * performed once per distinct version string and the result held in a bounded (least recently used) cache as the
+ * same versions are examined repeatedly during a build. Absent parts are represented by the empty string.
+ * <p>
+ * Versions are split by a single pass lexer rather than regular expressions ; delimiters are any of
+ * <code>.-_</code>, digits are ASCII only and the snapshot suffix is matched case insensitively.
+ */
+public final class VersionTokens
+{
+    private static final int CACHE_SIZE = 2048;
+
+    private static final String EMPTY_STRING = "";
+
+    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+
+    private static final Map<String, VersionTokens> cache = Collections.synchronizedMap(
+                    new LinkedHashMap<String, VersionTokens>( 256, 0.75f, true )
+                    {
+                        @Override
+                        protected boolean removeEldestEntry( Map.Entry<String, VersionTokens> eldest )
+                        {
+                            return size() > CACHE_SIZE;
+                        }
+                    } );
+
+    private final String version;
+
+    private final String mmm;
+
+    private final String major;
+
+    private final String minor;
+
+    private final String micro;
+
+    private final String qualifierWithDelim;
+
+    private final String qualifier;
+
+    private final String qualifierBase;
+
+    private final String buildNumber;
+
+    private final String qualifierWithoutBuildNumber;
+
+    private final String trailingBase;
+
+    private final String trailingBuildNumberDelim;
+
+    private final String trailingBuildNumber;
+
+    private final String trailingSnapshotWithDelim;
+
+    private final boolean snapshot;
+
+    private final String snapshotSuffix;
+
+    private final String snapshotWithDelim;
+
+    private final String withoutSnapshot;
+
+    private VersionTokens( final String version )
+    {
+        this.version = version;
+
+        final int length = version.length();
+        final Trailing trailing = Trailing.split( version );
+
+        // <major>[<delim><minor>[<delim><micro>]][<delim>]<qualifier>
+        int index = digitsEnd( version, 0 );
+        if ( index > 0 )
+        {
+            major = version.substring( 0, index );
+
+            String minorPart = EMPTY_STRING;
+            String microPart = EMPTY_STRING;
+            if ( startsNumericComponent( version, index ) )
+            {
+                final int minorEnd = digitsEnd( version, index + 1 );
+                minorPart = version.substring( index + 1, minorEnd );
+                index = minorEnd;
+
+                if ( startsNumericComponent( version, index ) )
+                {
+                    final int microEnd = digitsEnd( version, index + 1 );
+                    microPart = version.substring( index + 1, microEnd );
+                    index = microEnd;
+                }
+            }
+            minor = minorPart;
+            micro = microPart;
+            mmm = version.substring( 0, index );
+            qualifierWithDelim = version.substring( index );
+            qualifier = index < length && isDelimiter( version.charAt( index ) ) ?
+                            version.substring( index + 1 ) :
+                            qualifierWithDelim;
+        }
+        else
+        {
+            mmm = EMPTY_STRING;
+            major = EMPTY_STRING;
+            minor = EMPTY_STRING;
+            micro = EMPTY_STRING;
+            qualifierWithDelim = version;
+            qualifier = Version.removeLeadingDelimiter( version );
+        }
+
+        final Trailing qualifierTrailing = Trailing.split( qualifier );
+        qualifierBase = index > 0 ? qualifierTrailing.base : trailing.base;
+        buildNumber = qualifierTrailing.buildNumber;
+        qualifierWithoutBuildNumber = qualifierTrailing.base;
+
+        trailingBase = trailing.base;
+        trailingBuildNumberDelim = trailing.buildNumberDelim;
+        trailingBuildNumber = trailing.buildNumber;
+        trailingSnapshotWithDelim = trailing.snapshotWithDelim;
+
+        snapshot = trailing.snapshotStart < length;
+        if ( snapshot )
+        {
+            snapshotSuffix = version.substring( length - SNAPSHOT_SUFFIX.length() );
+            snapshotWithDelim = trailing.snapshotWithDelim;
+            withoutSnapshot = version.substring( 0, trailing.snapshotStart );
+        }
+        else
+        {
+            snapshotSuffix = EMPTY_STRING;
+            snapshotWithDelim = EMPTY_STRING;
+            withoutSnapshot = version;
+        }
+    }
+
+    /**
+     * Parses the version without consulting the cache.
+     *
+     * @param version the version to parse
+     * @return newly parsed version tokens
+     */
+    static VersionTokens lex( final String version )
+    {
+        return new VersionTokens( version );
+    }
+
+    /**
+     * Returns the (possibly cached) decomposition of the version.
+     *
+     * @param version the version to parse
+     * @return the parsed version tokens
+     */
+    public static VersionTokens parse( final String version )
+    {
+        VersionTokens result = cache.get( version );
+        if ( result == null )
+        {
+            result = lex( version );
+            cache.put( version, result );
+        }
+        return result;
+    }
+
+    static boolean isDelimiter( final char c )
+    {
+        return c == '.' || c == '-' || c == '_';
+    }
+
+    private static boolean isDigit( final char c )
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return true if there is a delimiter at index followed by a digit.
+     */
+    private static boolean startsNumericComponent( final String value, final int index )
+    {
+        return index + 1 < value.length() && isDelimiter( value.charAt( index ) ) && isDigit(
+                        value.charAt( index + 1 ) );
+    }
+
+    /**
+     * @return the index after the run of digits starting at start.
+     */
+    private static int digitsEnd( final String value, int start )
+    {
+        while ( start < value.length() && isDigit( value.charAt( start ) ) )
+        {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * @return the index of the start of the run of digits ending at end.
+     */
+    private static int digitsStart( final String value, int end )
+    {
+        while ( end > 0 && isDigit( value.charAt( end - 1 ) ) )
+        {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Compares against the snapshot suffix ignoring (ASCII) case.
+     */
+    private static boolean endsWithSnapshot( final String value )
+    {
+        final int offset = value.length() - SNAPSHOT_SUFFIX.length();
+        if ( offset < 0 )
+        {
+            return false;
+        }
+        for ( int i = 0; i < SNAPSHOT_SUFFIX.length(); i++ )
+        {
+            final char c = value.charAt( offset + i );
+            final char expected = SNAPSHOT_SUFFIX.charAt( i );
+            if ( c != expected && c != Character.toLowerCase( expected ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a string into &lt;base&gt;[[&lt;delim&gt;]&lt;build number&gt;][[&lt;delim&gt;]SNAPSHOT] where the
+     * base is as short as possible.
+     */
+    private static final class Trailing
+    {
+        private final String base;
+
+        private final String buildNumberDelim;
+
+        private final String buildNumber;
+
+        private final String snapshotWithDelim;
+
+        private final int snapshotStart;
+
+        private Trailing( final String base, final String buildNumberDelim, final String buildNumber,
+                          final String snapshotWithDelim, final int snapshotStart )
+        {
+            this.base = base;
+            this.buildNumberDelim = buildNumberDelim;
+            this.buildNumber = buildNumber;
+            this.snapshotWithDelim = snapshotWithDelim;
+            this.snapshotStart = snapshotStart;
+        }
+
+        private static Trailing split( final String value )
+        {
+            final int length = value.length();
+
+            int snapshotStart = length;
+            if ( endsWithSnapshot( value ) )
+            {
+                snapshotStart = length - SNAPSHOT_SUFFIX.length();
+                if ( snapshotStart > 0 && isDelimiter( value.charAt( snapshotStart - 1 ) ) )
+                {
+                    snapshotStart--;
+                }
+            }
+
+            final int buildNumberStart = digitsStart( value, snapshotStart );
+            if ( buildNumberStart == snapshotStart )
+            {
+                return new Trailing( value.substring( 0, snapshotStart ), EMPTY_STRING, EMPTY_STRING,
+                                     value.substring( snapshotStart ), snapshotStart );
+            }
+
+            int baseEnd = buildNumberStart;
+            if ( baseEnd > 0 && isDelimiter( value.charAt( baseEnd - 1 ) ) )
+            {
+                baseEnd--;
+            }
+            return new Trailing( value.substring( 0, baseEnd ), value.substring( baseEnd, buildNumberStart ),
+                                 value.substring( buildNumberStart, snapshotStart ), value.substring( snapshotStart ),
+                                 snapshotStart );
+        }
+    }
+
+    public String getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return the initial numeric portion (up to three components) including the delimiters between them.
+     */
+    public String getMMM()
+    {
+        return mmm;
+    }
+
+    public String getMajor()
+    {
+        return major;
+    }
+
+    public String getMinor()
+    {
+        return minor;
+    }
+
+    public String getMicro()
+    {
+        return micro;
+    }
+
+    /**
+     * @return the qualifier including any leading delimiter, or the whole version if it does not start with a digit.
+     */
+    public String getQualifierWithDelim()
+    {
+        return qualifierWithDelim;
+    }
+
+    public String getQualifier()
+    {
+        return qualifier;
+    }
+
+    /**
+     * @return the qualifier without the build number and snapshot. See {@link Version#getQualifierBase(String)}
+     */
+    public String getQualifierBase()
+    {
+        return qualifierBase;
+    }
+
+    /**
+     * @return the build number of the qualifier.
+     */
+    public String getBuildNumber()
+    {
+        return buildNumber;
+    }
+
+    public boolean hasBuildNumber()
+    {
+        return !Version.isEmpty( buildNumber );
+    }
+
+    public boolean hasQualifier()
+    {
+        return !Version.isEmpty( qualifier );
+    }
+
+    /**
+     * @return the qualifier with the build number (and its delimiter) and any snapshot removed.
+     */
+    String getQualifierWithoutBuildNumber()
+    {
+        return qualifierWithoutBuildNumber;
+    }
+
+    /**
+     * @return the version with the trailing build number (and associated delimiter) removed.
+     */
+    public String getWithoutBuildNumber()
+    {
+        return trailingBase + trailingSnapshotWithDelim;
+    }
+
+    /**
+     * The following decompose the whole version as &lt;base&gt;&lt;delimiter&gt;&lt;build number&gt;&lt;snapshot&gt;
+     * and are used to rewrite the trailing portion of the version.
+     */
+    String getTrailingBase()
+    {
+        return trailingBase;
+    }
+
+    String getTrailingBuildNumberDelim()
+    {
+        return trailingBuildNumberDelim;
+    }
+
+    String getTrailingBuildNumber()
+    {
+        return trailingBuildNumber;
+    }
+
+    String getTrailingSnapshotWithDelim()
+    {
+        return trailingSnapshotWithDelim;
+    }
+
+    public boolean isSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * @return the snapshot suffix (in its original case) or an empty string.
+     */
+    public String getSnapshot()
+    {
+        return snapshotSuffix;
+    }
+
+    public String getSnapshotWithDelim()
+    {
+        return snapshotWithDelim;
+    }
+
+    public String getWithoutSnapshot()
+    {
+        return withoutSnapshot;
+    }
+
+    @Override
+    public String toString()
+    {
+        return version;
+    }
+}
@@ -74,7 +74,7 @@ public class XMLManipulator
                     throws ManipulationException
     {
         this.session = session;
-        session.setState( new XMLState( session.getUserProperties() ) );
+        session.setState( new XMLState( session.getUserPropertiesSnapshot() ) );
     }
 
     /**
@@ -17,6 +17,7 @@ package org.commonjava.maven.ext.core.state;
 
 import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.ext.core.util.IdUtils;
+import org.commonjava.maven.ext.core.util.ProjectRefMatcher;
 
 import java.util.List;
 import java.util.Properties;
@@ -32,14 +33,18 @@ public class DependencyRemovalState
      * <pre>
      * <code>-DdependencyRemoval=org.foo:bar,....</code>
      * </pre>
+     * Either the groupId or artifactId may be a wildcard (*) e.g. <code>org.foo:*</code> or <code>*:bar</code>.
      */
     private static final String DEPENDENCY_REMOVAL_PROPERTY = "dependencyRemoval";
 
     private final List<ProjectRef> dependencyRemoval;
 
+    private final ProjectRefMatcher dependencyRemovalMatcher;
+
     public DependencyRemovalState(final Properties userProps)
     {
         dependencyRemoval = IdUtils.parseGAs( userProps.getProperty( DEPENDENCY_REMOVAL_PROPERTY ) );
+        dependencyRemovalMatcher = new ProjectRefMatcher( dependencyRemoval );
     }
 
     /**
@@ -60,4 +65,12 @@ public class DependencyRemovalState
     {
         return dependencyRemoval;
     }
+
+    /**
+     * @return the dependencies we wish to remove, compiled into a matcher.
+     */
+    public ProjectRefMatcher getDependencyRemovalMatcher()
+    {
+        return dependencyRemovalMatcher;
+    }
 }
@@ -19,18 +19,25 @@ import org.apache.commons.lang.StringUtils;
 import org.commonjava.maven.atlas.ident.ref.ArtifactRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.core.impl.DependencyManipulator;
+import org.commonjava.maven.ext.core.util.DependencyOverride;
 import org.commonjava.maven.ext.core.util.IdUtils;
 import org.commonjava.maven.ext.core.util.PropertiesUtils;
+import org.commonjava.maven.ext.core.util.WildcardMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import static org.commonjava.maven.ext.core.util.PropertiesUtils.getPropertiesByPrefix;
 
@@ -111,6 +118,27 @@ public class DependencyState
 
     private Map<String, String> dependencyExclusions;
 
+    /**
+     * Compiled form of the module-scoped entries of {@link #dependencyExclusions} keyed by the original key so that
+     * later updates replace the prior rule.
+     */
+    private final Map<String, DependencyOverride> compiledOverrides = new HashMap<>();
+
+    /**
+     * Rules of the form <code>group:artifact@moduleGroup:moduleArtifact</code> keyed by the module.
+     */
+    private final Map<ProjectRef, List<DependencyOverride>> moduleOverrides = new HashMap<>();
+
+    /**
+     * Rules of the form <code>group:artifact@moduleGroup:*</code> keyed by the module groupId.
+     */
+    private final Map<String, List<DependencyOverride>> moduleGroupOverrides = new HashMap<>();
+
+    /**
+     * Rules of the form <code>group:artifact@*</code>
+     */
+    private final List<DependencyOverride> globalOverrides = new ArrayList<>();
+
     private Map<ArtifactRef, String> remoteRESTdepMgmt;
 
     private DependencyPrecedence precedence;
@@ -140,6 +168,11 @@ public class DependencyState
                 throw new ManipulationException( "Property clash between dependencyOverride and dependencyExclusion for " + s );
             }
         }
+        for ( Map.Entry<String, String> entry : dependencyExclusions.entrySet() )
+        {
+            compileOverride( entry.getKey(), entry.getValue() );
+        }
+
         String sourceValue = userProps.getProperty( DEPENDENCY_SOURCE,
                                                             DependencyPrecedence.BOM.toString() ).toUpperCase();
         if ( StringUtils.isEmpty(sourceValue))
@@ -246,8 +279,105 @@ public class DependencyState
         return dependencyExclusions;
     }
 
-    public void updateExclusions (String key, String value)
+    /**
+     * Returns the module specific overrides (i.e. not <code>@*</code>) that apply to the given module, whether
+     * via an exact match or a <code>moduleGroupId:*</code> wildcard.
+     *
+     * @param module the module groupId:artifactId
+     * @return a possibly empty list of overrides.
+     */
+    public List<DependencyOverride> getModuleOverrides( ProjectRef module )
+    {
+        final List<DependencyOverride> exact = moduleOverrides.get( module );
+        final List<DependencyOverride> group = moduleGroupOverrides.get( module.getGroupId() );
+
+        if ( group == null )
+        {
+            return exact == null ? Collections.emptyList() : exact;
+        }
+        else if ( exact == null )
+        {
+            return group;
+        }
+        final List<DependencyOverride> result = new ArrayList<>( exact.size() + group.size() );
+        result.addAll( exact );
+        result.addAll( group );
+        return result;
+    }
+
+    /**
+     * @return the overrides that apply to all modules i.e. <code>groupId:artifactId@*</code>
+     */
+    public List<DependencyOverride> getGlobalOverrides()
+    {
+        return globalOverrides;
+    }
+
+    public void updateExclusions (String key, String value) throws ManipulationException
     {
         dependencyExclusions.put( key, value );
+        compileOverride( key, value );
+    }
+
+    /**
+     * Adds pre-parsed overrides (e.g. from an overrides file) directly without round-tripping them through the user
+     * properties. As with the properties themselves, an override may not clash with a dependencyOverride or
+     * dependencyExclusion property of the same key ; later entries in the list replace earlier ones.
+     *
+     * @param overrides the overrides to add.
+     * @throws ManipulationException if an override clashes with a property.
+     */
+    public void addDependencyOverrides( List<DependencyOverride> overrides ) throws ManipulationException
+    {
+        final Set<String> added = new HashSet<>();
+
+        for ( DependencyOverride override : overrides )
+        {
+            final String key = override.getKey();
+
+            if ( !added.contains( key ) && dependencyExclusions.containsKey( key ) )
+            {
+                throw new ManipulationException( "Property clash between overrides file and dependencyOverride/dependencyExclusion for " + key );
+            }
+            added.add( key );
+            dependencyExclusions.put( key, override.getValue() );
+            addOverride( key, override );
+        }
+    }
+
+    private void compileOverride( String key, String value ) throws ManipulationException
+    {
+        if ( !key.contains( "@" ) )
+        {
+            logger.debug( "Exclusion key {} is not an override. Skip.", key );
+            return;
+        }
+        addOverride( key, DependencyOverride.parse( key, value ) );
+    }
+
+    private void addOverride( String key, DependencyOverride override )
+    {
+        final DependencyOverride previous = compiledOverrides.put( key, override );
+        if ( previous != null )
+        {
+            bucketFor( previous ).remove( previous );
+        }
+        bucketFor( override ).add( override );
+    }
+
+    private List<DependencyOverride> bucketFor( DependencyOverride override )
+    {
+        final ProjectRef module = override.getModule();
+
+        if ( override.isAllModules() )
+        {
+            return globalOverrides;
+        }
+        else if ( WildcardMap.WILDCARD.equals( module.getArtifactId() ) )
+        {
+            return moduleGroupOverrides.computeIfAbsent( module.getGroupId(), k -> new ArrayList<>() );
+        }
+        return moduleOverrides.computeIfAbsent( new SimpleProjectRef( module.getGroupId(), module.getArtifactId() ),
+                                                k -> new ArrayList<>() );
     }
 }
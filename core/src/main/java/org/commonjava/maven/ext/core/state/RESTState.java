@@ -15,28 +15,69 @@
  */
 package org.commonjava.maven.ext.core.state;
 
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.commonjava.maven.ext.core.ManipulationSession;
 import org.commonjava.maven.ext.core.impl.DependencyManipulator;
+import org.commonjava.maven.ext.io.rest.CachingTranslator;
+import org.commonjava.maven.ext.io.rest.DeduplicatingTranslator;
 import org.commonjava.maven.ext.io.rest.DefaultTranslator;
+import org.commonjava.maven.ext.io.rest.ExponentialBackoff;
+import org.commonjava.maven.ext.io.rest.HedgePolicy;
+import org.commonjava.maven.ext.io.rest.TranslationCache;
 import org.commonjava.maven.ext.io.rest.Translator;
 import org.commonjava.maven.ext.io.rest.Translator.RestProtocol;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Captures configuration relating to dependency alignment from the POMs. Used by {@link DependencyManipulator}.
  */
 public class RESTState implements State
 {
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
     private final String restURL;
 
     private final Translator restEndpoint;
 
+    private final Set<ProjectVersionRef> prefetchedRequests = new HashSet<>();
+
+    private final Map<ProjectVersionRef, String> prefetched = new HashMap<>();
+
+    private final Map<Future<Map<ProjectVersionRef, String>>, Collection<ProjectVersionRef>> pendingPrefetches =
+                    new LinkedHashMap<>();
+
+    /**
+     * The GAs of the projects being built. Their translations depend upon the build itself (e.g. the incremental
+     * suffix) so are never served from or written to the {@link TranslationCache}.
+     */
+    private final Set<ProjectRef> projectKeys = ConcurrentHashMap.newKeySet();
+
+    private ProjectRef blacklistProject;
+
+    private Future<List<ProjectVersionRef>> blacklist;
+
     public RESTState( final ManipulationSession session ) throws ManipulationException
     {
         final VersioningState vState = session.getState( VersioningState.class );
-        final Properties userProps = session.getUserProperties();
+        final Properties userProps = session.getUserPropertiesSnapshot();
 
         restURL = userProps.getProperty( "restURL" );
 
@@ -44,10 +85,33 @@ public class RESTState implements State
         int restMaxSize = Integer.valueOf( userProps.getProperty( "restMaxSize", "-1" ) );
         int restMinSize = Integer.valueOf( userProps.getProperty( "restMinSize",
                                                                   String.valueOf( DefaultTranslator.CHUNK_SPLIT_COUNT ) ) );
+        int restMaxConcurrency = Integer.valueOf( userProps.getProperty( "restMaxConcurrency", "4" ) );
+        int restRetryMax = Integer.valueOf( userProps.getProperty( "restRetryMax",
+                                                                   String.valueOf( ExponentialBackoff.DEFAULT_MAX_RETRIES ) ) );
+        long restRetryBudget = Long.valueOf( userProps.getProperty( "restRetryBudget", String.valueOf(
+                        TimeUnit.MILLISECONDS.toSeconds( ExponentialBackoff.DEFAULT_BUDGET ) ) ) );
+        int restMaxConnections = Integer.valueOf( userProps.getProperty( "restMaxConnections", "0" ) );
+        boolean restCompressRequests = Boolean.parseBoolean( userProps.getProperty( "restCompressRequests", "false" ) );
+        double restHedgePercentile = Double.valueOf( userProps.getProperty( "restHedgePercentile", "0" ) );
+        double restHedgeRatio = Double.valueOf( userProps.getProperty( "restHedgeRatio", "0.1" ) );
+        HedgePolicy hedgePolicy = restHedgePercentile > 0 ?
+                        new HedgePolicy( restHedgePercentile, restHedgeRatio, userProps.getProperty( "restHedgeURL" ) ) :
+                        null;
 
         RestProtocol protocol = RestProtocol.parse ( userProps.getProperty( "restProtocol", RestProtocol.CURRENT.toString() ) );
 
-        restEndpoint = new DefaultTranslator( restURL, protocol, restMaxSize, restMinSize, repositoryGroup, vState.getIncrementalSerialSuffix() );
+        Translator translator = new DefaultTranslator( restURL, protocol, restMaxSize, restMinSize, restMaxConcurrency,
+                                                       new ExponentialBackoff( restRetryMax, TimeUnit.SECONDS.toMillis(
+                                                                       restRetryBudget ) ),
+                                                       restMaxConnections, restCompressRequests, hedgePolicy,
+                                                       repositoryGroup, vState.getIncrementalSerialSuffix() );
+        TranslationCache cache = TranslationCache.create( userProps, restURL, protocol, repositoryGroup,
+                                                          vState.getIncrementalSerialSuffix() );
+
+        restEndpoint = new DeduplicatingTranslator( cache == null ?
+                                                                    translator :
+                                                                    new CachingTranslator( translator, cache,
+                                                                                           p -> projectKeys.contains( p.asProjectRef() ) ) );
     }
 
     /**
@@ -65,4 +129,162 @@ public class RESTState implements State
     {
         return restEndpoint;
     }
+
+    /**
+     * Records the keys of the projects being built, which are then always sent to the REST endpoint rather than
+     * answered from the cache.
+     *
+     * @param keys the project keys
+     */
+    public void addProjectKeys( Collection<ProjectVersionRef> keys )
+    {
+        keys.forEach( k -> projectKeys.add( k.asProjectRef() ) );
+    }
+
+    /**
+     * Records the answers to a lookup made ahead of the collectors that need them, so that later calls to
+     * {@link #translateVersions(List)} only send the GAVs that were not part of it.
+     *
+     * @param requested the GAVs that were looked up
+     * @param result the translations returned for them
+     */
+    public void setPrefetchedVersions( Collection<ProjectVersionRef> requested, Map<ProjectVersionRef, String> result )
+    {
+        prefetchedRequests.addAll( requested );
+        prefetched.putAll( result );
+    }
+
+    /**
+     * Records a lookup that is running in the background. It is waited for by the next call to
+     * {@link #translateVersions(List)} ; should it fail its GAVs are simply sent again.
+     *
+     * @param requested the GAVs that are being looked up
+     * @param result the pending translations
+     */
+    public void addPrefetchedVersions( Collection<ProjectVersionRef> requested,
+                                       Future<Map<ProjectVersionRef, String>> result )
+    {
+        pendingPrefetches.put( result, requested );
+    }
+
+    /**
+     * Translates the given GAVs, using any prefetched answers and only passing the remainder to the REST endpoint.
+     *
+     * @param projects the GAVs to translate
+     * @return Map of ProjectVersionRef objects as keys and translated versions as values
+     */
+    public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects )
+    {
+        final Map<ProjectVersionRef, String> result = new HashMap<>();
+        final List<ProjectVersionRef> misses = new ArrayList<>();
+
+        joinPrefetches();
+
+        for ( ProjectVersionRef project : projects )
+        {
+            if ( !prefetchedRequests.contains( project ) )
+            {
+                misses.add( project );
+            }
+            else if ( prefetched.containsKey( project ) )
+            {
+                result.put( project, prefetched.get( project ) );
+            }
+        }
+
+        if ( !prefetchedRequests.isEmpty() )
+        {
+            logger.info( "Using prefetched translations for {} of {} GAVs", projects.size() - misses.size(),
+                         projects.size() );
+        }
+        if ( !misses.isEmpty() || prefetchedRequests.isEmpty() )
+        {
+            result.putAll( restEndpoint.translateVersions( misses ) );
+        }
+        return result;
+    }
+
+    private void joinPrefetches()
+    {
+        for ( Map.Entry<Future<Map<ProjectVersionRef, String>>, Collection<ProjectVersionRef>> pending :
+                        pendingPrefetches.entrySet() )
+        {
+            try
+            {
+                setPrefetchedVersions( pending.getValue(), pending.getKey().get() );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch ( ExecutionException e )
+            {
+                logger.warn( "Background translation of {} GAVs failed ; sending them again ({})",
+                             pending.getValue().size(), e.getCause().getMessage() );
+            }
+        }
+        pendingPrefetches.clear();
+    }
+
+    /**
+     * Cancels any background lookups that have not been used, e.g. because the build failed, and releases the
+     * resources held by the translator.
+     */
+    public void finish()
+    {
+        pendingPrefetches.keySet().forEach( f -> f.cancel( true ) );
+        pendingPrefetches.clear();
+
+        if ( blacklist != null )
+        {
+            blacklist.cancel( true );
+        }
+        restEndpoint.finish();
+    }
+
+    /**
+     * Records a blacklist lookup that has already been started for the given project.
+     *
+     * @param project the project that is being looked up
+     * @param blacklist the pending result
+     */
+    public void setPrefetchedBlacklist( ProjectRef project, Future<List<ProjectVersionRef>> blacklist )
+    {
+        this.blacklistProject = project;
+        this.blacklist = blacklist;
+    }
+
+    /**
+     * Returns the blacklisted versions of the given project, waiting for a prefetched lookup if there is one.
+     *
+     * @param project the project to look up
+     * @return the blacklisted versions.
+     * @throws ManipulationException if the lookup was interrupted or failed.
+     */
+    public List<ProjectVersionRef> findBlacklisted( ProjectRef project ) throws ManipulationException
+    {
+        if ( blacklist == null || !project.equals( blacklistProject ) )
+        {
+            return restEndpoint.findBlacklisted( project );
+        }
+
+        try
+        {
+            return blacklist.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ManipulationException( "Interrupted while looking up blacklist for {}", e, project );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ManipulationException( "Unable to look up blacklist for {}", e.getCause(), project );
+        }
+    }
 }
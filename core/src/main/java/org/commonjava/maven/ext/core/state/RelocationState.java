@@ -25,8 +25,14 @@ import org.commonjava.maven.ext.core.util.WildcardMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
@@ -58,6 +64,12 @@ public class RelocationState
 
     private final WildcardMap<ProjectVersionRef> dependencyRelocations = new WildcardMap<>();
 
+    /**
+     * Memoised fixed-point relocation chains keyed by the original groupId:artifactId. An empty chain denotes that
+     * no relocation applies.
+     */
+    private final Map<ProjectRef, List<ProjectVersionRef>> resolvedRelocations = new HashMap<>();
+
     public RelocationState( final Properties userProps )
                     throws ManipulationException
     {
@@ -118,6 +130,8 @@ public class RelocationState
             dependencyRelocations.put( sp, new SimpleProjectVersionRef( newGroupId, newArtifactId, version ) );
         }
 
+        dependencyRelocations.freeze();
+
         logger.trace ("Wildcard map {} ", dependencyRelocations);
     }
 
@@ -136,4 +150,60 @@ public class RelocationState
     {
         return dependencyRelocations;
     }
+
+    /**
+     * Resolves the relocations that apply to the given groupId:artifactId. As one relocation may alter a dependency
+     * such that another relocation then applies (e.g. a wildcard groupId relocation followed by a more specific
+     * artifactId relocation) the relocations are followed transitively until a fixed point is reached. Each step
+     * in the returned chain has its artifactId resolved (i.e. never a wildcard) and the final step is the ultimate
+     * relocation target. The result is cached so each distinct groupId:artifactId is only resolved once.
+     *
+     * @param groupId the original groupId
+     * @param artifactId the original artifactId
+     * @return the possibly empty, unmodifiable, chain of relocations.
+     * @throws ManipulationException if the relocations are cyclic.
+     */
+    public List<ProjectVersionRef> getRelocationChain( final String groupId, final String artifactId )
+                    throws ManipulationException
+    {
+        final ProjectRef source = new SimpleProjectRef( groupId, artifactId );
+        List<ProjectVersionRef> chain = resolvedRelocations.get( source );
+
+        if ( chain == null )
+        {
+            final List<ProjectVersionRef> steps = new ArrayList<>();
+            final Set<ProjectRef> visited = new LinkedHashSet<>();
+            ProjectRef current = source;
+
+            while ( visited.add( current ) )
+            {
+                final ProjectVersionRef relocation = dependencyRelocations.get( current );
+                if ( relocation == null )
+                {
+                    break;
+                }
+                final String newArtifactId = WildcardMap.WILDCARD.equals( relocation.getArtifactId() ) ?
+                                current.getArtifactId() :
+                                relocation.getArtifactId();
+                final ProjectRef next = new SimpleProjectRef( relocation.getGroupId(), newArtifactId );
+
+                steps.add( new SimpleProjectVersionRef( next, relocation.getVersionString() ) );
+
+                if ( next.equals( current ) )
+                {
+                    // Relocation to itself (e.g. only forcing a version) ; this is the fixed point.
+                    break;
+                }
+                if ( visited.contains( next ) )
+                {
+                    throw new ManipulationException( "Cyclic relocation detected for {} : {} -> {}",
+                                                     source.toString(), visited.toString(), next.toString() );
+                }
+                current = next;
+            }
+            chain = steps.isEmpty() ? Collections.<ProjectVersionRef>emptyList() : Collections.unmodifiableList( steps );
+            resolvedRelocations.put( source, chain );
+        }
+        return chain;
+    }
 }
@@ -19,6 +19,7 @@ import org.apache.commons.lang.StringUtils;
 import org.commonjava.maven.ext.core.impl.SuffixManipulator;
 
 import java.util.Properties;
+import java.util.regex.Pattern;
 
 /**
  * Captures configuration relating to suffix stripping from the POM version. Used by {@link SuffixManipulator}.
@@ -46,6 +47,8 @@ public class SuffixState
 
     private String suffixStrip;
 
+    private Pattern suffixStripPattern;
+
     public SuffixState( final Properties userProps )
     {
         suffixStrip = userProps.getProperty( SUFFIX_STRIP_PROPERTY );
@@ -54,6 +57,10 @@ public class SuffixState
         {
             suffixStrip = DEFAULT_SUFFIX_STRIP;
         }
+        if ( isEnabled() )
+        {
+            suffixStripPattern = Pattern.compile( suffixStrip );
+        }
     }
 
     /**
@@ -71,4 +78,12 @@ public class SuffixState
     {
         return suffixStrip;
     }
+
+    /**
+     * @return the compiled suffix strip pattern, or null if this state is not enabled.
+     */
+    public Pattern getSuffixStripPattern()
+    {
+        return suffixStripPattern;
+    }
 }
@@ -22,6 +22,7 @@ import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.model.GAV;
 import org.commonjava.maven.ext.core.impl.ProjectVersioningManipulator;
+import org.commonjava.maven.ext.core.impl.SuffixPatterns;
 import org.commonjava.maven.ext.core.util.PropertiesUtils;
 import org.commonjava.maven.ext.core.util.PropertyFlag;
 
@@ -32,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.apache.commons.lang.StringUtils.isNotEmpty;
@@ -59,6 +61,14 @@ public class VersioningState
 
     public static final String VERSION_SUFFIX_ALT = "versionSuffixAlternatives";
 
+    /**
+     * The maximum number of concurrent repository metadata reads when prefetching versions for incremental
+     * suffixes. A value below two disables the prefetch.
+     */
+    public static final String VERSION_METADATA_CONCURRENCY = "versionMetadataConcurrency";
+
+    private static final String DEFAULT_METADATA_CONCURRENCY = "8";
+
     /**
      * @return the version suffix to be appended to the project version.
      */
@@ -90,10 +100,20 @@ public class VersioningState
      */
     private final int incrementalSerialSuffixPadding;
 
+    /**
+     * @return the maximum number of concurrent repository metadata reads.
+     */
+    private final int metadataConcurrency;
+
     private final List<String> suffixAlternatives;
 
     private final List<String> allSuffixes;
 
+    /**
+     * @return the compiled patterns matching versions with one of the alternate suffixes.
+     */
+    private final List<Pattern> suffixAlternativePatterns = new ArrayList<>();
+
     @JsonProperty
     private GAV executionRootModified;
 
@@ -108,6 +128,11 @@ public class VersioningState
      */
     private Map<ProjectRef, Set<String>> restMetaData;
 
+    /**
+     * Store the versions prefetched from the repository metadata for incremental lookup.
+     */
+    private Map<ProjectRef, Set<String>> metadataVersions;
+
     public VersioningState( final Properties userProps )
     {
         suffix = PropertiesUtils.handleDeprecatedProperty( userProps, VERSION_SUFFIX_SYSPROP );
@@ -116,12 +141,15 @@ public class VersioningState
         preserveSnapshot = Boolean.parseBoolean( PropertiesUtils.handleDeprecatedProperty( userProps, VERSION_SUFFIX_SNAPSHOT_SYSPROP ) );
         osgi = Boolean.parseBoolean( PropertiesUtils.handleDeprecatedProperty( userProps, VERSION_OSGI_SYSPROP, "true" ) );
         override = PropertiesUtils.handleDeprecatedProperty( userProps, VERSION_OVERRIDE_SYSPROP );
+        metadataConcurrency = Integer.parseInt( userProps.getProperty( VERSION_METADATA_CONCURRENCY, DEFAULT_METADATA_CONCURRENCY ) );
 
         // Provide an alternative list of versionSuffixes split via a comma separator. Defaults to 'redhat' IF the current rebuild suffix is not that.
         suffixAlternatives = Arrays.asList(
                         StringUtils.split( userProps.getProperty(
                                         VERSION_SUFFIX_ALT, "redhat".equals( getRebuildSuffix() ) ? "" : "redhat" ), "," ) );
 
+        suffixAlternatives.forEach( s -> suffixAlternativePatterns.add( SuffixPatterns.getAlternateSuffixPattern( s ) ) );
+
         allSuffixes = new ArrayList<>( );
 
         // If no suffix is configured then don't fill in the all suffixes array.
@@ -156,6 +184,11 @@ public class VersioningState
         return restMetaData;
     }
 
+    public void setMetadataVersions( Map<ProjectRef, Set<String>> metadataVersions )
+    {
+        this.metadataVersions = metadataVersions;
+    }
+
     public void setVersionsByGAVMap( Map<ProjectVersionRef, String> versionsByGAV )
     {
         this.versionsByGAV.putAll( versionsByGAV );
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.commonjava.maven.atlas.ident.ref.InvalidRefException;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang.StringUtils.isEmpty;
+
+/**
+ * Parsed form of a single dependency override (or exclusion) i.e.
+ * <pre>
+ * <code>groupId:artifactId@moduleGroupId:moduleArtifactId=value</code>
+ * <code>groupId:artifactId@*=value</code>
+ * </pre>
+ * The artifactId of either the artifact or the module may be a wildcard. An empty value denotes that the artifact
+ * should not be aligned at all.
+ */
+public final class DependencyOverride
+{
+    private static final Logger logger = LoggerFactory.getLogger( DependencyOverride.class );
+
+    private final ProjectRef artifact;
+
+    private final ProjectRef module;
+
+    private final String value;
+
+    private DependencyOverride( final ProjectRef artifact, final ProjectRef module, final String value )
+    {
+        this.artifact = artifact;
+        this.module = module;
+        this.value = value;
+    }
+
+    /**
+     * Parses an override key and value.
+     *
+     * @param key the key, in the format <code>groupId:artifactId@moduleGroupId:moduleArtifactId</code> or
+     *            <code>groupId:artifactId@*</code>
+     * @param value the value which may be null or empty.
+     * @return the parsed override.
+     * @throws ManipulationException if the key is not in the correct format.
+     */
+    public static DependencyOverride parse( final String key, final String value ) throws ManipulationException
+    {
+        final String[] artifactAndModule = key.split( "@" );
+        if ( artifactAndModule.length != 2 || isEmpty( artifactAndModule[0] ) || isEmpty( artifactAndModule[1] ) )
+        {
+            throw new ManipulationException( "Invalid format for exclusion key " + key );
+        }
+        try
+        {
+            final ProjectRef artifact = SimpleProjectRef.parse( artifactAndModule[0] );
+            final ProjectRef module =
+                            WildcardMap.WILDCARD.equals( artifactAndModule[1] ) ? null : SimpleProjectRef.parse( artifactAndModule[1] );
+
+            return new DependencyOverride( artifact, module, value == null ? "" : value );
+        }
+        catch ( final InvalidRefException e )
+        {
+            throw new ManipulationException( "Invalid format for exclusion key {}", e, key );
+        }
+    }
+
+    /**
+     * Streams the overrides file, one <code>key=value</code> override per line, parsing and validating each line as
+     * it is read. Blank lines and lines starting with '#' are ignored, as are keys without a module (i.e. no '@'),
+     * which are not overrides.
+     *
+     * @param file the file to read.
+     * @return the parsed overrides, in file order.
+     * @throws ManipulationException if the file cannot be read or a line is invalid.
+     */
+    public static List<DependencyOverride> parseFile( final File file ) throws ManipulationException
+    {
+        final List<DependencyOverride> result = new ArrayList<>();
+
+        try ( BufferedReader reader = Files.newBufferedReader( file.toPath(), Charset.defaultCharset() ) )
+        {
+            String line;
+            int lineNumber = 0;
+
+            while ( ( line = reader.readLine() ) != null )
+            {
+                lineNumber++;
+                line = line.trim();
+
+                if ( line.isEmpty() || line.startsWith( "#" ) )
+                {
+                    continue;
+                }
+                final int separator = line.indexOf( '=' );
+                if ( separator < 0 )
+                {
+                    throw new ManipulationException( "Invalid override at line {} of {} ; should be key=value : {}",
+                                                     Integer.toString( lineNumber ), file.toString(), line );
+                }
+                final String key = line.substring( 0, separator ).trim();
+                if ( !key.contains( "@" ) )
+                {
+                    logger.debug( "Key {} at line {} of {} is not an override. Skip.", key, lineNumber, file );
+                    continue;
+                }
+                try
+                {
+                    result.add( parse( key, line.substring( separator + 1 ).trim() ) );
+                }
+                catch ( final ManipulationException e )
+                {
+                    throw new ManipulationException( "Invalid override at line {} of {} : {}", e, lineNumber, file,
+                                                     e.getMessage() );
+                }
+            }
+        }
+        catch ( final IOException e )
+        {
+            throw new ManipulationException( "Unable to read overrides file", e );
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the groupId:artifactId (artifactId may be a wildcard) to override.
+     */
+    public ProjectRef getArtifact()
+    {
+        return artifact;
+    }
+
+    /**
+     * @return the module groupId:artifactId (artifactId may be a wildcard) this override is restricted to or null if
+     * it applies to all modules.
+     */
+    public ProjectRef getModule()
+    {
+        return module;
+    }
+
+    /**
+     * @return true if this override applies to all modules i.e. <code>@*</code>
+     */
+    public boolean isAllModules()
+    {
+        return module == null;
+    }
+
+    /**
+     * @return the override value ; may be empty.
+     */
+    public String getValue()
+    {
+        return value;
+    }
+
+    /**
+     * @return the key in its original property format.
+     */
+    public String getKey()
+    {
+        return artifact + "@" + ( module == null ? WildcardMap.WILDCARD : module.toString() );
+    }
+
+    @Override
+    public String toString()
+    {
+        return getKey() + '=' + value;
+    }
+}
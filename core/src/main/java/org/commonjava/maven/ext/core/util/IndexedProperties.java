@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of a set of {@link Properties} that additionally maintains a sorted index of the property names.
+ * This allows prefix queries (see {@link PropertiesUtils#getPropertiesByPrefix(Properties, String)}) to be answered
+ * in O(log n + matches) rather than by scanning every property, which matters when the user properties contain the
+ * full environment. All mutators throw {@link UnsupportedOperationException}.
+ */
+public final class IndexedProperties
+                extends Properties
+{
+    private static final long serialVersionUID = 1L;
+
+    private final NavigableMap<String, String> index = new TreeMap<>();
+
+    private final boolean initialised;
+
+    public IndexedProperties( final Properties source )
+    {
+        for ( final String name : source.stringPropertyNames() )
+        {
+            final String value = source.getProperty( name );
+            super.put( name, value );
+            index.put( name, value );
+        }
+        initialised = true;
+    }
+
+    /**
+     * @param prefix the prefix to match.
+     * @return an unmodifiable, sorted, view of all properties whose names start with prefix.
+     */
+    public SortedMap<String, String> getByPrefix( final String prefix )
+    {
+        return Collections.unmodifiableSortedMap(
+                        index.subMap( prefix, true, prefix + Character.MAX_VALUE, false ) );
+    }
+
+    private void checkMutable()
+    {
+        // Properties/Hashtable construction may call through to put ; only block once the snapshot is populated.
+        if ( initialised )
+        {
+            throw new UnsupportedOperationException( "User properties snapshot is immutable" );
+        }
+    }
+
+    @Override
+    public synchronized Object put( final Object key, final Object value )
+    {
+        checkMutable();
+        return super.put( key, value );
+    }
+
+    @Override
+    public synchronized void putAll( final Map<?, ?> t )
+    {
+        checkMutable();
+        super.putAll( t );
+    }
+
+    @Override
+    public synchronized Object putIfAbsent( final Object key, final Object value )
+    {
+        checkMutable();
+        return super.putIfAbsent( key, value );
+    }
+
+    @Override
+    public synchronized Object remove( final Object key )
+    {
+        checkMutable();
+        return super.remove( key );
+    }
+
+    @Override
+    public synchronized boolean remove( final Object key, final Object value )
+    {
+        checkMutable();
+        return super.remove( key, value );
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        checkMutable();
+        super.clear();
+    }
+
+    @Override
+    public synchronized Object replace( final Object key, final Object value )
+    {
+        checkMutable();
+        return super.replace( key, value );
+    }
+
+    @Override
+    public synchronized boolean replace( final Object key, final Object oldValue, final Object newValue )
+    {
+        checkMutable();
+        return super.replace( key, oldValue, newValue );
+    }
+
+    @Override
+    public synchronized void replaceAll( final BiFunction<? super Object, ? super Object, ?> function )
+    {
+        checkMutable();
+        super.replaceAll( function );
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent( final Object key, final Function<? super Object, ?> mappingFunction )
+    {
+        checkMutable();
+        return super.computeIfAbsent( key, mappingFunction );
+    }
+
+    @Override
+    public synchronized Object computeIfPresent( final Object key,
+                                                 final BiFunction<? super Object, ? super Object, ?> remappingFunction )
+    {
+        checkMutable();
+        return super.computeIfPresent( key, remappingFunction );
+    }
+
+    @Override
+    public synchronized Object compute( final Object key,
+                                        final BiFunction<? super Object, ? super Object, ?> remappingFunction )
+    {
+        checkMutable();
+        return super.compute( key, remappingFunction );
+    }
+
+    @Override
+    public synchronized Object merge( final Object key, final Object value,
+                                      final BiFunction<? super Object, ? super Object, ?> remappingFunction )
+    {
+        checkMutable();
+        return super.merge( key, value, remappingFunction );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.commonjava.maven.ext.core.util.WildcardMap.WILDCARD;
+
+/**
+ * Immutable matcher compiled from a collection of groupId:artifactId patterns. Each pattern may be
+ * <ul>
+ *     <li>an exact groupId:artifactId</li>
+ *     <li>a groupId wildcard i.e. groupId:*</li>
+ *     <li>an artifactId wildcard i.e. *:artifactId</li>
+ *     <li>a complete wildcard i.e. *:*</li>
+ * </ul>
+ * Matching is a constant number of hash lookups regardless of the number of patterns.
+ */
+public final class ProjectRefMatcher
+{
+    private final Map<String, Set<String>> exact = new HashMap<>();
+
+    private final Set<String> groupWildcards = new HashSet<>();
+
+    private final Set<String> artifactWildcards = new HashSet<>();
+
+    private final boolean matchAll;
+
+    private final int size;
+
+    public ProjectRefMatcher( final Collection<ProjectRef> patterns )
+    {
+        boolean all = false;
+        int count = 0;
+
+        if ( patterns != null )
+        {
+            for ( final ProjectRef pattern : patterns )
+            {
+                final String groupId = pattern.getGroupId();
+                final String artifactId = pattern.getArtifactId();
+
+                if ( WILDCARD.equals( groupId ) && WILDCARD.equals( artifactId ) )
+                {
+                    all = true;
+                }
+                else if ( WILDCARD.equals( artifactId ) )
+                {
+                    groupWildcards.add( groupId );
+                }
+                else if ( WILDCARD.equals( groupId ) )
+                {
+                    artifactWildcards.add( artifactId );
+                }
+                else
+                {
+                    Set<String> artifacts = exact.get( groupId );
+                    if ( artifacts == null )
+                    {
+                        artifacts = new HashSet<>();
+                        exact.put( groupId, artifacts );
+                    }
+                    artifacts.add( artifactId );
+                }
+                count++;
+            }
+        }
+        matchAll = all;
+        size = count;
+    }
+
+    /**
+     * @param ref the reference to check
+     * @return true if any of the compiled patterns match the groupId and artifactId of the reference.
+     */
+    public boolean matches( final ProjectRef ref )
+    {
+        return matches( ref.getGroupId(), ref.getArtifactId() );
+    }
+
+    /**
+     * @param groupId the groupId to check
+     * @param artifactId the artifactId to check
+     * @return true if any of the compiled patterns match the groupId and artifactId.
+     */
+    public boolean matches( final String groupId, final String artifactId )
+    {
+        if ( matchAll || groupWildcards.contains( groupId ) || artifactWildcards.contains( artifactId ) )
+        {
+            return true;
+        }
+        final Set<String> artifacts = exact.get( groupId );
+
+        return artifacts != null && artifacts.contains( artifactId );
+    }
+
+    /**
+     * @return true if no patterns were supplied.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of patterns this matcher was compiled from.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ProjectRefMatcher{" +
+                        "exact=" + exact +
+                        ", groupWildcards=" + groupWildcards +
+                        ", artifactWildcards=" + artifactWildcards +
+                        ", matchAll=" + matchAll +
+                        '}';
+    }
+}
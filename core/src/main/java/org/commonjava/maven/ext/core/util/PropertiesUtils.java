@@ -38,7 +38,6 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static org.apache.commons.lang.StringUtils.isNotEmpty;
 
@@ -55,7 +54,8 @@ public final class PropertiesUtils
 
     /**
      * Filter Properties by accepting only properties with names that start with prefix. Trims the prefix
-     * from the property names when inserting them into the returned Map.
+     * from the property names when inserting them into the returned Map. If the properties are an
+     * {@link IndexedProperties} snapshot only the matching properties are visited.
      * @param properties the properties to filter.
      * @param prefix The String that must be at the start of the property names
      * @return map of properties with matching prepend and their values
@@ -65,25 +65,40 @@ public final class PropertiesUtils
         final Map<String, String> matchedProperties = new HashMap<>();
         final int prefixLength = prefix.length();
 
-        for ( final String propertyName : properties.stringPropertyNames() )
+        if ( properties instanceof IndexedProperties )
         {
-            if ( propertyName.startsWith( prefix ) )
+            for ( final Map.Entry<String, String> entry : ( (IndexedProperties) properties ).getByPrefix( prefix ).entrySet() )
             {
-                final String trimmedPropertyName = propertyName.substring( prefixLength );
-                String value = properties.getProperty( propertyName );
-                if ( value != null && value.equals( "true" ) )
+                addPrefixedProperty( matchedProperties, entry.getKey().substring( prefixLength ), entry.getValue() );
+            }
+        }
+        else
+        {
+            for ( final String propertyName : properties.stringPropertyNames() )
+            {
+                if ( propertyName.startsWith( prefix ) )
                 {
-                    logger.warn( "Work around Brew/Maven bug - removing erroneous 'true' value for {}.",
-                                 trimmedPropertyName );
-                    value = "";
+                    addPrefixedProperty( matchedProperties, propertyName.substring( prefixLength ),
+                                         properties.getProperty( propertyName ) );
                 }
-                matchedProperties.put( trimmedPropertyName, value );
             }
         }
 
         return matchedProperties;
     }
 
+    private static void addPrefixedProperty( final Map<String, String> matchedProperties,
+                                             final String trimmedPropertyName, String value )
+    {
+        if ( value != null && value.equals( "true" ) )
+        {
+            logger.warn( "Work around Brew/Maven bug - removing erroneous 'true' value for {}.",
+                         trimmedPropertyName );
+            value = "";
+        }
+        matchedProperties.put( trimmedPropertyName, value );
+    }
+
     /**
      * Recursively update properties.
      *
@@ -574,9 +589,7 @@ public final class PropertiesUtils
         // against.
         if ( versioningState.getAllSuffixes().size() > 1 )
         {
-            versioningState.getSuffixAlternatives().forEach( s -> {
-                final String suffixStripRegExp = "(.*)([.|-])(" + s + "-\\d+)";
-                final Pattern suffixStripPattern = Pattern.compile( suffixStripRegExp );
+            versioningState.getSuffixAlternativePatterns().forEach( suffixStripPattern -> {
                 final Matcher suffixMatcher = suffixStripPattern.matcher( oldValue );
 
                 if ( suffixMatcher.matches() && !oldValue.contains( versioningState.getRebuildSuffix() ) )
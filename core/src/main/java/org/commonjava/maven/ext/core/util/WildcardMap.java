@@ -17,11 +17,13 @@ package org.commonjava.maven.ext.core.util;
 
 import org.apache.maven.model.Dependency;
 import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.TreeMap;
+import java.util.Map;
 
 /**
  * Custom limited map implementation that handles the following format:
@@ -29,6 +31,11 @@ import java.util.TreeMap;
  *     String(groupId) : Map (where Map contains String(artifactId):String(value) ).
  * </p>
  * artifactId may be a wildcard (*) or an explicit value.
+ * <p>
+ * Lookups are read-optimised: explicit groupId:artifactId mappings and groupId wildcard mappings are held in
+ * separate hash tables so a query is at most two hash lookups with no intermediate allocation. Once populated (e.g.
+ * at the end of state initialisation) the map may be frozen via {@link #freeze()} to prevent further modification.
+ * </p>
  */
 public class WildcardMap<T>
 {
@@ -37,21 +44,27 @@ public class WildcardMap<T>
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     /**
-     * This map represents:
+     * This map represents explicit mappings:
      * <p>
      * groupId : map where map is artifactId : value
      * </p>
-     * artifactId may be a wildcard '*'.
      */
-    private final TreeMap<String, LinkedHashMap<String,T>> map = new TreeMap<>();
+    private final Map<String, Map<String,T>> explicit = new HashMap<>();
+
+    /**
+     * This map represents wildcard mappings i.e. groupId:* : value
+     */
+    private final Map<String, T> wildcards = new HashMap<>();
+
+    private boolean frozen;
 
     /**
      * Size implementation
-     * @return the size of the wildcard map
+     * @return the size of the wildcard map i.e. the number of groupIds mapped.
      */
     public int size ()
     {
-        return map.size();
+        return explicit.size() + wildcards.size();
     }
 
     /**
@@ -61,10 +74,7 @@ public class WildcardMap<T>
      */
     public boolean containsKey(Dependency key)
     {
-        String groupId = key.getGroupId();
-        String artifactId = key.getArtifactId();
-
-        return internalContainsKey( groupId, artifactId );
+        return internalContainsKey( key.getGroupId(), key.getArtifactId() );
     }
 
     /**
@@ -74,34 +84,18 @@ public class WildcardMap<T>
      */
     public boolean containsKey(ProjectRef key)
     {
-        String groupId = key.getGroupId();
-        String artifactId = key.getArtifactId();
-
-        return internalContainsKey( groupId, artifactId );
+        return internalContainsKey( key.getGroupId(), key.getArtifactId() );
     }
 
     private boolean internalContainsKey(String groupId, String artifactId)
     {
-        boolean result;
-
-        LinkedHashMap vMap = map.get(groupId);
-
-        if ( vMap == null || vMap.isEmpty())
+        if ( wildcards.get( groupId ) != null )
         {
-            result = false;
+            return true;
         }
-        else
-        {
-            if ( vMap.get(WILDCARD) != null)
-            {
-                result = true;
-            }
-            else
-            {
-                result = vMap.containsKey(artifactId);
-            }
-        }
-        return result;
+        Map<String, T> vMap = explicit.get( groupId );
+
+        return vMap != null && vMap.containsKey( artifactId );
     }
 
 
@@ -109,48 +103,43 @@ public class WildcardMap<T>
      * Associates the specified value with the specified key in this map.
      * @param key key to associate with
      * @param value value to associate with the key
+     * @throws ManipulationUncheckedException if the map has been frozen.
      */
     public void put(ProjectRef key, T value)
     {
-        String groupId = key.getGroupId();
-        String artifactId = key.getArtifactId();
-
-        LinkedHashMap<String,T> vMap = map.get(groupId);
-        if ( vMap == null)
+        if ( frozen )
         {
-            vMap = new LinkedHashMap<>();
+            throw new ManipulationUncheckedException( "Unable to add " + key + " to a frozen WildcardMap" );
         }
-        boolean wildcard = false;
+
+        String groupId = key.getGroupId();
+        String artifactId = key.getArtifactId();
 
         if ( WILDCARD.equals(artifactId))
         {
             // Erase any previous mappings.
-            if (!vMap.isEmpty())
-            {
-                logger.warn ("Emptying map with keys " + vMap.keySet() + " as replacing with wildcard mapping " + key);
-            }
-            vMap.clear();
-        }
-        else
-        {
-            for ( Object o : vMap.keySet() )
+            Map<String, T> vMap = explicit.remove( groupId );
+            if ( vMap != null && !vMap.isEmpty() )
             {
-                if ( o.equals( WILDCARD ) )
-                {
-                    wildcard = true;
-                }
+                logger.warn( "Emptying map with keys {} as replacing with wildcard mapping {}", vMap.keySet(), key );
             }
+            wildcards.put( groupId, value );
         }
-        if ( wildcard )
+        else if ( wildcards.containsKey( groupId ) )
         {
-            logger.warn ("Unable to add " + key + " with value " + value +
-                    " as wildcard mapping for " + groupId + " already exists.");
+            logger.warn( "Unable to add {} with value {} as wildcard mapping for {} already exists.", key, value,
+                         groupId );
         }
         else
         {
-            logger.debug ("Entering artifact of " + artifactId + " and value " + value);
-            vMap.put(artifactId, value);
-            map.put(groupId, vMap);
+            logger.debug( "Entering artifact of {} and value {}", artifactId, value );
+            Map<String, T> vMap = explicit.get( groupId );
+            if ( vMap == null )
+            {
+                vMap = new LinkedHashMap<>();
+                explicit.put( groupId, vMap );
+            }
+            vMap.put( artifactId, value );
         }
     }
 
@@ -163,10 +152,7 @@ public class WildcardMap<T>
      */
     public T get(Dependency key)
     {
-        String groupId = key.getGroupId();
-        String artifactId = key.getArtifactId();
-
-        return get( groupId, artifactId );
+        return get( key.getGroupId(), key.getArtifactId() );
     }
 
     /**
@@ -177,48 +163,55 @@ public class WildcardMap<T>
      */
     public T get(ProjectRef key)
     {
-        String groupId = key.getGroupId();
-        String artifactId = key.getArtifactId();
-
-        return get( groupId, artifactId );
+        return get( key.getGroupId(), key.getArtifactId() );
     }
 
     private T get(String groupId, String artifactId)
     {
-        T result = null;
+        T result = wildcards.get( groupId );
 
-        LinkedHashMap<String, T> value = map.get(groupId);
-        if (value != null)
+        if ( result == null )
         {
-            logger.debug("Retrieved value map of " + value);
-            if ( value.get(WILDCARD) != null)
-            {
-                result = value.get(WILDCARD);
-            }
-            else
+            Map<String, T> vMap = explicit.get( groupId );
+            if ( vMap != null )
             {
-                result = value.get(artifactId);
+                result = vMap.get( artifactId );
             }
         }
-        logger.debug("Returning result of " + result);
-
         return result;
     }
 
+    /**
+     * Prevents any further modification of this map. Subsequent calls to {@link #put(ProjectRef, Object)} will throw
+     * a {@link ManipulationUncheckedException}.
+     */
+    public void freeze()
+    {
+        frozen = true;
+    }
+
+    /**
+     * @return true if {@link #freeze()} has been called.
+     */
+    public boolean isFrozen()
+    {
+        return frozen;
+    }
 
     /**
      * @return Returns true if the underlying map is empty.
      */
     public boolean isEmpty()
     {
-        return map.isEmpty();
+        return explicit.isEmpty() && wildcards.isEmpty();
     }
 
     @Override
     public String toString()
     {
         return "WildcardMap{" +
-                "map=" + map +
+                "explicit=" + explicit +
+                ", wildcards=" + wildcards +
                 '}';
     }
 }
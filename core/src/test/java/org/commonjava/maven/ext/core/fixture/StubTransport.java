@@ -30,7 +30,9 @@ import org.commonjava.maven.galley.spi.transport.Transport;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 public class StubTransport
     implements Transport
@@ -38,9 +40,21 @@ public class StubTransport
 
     private final Map<String, byte[]> dataMap;
 
+    private final Set<String> failing;
+
     public StubTransport( final Map<String, byte[]> dataMap )
+    {
+        this( dataMap, Collections.emptySet() );
+    }
+
+    /**
+     * @param dataMap the content to serve, by path
+     * @param failing the paths for which downloads fail
+     */
+    public StubTransport( final Map<String, byte[]> dataMap, final Set<String> failing )
     {
         this.dataMap = dataMap;
+        this.failing = failing;
     }
 
     @Override
@@ -52,6 +66,8 @@ public class StubTransport
         {
             Transfer t = null;
 
+            TransferException error = null;
+
             @Override
             public long getTransferSize()
             {
@@ -67,11 +83,18 @@ public class StubTransport
             public DownloadJob call()
                 throws Exception
             {
+                if ( failing.contains( resource.getPath() ) )
+                {
+                    error = new TransferException( "Failed to download: " + resource.getPath() );
+                    return this;
+                }
+
                 final byte[] data = dataMap.get( resource.getPath() );
 
+                // As with a real transport, a missing resource has no transfer and no error.
                 if ( data == null )
                 {
-                    return null;
+                    return this;
                 }
 
                 t = transfer;
@@ -87,7 +110,7 @@ public class StubTransport
             @Override
             public TransferException getError()
             {
-                return null;
+                return error;
             }
         };
     }
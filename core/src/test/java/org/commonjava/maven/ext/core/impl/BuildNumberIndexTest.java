@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class BuildNumberIndexTest
+{
+    @Test
+    public void testHighestMatchingBuildNumber()
+    {
+        final BuildNumberIndex index = new BuildNumberIndex();
+        Arrays.asList( "1.2.0.redhat-1", "1.2.0.redhat-2", "1.2.redhat-10", "1.2.0.0.redhat-3", "1.2.1.redhat-20",
+                       "1.2.0.Final-redhat-30", "1.2-1", "1.2.0.005" ).forEach( index::add );
+
+        assertEquals( 3, index.findHighestMatchingBuildNumber( "1.2.0.redhat-4" ) );
+        assertEquals( 10, index.findHighestMatchingBuildNumber( "1.2-redhat" ) );
+        assertEquals( 20, index.findHighestMatchingBuildNumber( "1.2.1.redhat-1" ) );
+        assertEquals( 30, index.findHighestMatchingBuildNumber( "1.2.0.Final-redhat-1" ) );
+        assertEquals( 5, index.findHighestMatchingBuildNumber( "1.2" ) );
+        assertEquals( 0, index.findHighestMatchingBuildNumber( "1.3.0.redhat-1" ) );
+        assertEquals( 3, index.getBuildNumberPadding( 0 ) );
+        assertEquals( 5, index.getBuildNumberPadding( 5 ) );
+    }
+
+    @Test
+    public void testDifferentialFuzz()
+    {
+        final String[] fragments = { "0", "1", "2", "00", "10", "007", ".", "-", "_", "redhat", "Final", "GA",
+                        "SNAPSHOT", "x" };
+        final Random random = new Random( 7 );
+
+        // Both implementations log every lookup (the reference one with the whole version set) and the random
+        // versions are mostly not valid OSGi versions, so only errors are logged here.
+        final Logger logger = (Logger) LoggerFactory.getLogger( Version.class.getPackage().getName() );
+        final Level level = logger.getLevel();
+        logger.setLevel( Level.ERROR );
+
+        try
+        {
+            for ( int round = 0; round < 200; round++ )
+            {
+                final BuildNumberIndex index = new BuildNumberIndex();
+                final Set<String> versions = new HashSet<>();
+
+                for ( int i = 0; i < 50; i++ )
+                {
+                    final String version = randomVersion( random, fragments );
+
+                    assertEquals( version, Version.findHighestMatchingBuildNumber( version, versions ),
+                                  index.findHighestMatchingBuildNumber( version ) );
+                    assertEquals( version, Version.getBuildNumberPadding( 0, versions ),
+                                  index.getBuildNumberPadding( 0 ) );
+
+                    versions.add( version );
+                    index.add( version );
+                }
+            }
+        }
+        finally
+        {
+            logger.setLevel( level );
+        }
+    }
+
+    private static String randomVersion( Random random, String[] fragments )
+    {
+        final StringBuilder sb = new StringBuilder();
+        final int count = 1 + random.nextInt( 8 );
+        for ( int j = 0; j < count; j++ )
+        {
+            sb.append( fragments[random.nextInt( fragments.length )] );
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.commons.lang.reflect.FieldUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.TestUtils;
+import org.commonjava.maven.ext.core.state.RESTState;
+import org.commonjava.maven.ext.core.state.VersioningState;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RESTPipelineTest
+{
+    private ManipulationSession createSession( Properties p ) throws Exception
+    {
+        final ManipulationSession session = TestUtils.createSession( p );
+        session.setState( new VersioningState( p ) );
+        session.setState( new RESTState( session ) );
+        return session;
+    }
+
+    private static Dependency dependency( String groupId, String artifactId, String version )
+    {
+        final Dependency d = new Dependency();
+        d.setGroupId( groupId );
+        d.setArtifactId( artifactId );
+        d.setVersion( version );
+        return d;
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( "restURL", "http://127.0.0.1:1/" );
+
+        assertNull( RESTPipeline.create( createSession( p ) ) );
+    }
+
+    @Test
+    public void testEstablishLiteralGAVs() throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( "restURL", "http://127.0.0.1:1/" );
+        p.setProperty( RESTPipeline.REST_PIPELINE, "true" );
+
+        final ManipulationSession session = createSession( p );
+        final RESTPipeline pipeline = RESTPipeline.create( session );
+
+        final Model model = TestUtils.getDummyModel();
+        final Parent parent = new Parent();
+        parent.setGroupId( "org.commonjava.maven.ext" );
+        parent.setArtifactId( "dummy-parent" );
+        parent.setVersion( "2.0-SNAPSHOT" );
+        model.setParent( parent );
+
+        model.addDependency( dependency( "com.example", "literal", "1.0" ) );
+        model.addDependency( dependency( "com.example", "property", "${example.version}" ) );
+        model.addDependency( dependency( "com.example", "managed", null ) );
+
+        final DependencyManagement dm = new DependencyManagement();
+        dm.addDependency( dependency( "com.example", "managed", "1.1" ) );
+        model.setDependencyManagement( dm );
+
+        final Plugin plugin = new Plugin();
+        plugin.setArtifactId( "maven-compiler-plugin" );
+        plugin.setVersion( "3.1" );
+        model.setBuild( new Build() );
+        model.getBuild().addPlugin( plugin );
+
+        final Profile profile = new Profile();
+        profile.setId( "extra" );
+        profile.addDependency( dependency( "com.example", "profiled", "1.2" ) );
+        model.addProfile( profile );
+
+        final List<ProjectVersionRef> gavs = pipeline.establishGAVs( new Project( new File( "pom.xml" ), model ) );
+        pipeline.finish();
+
+        assertEquals( Arrays.asList( new SimpleProjectVersionRef( "org.commonjava.maven.ext", "dummy-model", "1.0.0" ),
+                                     new SimpleProjectVersionRef( "org.commonjava.maven.ext", "dummy-parent", "2.0" ),
+                                     new SimpleProjectVersionRef( "com.example", "literal", "1.0" ),
+                                     new SimpleProjectVersionRef( "com.example", "managed", "1.1" ),
+                                     new SimpleProjectVersionRef( "org.apache.maven.plugins", "maven-compiler-plugin",
+                                                                  "3.1" ),
+                                     new SimpleProjectVersionRef( "com.example", "profiled", "1.2" ) ), gavs );
+    }
+
+    @Test
+    public void testCancelDiscardsRemainingGAVs() throws Exception
+    {
+        final Properties p = new Properties();
+        p.setProperty( "restURL", "http://127.0.0.1:1/" );
+        p.setProperty( RESTPipeline.REST_PIPELINE, "true" );
+
+        final ManipulationSession session = createSession( p );
+        final RESTPipeline pipeline = RESTPipeline.create( session );
+        final Model model = TestUtils.getDummyModel();
+        model.addDependency( dependency( "com.example", "literal", "1.0" ) );
+
+        pipeline.accept( new Project( new File( "pom.xml" ), model ) );
+        pipeline.cancel();
+
+        assertTrue( ( (Map<?, ?>) FieldUtils.readField( session.getState( RESTState.class ), "pendingPrefetches",
+                                                         true ) ).isEmpty() );
+        assertTrue( ( (ExecutorService) FieldUtils.readField( pipeline, "executor", true ) ).isShutdown() );
+    }
+}
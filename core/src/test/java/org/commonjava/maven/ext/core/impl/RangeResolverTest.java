@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.repository.DefaultMirrorSelector;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.commonjava.maven.ext.common.model.Project;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.StubTransport;
+import org.commonjava.maven.ext.core.state.VersioningState;
+import org.commonjava.maven.ext.io.resolver.GalleyAPIWrapper;
+import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RangeResolverTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testOnlyChangedProjectsAreMarked()
+        throws Exception
+    {
+        final Map<String, byte[]> metadata = new HashMap<>();
+        metadata.put( "org/foo/dep/maven-metadata.xml", metadata( "1.0", "1.1", "1.2", "2.0" ) );
+        metadata.put( "org/foo/plugin/maven-metadata.xml", metadata( "3.0.0", "3.1.1", "3.2.0" ) );
+
+        final Project ranged = project( "ranged" );
+        ranged.getModel().addDependency( dependency( "[1.0,2.0)" ) );
+        ranged.getModel().setBuild( new Build() );
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.foo" );
+        plugin.setArtifactId( "plugin" );
+        plugin.setVersion( "[3.0.0,3.2)" );
+        ranged.getModel().getBuild().addPlugin( plugin );
+
+        final Project sameRange = project( "same-range" );
+        sameRange.getModel().addDependency( dependency( "[1.0,2.0)" ) );
+
+        final Project fixed = project( "fixed" );
+        fixed.getModel().addDependency( dependency( "1.0" ) );
+
+        final Set<Project> changed = newResolver( metadata ).applyChanges( Arrays.asList( ranged, sameRange, fixed ) );
+
+        assertEquals( 2, changed.size() );
+        assertTrue( changed.contains( ranged ) );
+        assertTrue( changed.contains( sameRange ) );
+        assertEquals( "1.2", ranged.getModel().getDependencies().get( 0 ).getVersion() );
+        assertEquals( "3.1.1", plugin.getVersion() );
+        assertEquals( "1.2", sameRange.getModel().getDependencies().get( 0 ).getVersion() );
+        assertEquals( "1.0", fixed.getModel().getDependencies().get( 0 ).getVersion() );
+    }
+
+    @Test
+    public void testNoRanges()
+        throws Exception
+    {
+        final Project fixed = project( "fixed" );
+        fixed.getModel().addDependency( dependency( "1.0" ) );
+
+        assertTrue( newResolver( Collections.emptyMap() ).applyChanges( Collections.singletonList( fixed ) ).isEmpty() );
+    }
+
+    @Test
+    public void testUnresolvableRangeIsLeft()
+        throws Exception
+    {
+        final Project ranged = project( "ranged" );
+        ranged.getModel().addDependency( dependency( "[5.0,)" ) );
+
+        final Map<String, byte[]> metadata = new HashMap<>();
+        metadata.put( "org/foo/dep/maven-metadata.xml", metadata( "1.0" ) );
+
+        assertTrue( newResolver( metadata ).applyChanges( Collections.singletonList( ranged ) ).isEmpty() );
+        assertEquals( "[5.0,)", ranged.getModel().getDependencies().get( 0 ).getVersion() );
+    }
+
+    @Test
+    public void testMixedQualifiersMatchVersionRange()
+        throws Exception
+    {
+        // Maven's version ordering is not transitive when pre-release qualifiers such as "-alpha" or "-SNAPSHOT" are
+        // mixed with ".redhat-1" style ones ; resolution must neither fail nor differ from VersionRange.matchVersion.
+        final String[] qualifiers = { "", ".Final", "-SNAPSHOT", "-alpha", ".0", ".redhat-1", ".redhat-00002" };
+        final String[] specs = { "[1.0,2.0)", "(1.0,2.0]", "[1.5,)", "(,1.5]", "(,1.5)", "[1.2]", "[1.0,1.2),(1.5,)",
+                        "(,1.0],[1.2,1.3]", "[1.0.0]", "(1.2.Final,2)" };
+        final Random random = new Random( 0 );
+
+        for ( int i = 0; i < 50; i++ )
+        {
+            final Set<String> versions = new LinkedHashSet<>();
+            for ( int j = 0; j < 60; j++ )
+            {
+                versions.add( random.nextInt( 3 ) + "." + random.nextInt( 4 ) + ( random.nextBoolean() ? "" : ".0" )
+                                              + qualifiers[random.nextInt( qualifiers.length )] );
+            }
+            final List<ArtifactVersion> available = new ArrayList<>();
+            versions.forEach( v -> available.add( new DefaultArtifactVersion( v ) ) );
+
+            final Map<String, byte[]> metadata = new HashMap<>();
+            metadata.put( "org/foo/dep/maven-metadata.xml", metadata( versions.toArray( new String[0] ) ) );
+
+            final List<Project> projects = new ArrayList<>();
+            for ( String spec : specs )
+            {
+                final Project project = project( "ranged-" + projects.size() );
+                project.getModel().addDependency( dependency( spec ) );
+                projects.add( project );
+            }
+
+            newResolver( metadata ).applyChanges( projects );
+
+            for ( int j = 0; j < specs.length; j++ )
+            {
+                final ArtifactVersion expected = VersionRange.createFromVersionSpec( specs[j] ).matchVersion( available );
+
+                assertEquals( specs[j] + " " + versions, expected == null ? specs[j] : expected.toString(),
+                              projects.get( j ).getModel().getDependencies().get( 0 ).getVersion() );
+            }
+        }
+    }
+
+    private RangeResolver newResolver( final Map<String, byte[]> metadata )
+        throws Exception
+    {
+        final Properties props = new Properties();
+        props.setProperty( VersioningState.VERSION_SUFFIX_SYSPROP.getCurrent(), "redhat-1" );
+
+        final MavenSession mavenSession =
+                        new MavenSession( new DefaultPlexusContainer(), null, new DefaultMavenExecutionRequest().setUserProperties( props ),
+                                          new DefaultMavenExecutionResult() );
+        final ManipulationSession session = new ManipulationSession();
+        session.setMavenSession( mavenSession );
+        session.setState( new VersioningState( props ) );
+
+        final RangeResolver resolver = new RangeResolver( new GalleyAPIWrapper(
+                        new GalleyInfrastructure( session.getTargetDir(), session.getRemoteRepositories(),
+                                                  session.getLocalRepository(), session.getSettings(),
+                                                  session.getActiveProfiles(), new DefaultMirrorSelector(),
+                                                  MavenLocationExpander.EXPANSION_TARGET, new StubTransport( metadata ),
+                                                  temp.newFolder() ) ) );
+        resolver.init( session );
+        return resolver;
+    }
+
+    private Project project( final String artifactId )
+        throws Exception
+    {
+        final Model model = new Model();
+        model.setGroupId( "org.foo" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        return new Project( model );
+    }
+
+    private Dependency dependency( final String version )
+    {
+        final Dependency d = new Dependency();
+        d.setGroupId( "org.foo" );
+        d.setArtifactId( "dep" );
+        d.setVersion( version );
+        return d;
+    }
+
+    private byte[] metadata( final String... versions )
+        throws Exception
+    {
+        final Metadata md = new Metadata();
+        final Versioning v = new Versioning();
+        md.setVersioning( v );
+        v.setVersions( Arrays.asList( versions ) );
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new MetadataXpp3Writer().write( baos, md );
+        return baos.toByteArray();
+    }
+}
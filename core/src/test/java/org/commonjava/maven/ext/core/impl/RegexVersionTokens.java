@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reference decomposition of a version using the regular expressions that {@link Version} previously used. This is
+ * used to verify the {@link VersionTokens} lexer.
+ */
+final class RegexVersionTokens
+{
+    private final static String DELIMITER_REGEX = "[.\\-_]";
+
+    private final static String LEADING_DELIMITER_REGEX = "^" + DELIMITER_REGEX;
+
+    private final static String MMM_REGEX = "(\\d+)(" + DELIMITER_REGEX + "(\\d+)(" + DELIMITER_REGEX + "(\\d+))?)?";
+
+    private final static String SNAPSHOT_SUFFIX = "SNAPSHOT";
+
+    private final static String SNAPSHOT_REGEX = "(.*?)((" + DELIMITER_REGEX + ")?((?i:" + SNAPSHOT_SUFFIX + ")))$";
+
+    private final static Pattern snapshotPattern = Pattern.compile( SNAPSHOT_REGEX );
+
+    private final static String QUALIFIER_REGEX = "(.*?)((" + DELIMITER_REGEX + ")?(\\d+))?((" + DELIMITER_REGEX
+                    + ")?((?i:" + SNAPSHOT_SUFFIX + ")))?$";
+
+    private final static Pattern qualifierPattern = Pattern.compile( QUALIFIER_REGEX );
+
+    private final static String VERSION_REGEX = "(" + MMM_REGEX + ")" + "((" + DELIMITER_REGEX + ")?" + "("
+                    + QUALIFIER_REGEX + "))";
+
+    private final static Pattern versionPattern = Pattern.compile( VERSION_REGEX );
+
+    private RegexVersionTokens()
+    {
+    }
+
+    /**
+     * @param version the version to parse.
+     * @return the decomposition in the same order as {@link #describe(VersionTokens)}
+     */
+    static List<Object> parse( String version )
+    {
+        String mmm = "", major = "", minor = "", micro = "", qualifierWithDelim = version, qualifier, qualifierBase;
+
+        Matcher versionMatcher = versionPattern.matcher( version );
+        Matcher trailingMatcher = qualifierPattern.matcher( version );
+        trailingMatcher.matches();
+
+        if ( versionMatcher.matches() )
+        {
+            mmm = versionMatcher.group( 1 );
+            major = versionMatcher.group( 2 );
+            minor = nonNull( versionMatcher.group( 4 ) );
+            micro = nonNull( versionMatcher.group( 6 ) );
+            qualifierWithDelim = versionMatcher.group( 7 );
+            qualifier = versionMatcher.group( 9 );
+            qualifierBase = versionMatcher.group( 10 );
+        }
+        else
+        {
+            qualifier = version.replaceAll( LEADING_DELIMITER_REGEX, "" );
+            qualifierBase = trailingMatcher.group( 1 );
+        }
+
+        Matcher qualifierMatcher = qualifierPattern.matcher( qualifier );
+        qualifierMatcher.matches();
+
+        Matcher snapshotMatcher = snapshotPattern.matcher( version );
+        boolean snapshot = snapshotMatcher.matches();
+
+        return Arrays.asList( mmm, major, minor, micro, qualifierWithDelim, qualifier, qualifierBase,
+                              nonNull( qualifierMatcher.group( 4 ) ), qualifierMatcher.group( 1 ),
+                              trailingMatcher.replaceFirst( "$1$5" ), trailingMatcher.group( 1 ),
+                              nonNull( trailingMatcher.group( 3 ) ), nonNull( trailingMatcher.group( 4 ) ),
+                              nonNull( trailingMatcher.group( 5 ) ), snapshot,
+                              snapshot ? snapshotMatcher.group( 4 ) : "",
+                              snapshot ? snapshotMatcher.group( 2 ) : "",
+                              snapshot ? snapshotMatcher.group( 1 ) : version );
+    }
+
+    /**
+     * @param tokens the lexed version.
+     * @return the decomposition in the same order as {@link #parse(String)}
+     */
+    static List<Object> describe( VersionTokens tokens )
+    {
+        return Arrays.asList( tokens.getMMM(), tokens.getMajor(), tokens.getMinor(), tokens.getMicro(),
+                              tokens.getQualifierWithDelim(), tokens.getQualifier(), tokens.getQualifierBase(),
+                              tokens.getBuildNumber(), tokens.getQualifierWithoutBuildNumber(),
+                              tokens.getWithoutBuildNumber(), tokens.getTrailingBase(),
+                              tokens.getTrailingBuildNumberDelim(), tokens.getTrailingBuildNumber(),
+                              tokens.getTrailingSnapshotWithDelim(), tokens.isSnapshot(), tokens.getSnapshot(),
+                              tokens.getSnapshotWithDelim(), tokens.getWithoutSnapshot() );
+    }
+
+    private static String nonNull( String value )
+    {
+        return value == null ? "" : value;
+    }
+}
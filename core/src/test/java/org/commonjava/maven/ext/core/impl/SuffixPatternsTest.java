@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.commonjava.maven.ext.core.state.VersioningState;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.regex.Matcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SuffixPatternsTest
+{
+    @Test
+    public void testPatternsAreShared()
+    {
+        assertSame( SuffixPatterns.getQualifierSuffixPattern( "redhat" ),
+                    SuffixPatterns.getQualifierSuffixPattern( "redhat" ) );
+        assertSame( SuffixPatterns.getAlternateSuffixPattern( "redhat" ),
+                    SuffixPatterns.getAlternateSuffixPattern( "redhat" ) );
+    }
+
+    @Test
+    public void testAlternateSuffixPattern()
+    {
+        Matcher m = SuffixPatterns.getAlternateSuffixPattern( "redhat" ).matcher( "1.0.0.redhat-10" );
+
+        assertTrue( m.matches() );
+        assertEquals( "1.0.0", m.group( 1 ) );
+    }
+
+    @Test
+    public void testStateUsesRegistry()
+    {
+        Properties p = new Properties();
+        p.setProperty( VersioningState.VERSION_SUFFIX_ALT, "redhat,jboss" );
+        p.setProperty( "versionIncrementalSuffix", "temporary-redhat" );
+        VersioningState state = new VersioningState( p );
+
+        assertEquals( 2, state.getSuffixAlternativePatterns().size() );
+        assertSame( SuffixPatterns.getAlternateSuffixPattern( "jboss" ), state.getSuffixAlternativePatterns().get( 1 ) );
+    }
+}
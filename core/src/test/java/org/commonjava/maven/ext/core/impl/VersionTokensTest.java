@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.impl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VersionTokensTest
+{
+    @Test
+    public void testDecomposition()
+    {
+        VersionTokens tokens = VersionTokens.parse( "1.2.3.Beta1-rebuild-4-SNAPSHOT" );
+
+        assertEquals( "1.2.3", tokens.getMMM() );
+        assertEquals( "1", tokens.getMajor() );
+        assertEquals( "2", tokens.getMinor() );
+        assertEquals( "3", tokens.getMicro() );
+        assertEquals( ".Beta1-rebuild-4-SNAPSHOT", tokens.getQualifierWithDelim() );
+        assertEquals( "Beta1-rebuild-4-SNAPSHOT", tokens.getQualifier() );
+        assertEquals( "Beta1-rebuild", tokens.getQualifierBase() );
+        assertEquals( "4", tokens.getBuildNumber() );
+        assertTrue( tokens.isSnapshot() );
+        assertEquals( "-SNAPSHOT", tokens.getSnapshotWithDelim() );
+        assertEquals( "1.2.3.Beta1-rebuild-4", tokens.getWithoutSnapshot() );
+        assertEquals( "1.2.3.Beta1-rebuild-SNAPSHOT", tokens.getWithoutBuildNumber() );
+    }
+
+    @Test
+    public void testNoMMM()
+    {
+        VersionTokens tokens = VersionTokens.parse( "-GA" );
+
+        assertEquals( "", tokens.getMMM() );
+        assertEquals( "GA", tokens.getQualifier() );
+        assertEquals( "-GA", tokens.getQualifierWithDelim() );
+        assertFalse( tokens.hasBuildNumber() );
+        assertFalse( tokens.isSnapshot() );
+        assertEquals( "", tokens.getSnapshot() );
+    }
+
+    @Test
+    public void testMajorOnly()
+    {
+        VersionTokens tokens = VersionTokens.parse( "3" );
+
+        assertEquals( "3", tokens.getMMM() );
+        assertEquals( "", tokens.getMinor() );
+        assertEquals( "", tokens.getMicro() );
+        assertFalse( tokens.hasQualifier() );
+    }
+
+    @Test
+    public void testDifferentialCorpus()
+    {
+        final String[] versions = { "1", "1.0", "1.0.0", "1.0.0.0", "1.2.3.4.5", "1.0-SNAPSHOT", "1.0.0.snapshot",
+                        "1.0SNAPSHOT", "1-SNAPSHOT", "SNAPSHOT", "-SNAPSHOT", "1.0.0.Beta1", "1.0.0.Beta10-rebuild-1",
+                        "1.0.0.GA-rebuild1", "1.0.0.Final-Beta-1", "1.0.0.redhat-00001", "1.0.0.redhat-00001-SNAPSHOT",
+                        "1.0_Betafoo", "jboss-1-GA", "1.2-jboss-1", "1.1.beta-2", "${project.version}",
+                        "${project.version}-foo", "1.0.${micro}", "1..2", "1.2.", ".1", "-", "", "1.0-redhat-1-2",
+                        "2.6.0-cdh5.4.2", "1.0.0-Final.redhat-1", "1.0.0.GA_redhat_3", "3.0.0.Alpha1-20140101.123456-1",
+                        "1.0.0.redhat-1.SNAPSHOT", "1.0.0.redhat_1_snapshot", "11.22.33.44-foo-55-Snapshot" };
+
+        for ( String version : versions )
+        {
+            assertEquals( version, RegexVersionTokens.parse( version ),
+                          RegexVersionTokens.describe( VersionTokens.lex( version ) ) );
+        }
+    }
+
+    @Test
+    public void testDifferentialFuzz()
+    {
+        final String[] fragments = { "0", "1", "00", "10", "123", ".", "-", "_", "SNAPSHOT", "snapshot", "SnapShot",
+                        "redhat", "Final", "GA", "Beta1", "x", "${", "}", "+", " " };
+        final Random random = new Random( 42 );
+
+        for ( int i = 0; i < 50000; i++ )
+        {
+            final StringBuilder sb = new StringBuilder();
+            final int count = random.nextInt( 9 );
+            for ( int j = 0; j < count; j++ )
+            {
+                sb.append( fragments[random.nextInt( fragments.length )] );
+            }
+            final String version = sb.toString();
+
+            assertEquals( version, RegexVersionTokens.parse( version ),
+                          RegexVersionTokens.describe( VersionTokens.lex( version ) ) );
+        }
+    }
+
+    @Test
+    public void testCached()
+    {
+        assertSame( VersionTokens.parse( "1.0.0.redhat-1" ), VersionTokens.parse( "1.0.0.redhat-1" ) );
+    }
+}
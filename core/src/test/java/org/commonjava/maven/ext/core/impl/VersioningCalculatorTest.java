@@ -52,15 +52,18 @@ import org.junit.rules.TemporaryFolder;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 public class VersioningCalculatorTest
@@ -863,6 +866,58 @@ public class VersioningCalculatorTest
         assertThat( result.get( new SimpleProjectVersionRef( GROUP_ID, a2, v + os ) ), equalTo( v + "-" + ns ) );
     }
 
+    @Test
+    public void incrementExistingSerialSuffix_ManyProjects_PrefetchedRepositoryMetadata()
+        throws Exception
+    {
+        final VersioningState state = calculateManyProjects( "4" );
+
+        assertEquals( 20, state.getMetadataVersions().size() );
+    }
+
+    @Test
+    public void incrementExistingSerialSuffix_ManyProjects_PrefetchDisabled()
+        throws Exception
+    {
+        final VersioningState state = calculateManyProjects( "0" );
+
+        assertNull( state.getMetadataVersions() );
+    }
+
+    private VersioningState calculateManyProjects( final String concurrency )
+        throws Exception
+    {
+        final String v = "1.2.0.GA";
+        final List<Project> projects = new ArrayList<>();
+        final Map<ProjectRef, String[]> versionMap = new HashMap<>();
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            final Model m = new Model();
+            m.setGroupId( GROUP_ID );
+            m.setArtifactId( ARTIFACT_ID + "-" + i );
+            m.setVersion( v );
+            projects.add( new Project( m ) );
+
+            versionMap.put( new SimpleProjectRef( GROUP_ID, m.getArtifactId() ), new String[] { v + "-foo-" + i } );
+        }
+
+        final Properties props = new Properties();
+        props.setProperty( VersioningState.INCREMENT_SERIAL_SUFFIX_SYSPROP.getCurrent(), "foo-0" );
+        props.setProperty( VersioningState.VERSION_METADATA_CONCURRENCY, concurrency );
+
+        final VersioningState state = setupSession( props, versionMap );
+        final Map<ProjectVersionRef, String> result = modder.calculateVersioningChanges( projects, session );
+
+        // Each project reads its own metadata and the reactor is then synced to the highest build number.
+        assertEquals( 20, result.size() );
+        for ( final Project project : projects )
+        {
+            assertThat( result.get( project.getKey() ), equalTo( v + "-foo-20" ) );
+        }
+        return state;
+    }
+
     @Test
     public void incrementExistingSerialSuffix_UsingRepositoryMetadataWithIrrelevantVersions()
         throws Exception
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.io;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.StubTransport;
+import org.commonjava.maven.ext.io.resolver.GalleyInfrastructure;
+import org.commonjava.maven.ext.io.resolver.MavenLocationExpander;
+import org.commonjava.maven.galley.model.Transfer;
+import org.apache.maven.repository.DefaultMirrorSelector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetadataRetrievalTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testFailedRetrievalsAreReported()
+        throws Exception
+    {
+        final ProjectRef good = new SimpleProjectRef( "org.foo", "good" );
+        final ProjectRef bad = new SimpleProjectRef( "org.foo", "bad" );
+        final ProjectRef missing = new SimpleProjectRef( "org.foo", "missing" );
+
+        final Map<String, byte[]> metadata = new HashMap<>();
+        metadata.put( "org/foo/good/maven-metadata.xml",
+                      "<metadata><versioning><versions><version>1.0</version></versions></versioning></metadata>"
+                                      .getBytes( StandardCharsets.UTF_8 ) );
+
+        final ManipulationSession session = new ManipulationSession();
+        final GalleyInfrastructure infra =
+                        new GalleyInfrastructure( session.getTargetDir(), session.getRemoteRepositories(),
+                                                  session.getLocalRepository(), session.getSettings(),
+                                                  session.getActiveProfiles(), new DefaultMirrorSelector(),
+                                                  MavenLocationExpander.EXPANSION_TARGET,
+                                                  new StubTransport( metadata, Collections.singleton(
+                                                                  "org/foo/bad/maven-metadata.xml" ) ),
+                                                  temp.newFolder() );
+
+        final Set<ProjectRef> failed = new HashSet<>();
+        final Map<ProjectRef, List<Transfer>> result =
+                        infra.retrieveAllMetadata( Collections.singletonList( MavenLocationExpander.EXPANSION_TARGET ),
+                                                   Arrays.asList( good, bad, missing ), failed );
+
+        assertEquals( Collections.singleton( bad ), failed );
+        assertTrue( result.containsKey( good ) );
+        assertEquals( 1, result.size() );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.state;
+
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.commonjava.maven.ext.core.util.DependencyOverride;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyStateTest
+{
+    @Test
+    public void testCompiledOverrides() throws ManipulationException
+    {
+        Properties p = new Properties();
+        p.setProperty( "dependencyExclusion.junit:junit@org.foo:bar", "4.1" );
+        p.setProperty( "dependencyExclusion.log4j:log4j@org.foo:*", "" );
+        p.setProperty( "dependencyOverride.commons-lang:commons-lang@*", "2.6" );
+        p.setProperty( "dependencyExclusion.notAnOverride", "1.0" );
+
+        final DependencyState state = new DependencyState( p );
+
+        List<DependencyOverride> bar = state.getModuleOverrides( SimpleProjectRef.parse( "org.foo:bar" ) );
+        assertEquals( 2, bar.size() );
+        assertEquals( "junit:junit@org.foo:bar", bar.get( 0 ).getKey() );
+        assertEquals( "log4j:log4j@org.foo:*", bar.get( 1 ).getKey() );
+
+        List<DependencyOverride> baz = state.getModuleOverrides( SimpleProjectRef.parse( "org.foo:baz" ) );
+        assertEquals( 1, baz.size() );
+        assertTrue( baz.get( 0 ).getValue().isEmpty() );
+
+        assertTrue( state.getModuleOverrides( SimpleProjectRef.parse( "org.other:bar" ) ).isEmpty() );
+
+        assertEquals( 1, state.getGlobalOverrides().size() );
+        assertEquals( "2.6", state.getGlobalOverrides().get( 0 ).getValue() );
+    }
+
+    @Test
+    public void testUpdateReplacesOverride() throws ManipulationException
+    {
+        Properties p = new Properties();
+        p.setProperty( "dependencyOverride.commons-lang:commons-lang@*", "2.6" );
+
+        final DependencyState state = new DependencyState( p );
+        state.updateExclusions( "commons-lang:commons-lang@*", "2.7" );
+        state.addDependencyOverrides( Collections.singletonList(
+                        DependencyOverride.parse( "junit:junit@org.foo:bar", "4.1" ) ) );
+
+        assertEquals( 1, state.getGlobalOverrides().size() );
+        assertEquals( "2.7", state.getGlobalOverrides().get( 0 ).getValue() );
+        assertEquals( "2.7", state.getDependencyExclusions().get( "commons-lang:commons-lang@*" ) );
+        assertEquals( 1, state.getModuleOverrides( SimpleProjectRef.parse( "org.foo:bar" ) ).size() );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testInvalidOverride() throws ManipulationException
+    {
+        Properties p = new Properties();
+        p.setProperty( "dependencyExclusion.junit@*", "" );
+
+        new DependencyState( p );
+    }
+}
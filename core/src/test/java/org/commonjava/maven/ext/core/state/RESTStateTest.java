@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.state;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.core.ManipulationSession;
+import org.commonjava.maven.ext.core.fixture.TestUtils;
+import org.commonjava.maven.ext.io.rest.exception.RestException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class RESTStateTest
+{
+    private static final ProjectVersionRef EXAMPLE = new SimpleProjectVersionRef( "com.example", "example", "1.0" );
+
+    private static final ProjectVersionRef MISSING = new SimpleProjectVersionRef( "com.example", "example", "1.1" );
+
+    private static final ProjectRef PROJECT = new SimpleProjectRef( "com.example", "example" );
+
+    private RESTState state;
+
+    @Before
+    public void before() throws Exception
+    {
+        // Nothing listens here, so any lookup that is not served from the prefetched results fails.
+        final Properties p = new Properties();
+        p.setProperty( "restURL", "http://127.0.0.1:1/" );
+        p.setProperty( "restRetryMax", "0" );
+
+        final ManipulationSession session = TestUtils.createSession( p );
+        session.setState( new VersioningState( p ) );
+        state = new RESTState( session );
+    }
+
+    @Test
+    public void testPrefetchedVersionsAreNotSentAgain()
+    {
+        state.setPrefetchedVersions( Arrays.asList( EXAMPLE, MISSING ),
+                                     Collections.singletonMap( EXAMPLE, "1.0.redhat-1" ) );
+
+        final Map<ProjectVersionRef, String> result = state.translateVersions( Arrays.asList( EXAMPLE, MISSING ) );
+
+        assertEquals( "1.0.redhat-1", result.get( EXAMPLE ) );
+        assertFalse( result.containsKey( MISSING ) );
+    }
+
+    @Test( expected = RestException.class )
+    public void testRemainderIsSent()
+    {
+        state.setPrefetchedVersions( Collections.singletonList( EXAMPLE ),
+                                     Collections.singletonMap( EXAMPLE, "1.0.redhat-1" ) );
+
+        state.translateVersions( Arrays.asList( EXAMPLE, MISSING ) );
+    }
+
+    @Test
+    public void testPendingPrefetchIsJoined()
+    {
+        state.addPrefetchedVersions( Collections.singletonList( EXAMPLE ), CompletableFuture.completedFuture(
+                        Collections.singletonMap( EXAMPLE, "1.0.redhat-1" ) ) );
+
+        assertEquals( "1.0.redhat-1", state.translateVersions( Collections.singletonList( EXAMPLE ) ).get( EXAMPLE ) );
+    }
+
+    @Test( expected = RestException.class )
+    public void testFailedPrefetchIsSentAgain()
+    {
+        final CompletableFuture<Map<ProjectVersionRef, String>> failed = new CompletableFuture<>();
+        failed.completeExceptionally( new RestException( "Background lookup failed" ) );
+        state.addPrefetchedVersions( Collections.singletonList( EXAMPLE ), failed );
+
+        state.translateVersions( Collections.singletonList( EXAMPLE ) );
+    }
+
+    @Test
+    public void testPrefetchedBlacklist() throws Exception
+    {
+        final List<ProjectVersionRef> blacklist = Collections.singletonList( EXAMPLE );
+        state.setPrefetchedBlacklist( PROJECT, CompletableFuture.completedFuture( blacklist ) );
+
+        assertEquals( blacklist, state.findBlacklisted( PROJECT ) );
+    }
+
+    @Test( expected = RestException.class )
+    public void testPrefetchedBlacklistFailure() throws Exception
+    {
+        final CompletableFuture<List<ProjectVersionRef>> failed = new CompletableFuture<>();
+        failed.completeExceptionally( new RestException( "Blacklist lookup failed" ) );
+        state.setPrefetchedBlacklist( PROJECT, failed );
+
+        state.findBlacklisted( PROJECT );
+    }
+}
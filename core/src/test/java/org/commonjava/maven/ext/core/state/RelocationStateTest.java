@@ -15,13 +15,17 @@
  */
 package org.commonjava.maven.ext.core.state;
 
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Properties;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class RelocationStateTest
 {
@@ -107,4 +111,40 @@ public class RelocationStateTest
 
         assertThat( state.isEnabled(), equalTo( true ) );
     }
+
+    @Test
+    public void testRelocationChain()
+                    throws ManipulationException
+    {
+        final Properties p = new Properties();
+        p.setProperty( RelocationState.DEPENDENCY_RELOCATIONS + "oldGroupId:@newGroupId:", "" );
+        p.setProperty( RelocationState.DEPENDENCY_RELOCATIONS + "newGroupId:oldArtifactId@finalGroupId:newArtifactId", "1.10" );
+
+        final RelocationState state = new RelocationState( p );
+
+        List<ProjectVersionRef> chain = state.getRelocationChain( "oldGroupId", "oldArtifactId" );
+        assertThat( chain.size(), equalTo( 2 ) );
+        assertThat( chain.get( 0 ).toString(), equalTo( "newGroupId:oldArtifactId:*" ) );
+        assertThat( chain.get( 1 ).toString(), equalTo( "finalGroupId:newArtifactId:1.10" ) );
+        assertThat( state.getRelocationChain( "oldGroupId", "oldArtifactId" ), sameInstance( chain ) );
+
+        chain = state.getRelocationChain( "oldGroupId", "anotherArtifactId" );
+        assertThat( chain.size(), equalTo( 1 ) );
+        assertThat( chain.get( 0 ).toString(), equalTo( "newGroupId:anotherArtifactId:*" ) );
+
+        assertTrue( state.getRelocationChain( "otherGroupId", "oldArtifactId" ).isEmpty() );
+    }
+
+    @Test (expected = ManipulationException.class)
+    public void testRelocationCycle()
+                    throws ManipulationException
+    {
+        final Properties p = new Properties();
+        p.setProperty( RelocationState.DEPENDENCY_RELOCATIONS + "oldGroupId:@newGroupId:", "" );
+        p.setProperty( RelocationState.DEPENDENCY_RELOCATIONS + "newGroupId:@oldGroupId:", "" );
+
+        final RelocationState state = new RelocationState( p );
+
+        state.getRelocationChain( "oldGroupId", "oldArtifactId" );
+    }
 }
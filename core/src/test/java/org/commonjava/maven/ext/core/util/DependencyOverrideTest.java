@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.apache.commons.io.FileUtils;
+import org.commonjava.maven.ext.common.ManipulationException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyOverrideTest
+{
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testParseModule() throws Exception
+    {
+        DependencyOverride o = DependencyOverride.parse( "org.foo:bar@org.module:*", "1.0" );
+
+        assertEquals( "org.foo:bar", o.getArtifact().toString() );
+        assertEquals( "org.module:*", o.getModule().toString() );
+        assertFalse( o.isAllModules() );
+        assertEquals( "1.0", o.getValue() );
+        assertEquals( "org.foo:bar@org.module:*", o.getKey() );
+    }
+
+    @Test
+    public void testParseAllModules() throws Exception
+    {
+        DependencyOverride o = DependencyOverride.parse( "org.foo:*@*", null );
+
+        assertTrue( o.isAllModules() );
+        assertNull( o.getModule() );
+        assertEquals( "", o.getValue() );
+        assertEquals( "org.foo:*@*", o.getKey() );
+    }
+
+    @Test( expected = ManipulationException.class )
+    public void testParseInvalid() throws Exception
+    {
+        DependencyOverride.parse( "org.foo:bar", "1.0" );
+    }
+
+    @Test
+    public void testParseFile() throws Exception
+    {
+        File f = temp.newFile();
+        FileUtils.writeStringToFile( f, "# comment\norg.foo:bar@*=1.0\n\norg.foo:qux=2.0\norg.foo:baz@org.module:child=\n",
+                                     Charset.defaultCharset() );
+
+        List<DependencyOverride> overrides = DependencyOverride.parseFile( f );
+
+        assertEquals( 2, overrides.size() );
+        assertEquals( "org.foo:bar@*=1.0", overrides.get( 0 ).toString() );
+        assertEquals( "org.foo:baz@org.module:child=", overrides.get( 1 ).toString() );
+    }
+
+    @Test
+    public void testParseFileInvalidLine() throws Exception
+    {
+        File f = temp.newFile();
+        FileUtils.writeStringToFile( f, "org.foo:bar@*=1.0\norg.foo:baz\n", Charset.defaultCharset() );
+
+        try
+        {
+            DependencyOverride.parseFile( f );
+        }
+        catch ( ManipulationException e )
+        {
+            assertTrue( e.getMessage().contains( "line 2" ) );
+            return;
+        }
+        throw new AssertionError( "Expected exception" );
+    }
+}
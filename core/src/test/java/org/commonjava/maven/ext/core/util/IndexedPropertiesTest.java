@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedPropertiesTest
+{
+    private Properties createProperties()
+    {
+        final Properties p = new Properties();
+        p.setProperty( "dependencyOverride.junit:junit@*", "4.1" );
+        p.setProperty( "dependencyOverride.org.foo:bar@*", "true" );
+        p.setProperty( "dependencyExclusion.org.foo:baz@*", "" );
+        p.setProperty( "dependencyManagement", "org.foo:bom:1.0" );
+        p.setProperty( "PATH", "/usr/bin" );
+        return p;
+    }
+
+    @Test
+    public void testPrefixMatchesLinearScan()
+    {
+        final Properties live = createProperties();
+        final IndexedProperties indexed = new IndexedProperties( live );
+
+        for ( final String prefix : new String[] { "dependencyOverride.", "dependencyExclusion.", "dependency",
+                        "dependencyManagement", "missing.", "" } )
+        {
+            assertEquals( PropertiesUtils.getPropertiesByPrefix( live, prefix ),
+                          PropertiesUtils.getPropertiesByPrefix( indexed, prefix ) );
+        }
+    }
+
+    @Test
+    public void testTrueWorkaround()
+    {
+        final Map<String, String> result =
+                        PropertiesUtils.getPropertiesByPrefix( new IndexedProperties( createProperties() ),
+                                                               "dependencyOverride." );
+
+        assertEquals( 2, result.size() );
+        assertEquals( "4.1", result.get( "junit:junit@*" ) );
+        assertTrue( result.get( "org.foo:bar@*" ).isEmpty() );
+    }
+
+    @Test
+    public void testSnapshotIsIndependent()
+    {
+        final Properties live = createProperties();
+        final IndexedProperties indexed = new IndexedProperties( live );
+
+        live.setProperty( "dependencyOverride.org.new:new@*", "1.0" );
+
+        assertEquals( 2, indexed.getByPrefix( "dependencyOverride." ).size() );
+        assertEquals( "/usr/bin", indexed.getProperty( "PATH" ) );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testImmutable()
+    {
+        new IndexedProperties( createProperties() ).setProperty( "foo", "bar" );
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.core.util;
+
+import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectRefMatcherTest
+{
+    @Test
+    public void testExactMatch()
+    {
+        ProjectRefMatcher matcher = new ProjectRefMatcher( IdUtils.parseGAs( "org.foo:bar,org.foo:baz" ) );
+
+        assertEquals( 2, matcher.size() );
+        assertTrue( matcher.matches( SimpleProjectRef.parse( "org.foo:bar" ) ) );
+        assertTrue( matcher.matches( SimpleArtifactRef.parse( "org.foo:baz:1.0:jar" ) ) );
+        assertFalse( matcher.matches( SimpleProjectRef.parse( "org.foo:other" ) ) );
+        assertFalse( matcher.matches( SimpleProjectRef.parse( "org.other:bar" ) ) );
+    }
+
+    @Test
+    public void testWildcardMatch()
+    {
+        ProjectRefMatcher matcher = new ProjectRefMatcher( IdUtils.parseGAs( "org.foo:*,*:commons-io" ) );
+
+        assertTrue( matcher.matches( "org.foo", "anything" ) );
+        assertTrue( matcher.matches( "commons-io", "commons-io" ) );
+        assertFalse( matcher.matches( "org.bar", "anything" ) );
+    }
+
+    @Test
+    public void testCompleteWildcardMatch()
+    {
+        ProjectRefMatcher matcher = new ProjectRefMatcher( IdUtils.parseGAs( "*:*" ) );
+
+        assertTrue( matcher.matches( "org.bar", "anything" ) );
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        ProjectRefMatcher matcher = new ProjectRefMatcher( null );
+
+        assertTrue( matcher.isEmpty() );
+        assertFalse( matcher.matches( "org.bar", "anything" ) );
+    }
+}
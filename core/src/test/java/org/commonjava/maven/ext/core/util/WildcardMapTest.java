@@ -20,13 +20,16 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.ext.common.ManipulationUncheckedException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -137,4 +140,30 @@ public class WildcardMapTest
                 containsString("Emptying map with keys [artifact] as replacing with wildcard mapping org.group:*"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetWildcardOverridesExplicit() throws Exception
+    {
+        map.put( SimpleProjectRef.parse( "org.group:artifact" ), "1.1" );
+        map.put( SimpleProjectRef.parse( "org.group:*" ), "1.2" );
+        map.put( SimpleProjectRef.parse( "org.other:artifact" ), "1.3" );
+
+        assertEquals( "1.2", map.get( SimpleProjectRef.parse( "org.group:artifact" ) ) );
+        assertEquals( "1.2", map.get( SimpleProjectRef.parse( "org.group:another" ) ) );
+        assertEquals( "1.3", map.get( SimpleProjectRef.parse( "org.other:artifact" ) ) );
+        assertNull( map.get( SimpleProjectRef.parse( "org.other:another" ) ) );
+        assertEquals( 2, map.size() );
+    }
+
+    @Test(expected = ManipulationUncheckedException.class)
+    public void testPutFrozen() throws Exception
+    {
+        map.put( SimpleProjectRef.parse( "org.group:artifact" ), "1.1" );
+        map.freeze();
+
+        assertTrue( map.isFrozen() );
+        assertEquals( "1.1", map.get( SimpleProjectRef.parse( "org.group:artifact" ) ) );
+
+        map.put( SimpleProjectRef.parse( "org.group:another" ), "1.2" );
+    }
+}
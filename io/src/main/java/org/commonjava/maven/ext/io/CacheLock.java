@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+
+/**
+ * Lock on a cache directory shared between processes, held through a lock file within the directory. A shared lock
+ * is used for reading and an exclusive one for writing.
+ */
+public final class CacheLock
+                implements Closeable
+{
+    /**
+     * The name of the lock file within the cache directory.
+     */
+    public static final String LOCK_FILE = ".lock";
+
+    private final RandomAccessFile file;
+
+    private final FileLock lock;
+
+    private CacheLock( final RandomAccessFile file, final FileLock lock )
+    {
+        this.file = file;
+        this.lock = lock;
+    }
+
+    /**
+     * Blocks until the lock is acquired, creating the directory if required.
+     *
+     * @param directory the cache directory
+     * @param shared whether a shared (read) lock is sufficient
+     * @return the lock, to be closed once the cache has been accessed.
+     * @throws IOException if the lock file cannot be created or locked.
+     */
+    public static CacheLock lock( final File directory, final boolean shared )
+                    throws IOException
+    {
+        Files.createDirectories( directory.toPath() );
+
+        final RandomAccessFile file = new RandomAccessFile( new File( directory, LOCK_FILE ), "rw" );
+        try
+        {
+            return new CacheLock( file, file.getChannel().lock( 0, Long.MAX_VALUE, shared ) );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close()
+                    throws IOException
+    {
+        try
+        {
+            lock.release();
+        }
+        finally
+        {
+            file.close();
+        }
+    }
+}
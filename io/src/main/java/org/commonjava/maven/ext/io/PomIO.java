@@ -55,6 +55,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Utility class used to read raw models for POMs, and rewrite any project POMs that were changed.
@@ -71,9 +72,23 @@ public class PomIO
 
 
     public List<Project> parseProject (final File pom) throws ManipulationException
+    {
+        return parseProject( pom, null );
+    }
+
+    /**
+     * Parses the POM hierarchy, passing each project to the listener as soon as it has been read. Note that the
+     * inheritance information of the projects is only filled out once all of them have been read.
+     *
+     * @param pom the top level pom file.
+     * @param listener notified of each project as it is read ; may be null.
+     * @return a collection of Projects
+     * @throws ManipulationException if an error occurs.
+     */
+    public List<Project> parseProject( final File pom, final Consumer<Project> listener ) throws ManipulationException
     {
         final List<PomPeek> peeked = peekAtPomHierarchy(pom);
-        return readModelsForManipulation( pom.getAbsoluteFile(), peeked );
+        return readModelsForManipulation( pom.getAbsoluteFile(), peeked, listener );
     }
 
     /**
@@ -82,10 +97,12 @@ public class PomIO
      *
      * @param executionRoot the top level pom file.
      * @param peeked a collection of poms resolved from the top level file.
+     * @param listener notified of each project as it is read ; may be null.
      * @return a collection of Projects
      * @throws ManipulationException if an error occurs.
      */
-    private List<Project> readModelsForManipulation( File executionRoot, final List<PomPeek> peeked )
+    private List<Project> readModelsForManipulation( File executionRoot, final List<PomPeek> peeked,
+                                                     final Consumer<Project> listener )
         throws ManipulationException
     {
         final List<Project> projects = new ArrayList<>();
@@ -144,6 +161,11 @@ public class PomIO
             }
 
             projects.add( project );
+
+            if ( listener != null )
+            {
+                listener.accept( project );
+            }
         }
 
         // Fill out inheritance info for every project we have created.
@@ -37,8 +37,13 @@ import javax.inject.Singleton;
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Wraps the galley-maven APIs with the plumbing necessary to resolve using the repositories defined for the maven build.
@@ -98,6 +103,79 @@ public class GalleyAPIWrapper
                     .getMetadata( ref, MAVEN_REPOS );
     }
 
+    /**
+     * Returns the versions listed in the metadata for the given project across all repositories, using the
+     * {@link MetadataVersionCache} if one has been configured.
+     *
+     * @param ref the project to read metadata for
+     * @return the distinct versions found, in repository order.
+     * @throws GalleyMavenException if an error occurs.
+     */
+    public List<String> getMetadataVersions( final ProjectRef ref )
+        throws GalleyMavenException
+    {
+        return getMetadataVersions( Collections.singleton( ref ) ).get( ref );
+    }
+
+    /**
+     * Returns the versions listed in the metadata for each of the given projects, downloading any that are not
+     * cached concurrently. The metadata files are streamed by {@link MetadataVersionReader} rather than parsed
+     * into a {@link MavenMetadataView}.
+     *
+     * @param refs the projects to read metadata for
+     * @return the versions for each project ; projects with no metadata have an empty list.
+     * @throws GalleyMavenException if an error occurs.
+     */
+    public Map<ProjectRef, List<String>> getMetadataVersions( final Collection<? extends ProjectRef> refs )
+        throws GalleyMavenException
+    {
+        final MetadataVersionCache cache = infra.getMetadataCache();
+        final Map<ProjectRef, List<String>> result = new LinkedHashMap<>();
+        final List<ProjectRef> uncached = new ArrayList<>();
+
+        for ( final ProjectRef ref : refs )
+        {
+            final List<String> versions = cache == null ? null : cache.get( ref );
+            if ( versions == null )
+            {
+                uncached.add( ref );
+            }
+            else
+            {
+                result.put( ref, versions );
+            }
+        }
+
+        if ( !uncached.isEmpty() )
+        {
+            final Map<ProjectRef, List<Transfer>> transfers;
+            final Set<ProjectRef> failed = new HashSet<>();
+            try
+            {
+                transfers = infra.retrieveAllMetadata( MAVEN_REPOS, uncached, failed );
+            }
+            catch ( final TransferException e )
+            {
+                throw new GalleyMavenException( "Failed to resolve metadata for: {}. Reason: {}", e, uncached,
+                                                e.getMessage() );
+            }
+
+            for ( final ProjectRef ref : uncached )
+            {
+                final List<String> versions =
+                                MetadataVersionReader.readVersions( transfers.getOrDefault( ref, Collections.emptyList() ) );
+
+                // A partial list is still used by this build, but is not cached for others.
+                if ( cache != null && !failed.contains( ref ) )
+                {
+                    cache.put( ref, versions );
+                }
+                result.put( ref, versions );
+            }
+        }
+        return result;
+    }
+
     public Transfer resolveArtifact( final ArtifactRef asPomArtifact )
         throws TransferException
     {
@@ -57,6 +57,7 @@ import org.commonjava.maven.galley.maven.spi.version.VersionResolver;
 import org.commonjava.maven.galley.model.ConcreteResource;
 import org.commonjava.maven.galley.model.Location;
 import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.model.TransferBatch;
 import org.commonjava.maven.galley.model.VirtualResource;
 import org.commonjava.maven.galley.nfc.MemoryNotFoundCache;
 import org.commonjava.maven.galley.spi.cache.CacheProvider;
@@ -68,6 +69,8 @@ import org.commonjava.maven.galley.spi.transport.TransportManager;
 import org.commonjava.maven.galley.transport.TransportManagerImpl;
 import org.commonjava.maven.galley.transport.htcli.HttpClientTransport;
 import org.commonjava.maven.galley.transport.htcli.HttpImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -75,8 +78,12 @@ import javax.inject.Singleton;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -98,6 +105,8 @@ public class GalleyInfrastructure
      */
     private static final String LOCAL_REPO_SCANNING_PROP = "manipulator.local.repo.scanning";
 
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
     private MirrorSelector mirrorSelector;
 
     private MavenPomReader pomReader;
@@ -112,6 +121,14 @@ public class GalleyInfrastructure
 
     private ExecutorService executor;
 
+    private LocationExpander locationExpander;
+
+    private TransferManager transfers;
+
+    private MetadataVersionCache metadataCache;
+
+    private SharedCacheProvider sharedCache;
+
     private MavenSessionHandler sessionHandler;
 
     public File getCacheDir()
@@ -159,7 +176,6 @@ public class GalleyInfrastructure
                        final Transport customTransport, File cacheDir_ )
         throws ManipulationException
     {
-        LocationExpander locationExpander;
         try
         {
             final List<Location> custom =
@@ -198,7 +214,11 @@ public class GalleyInfrastructure
 
         final FileEventManager fileEvents = new NoOpFileEventManager();
 
-        final CacheProvider cache =
+        // The cache directory is still used for ad-hoc downloads when the Galley cache is shared between builds.
+        sharedCache = sessionHandler == null ? null :
+                        SharedCacheProvider.create( sessionHandler.getUserProperties(), fileEvents );
+
+        final CacheProvider cache = sharedCache != null ? sharedCache :
             new FileCacheProvider( cacheDir, new HashedLocationPathGenerator(), fileEvents, new NoOpTransferDecorator() );
 
         final NotFoundCache nfc = new MemoryNotFoundCache();
@@ -206,7 +226,7 @@ public class GalleyInfrastructure
 
         final TransportManagerConfig config = new TransportManagerConfig(  );
 
-        final TransferManager transfers =
+        transfers =
             new TransferManagerImpl( transports, cache, nfc, fileEvents, new DownloadHandler( nfc, config, executor ),
                                      new UploadHandler( nfc, config, executor ), new ListingHandler( nfc ),
                                      new ExistenceHandler( nfc ),
@@ -288,6 +308,91 @@ public class GalleyInfrastructure
             new MavenPomReader( xml, locationExpander, artifactManager, xpaths, pluginDefaults, pluginImplications );
 
         metadataReader = new MavenMetadataReader( xml, locationExpander, metadataManager, xpaths );
+
+        if ( sessionHandler != null )
+        {
+            try
+            {
+                metadataCache = MetadataVersionCache.create( sessionHandler.getUserProperties(),
+                                                             locationExpander.expand( MavenLocationExpander.EXPANSION_TARGET ) );
+            }
+            catch ( final TransferException e )
+            {
+                throw new ManipulationException( "Failed to expand repository locations for metadata cache", e );
+            }
+        }
+    }
+
+    /**
+     * Retrieves the metadata for all of the given projects using a single Galley batch, so that the individual
+     * downloads run concurrently on the Galley executor. This follows the same local repository scanning rules
+     * as {@link MavenMetadataReader#getMetadata(ProjectRef, List)}.
+     *
+     * @param locations the locations to search
+     * @param refs the projects to retrieve metadata for
+     * @param failed receives the projects whose metadata could not be retrieved from at least one location
+     * @return the transfers found for each project, in location order. Projects with no metadata are omitted.
+     * @throws TransferException if the batch could not be run.
+     */
+    public Map<ProjectRef, List<Transfer>> retrieveAllMetadata( final List<? extends Location> locations,
+                                                                final Collection<? extends ProjectRef> refs,
+                                                                final Set<ProjectRef> failed )
+                    throws TransferException
+    {
+        final List<? extends Location> expanded = locationExpander.expand( locations );
+        final boolean localScanning = localMetadataScanningEnabled();
+        final Map<ProjectRef, List<ConcreteResource>> resources = new LinkedHashMap<>();
+        final List<ConcreteResource> all = new ArrayList<>();
+
+        for ( ProjectRef ref : refs )
+        {
+            final List<ConcreteResource> refResources = new ArrayList<>( expanded.size() );
+            for ( Location l : expanded )
+            {
+                String filename = ArtifactMetadataManager.DEFAULT_FILENAME;
+                if ( localScanning && l.getUri().startsWith( "file:" ) )
+                {
+                    filename = "maven-metadata-local.xml";
+                }
+                refResources.add( new ConcreteResource( l, formatMetadataPath( ref, filename ) ) );
+            }
+            resources.put( ref, refResources );
+            all.addAll( refResources );
+        }
+
+        final TransferBatch batch = transfers.batchRetrieveAll( new TransferBatch( all ) );
+
+        // As with TransferManager.retrieveAll, failures for individual resources are not fatal ; only the
+        // transfers that were retrieved are used.
+        final Map<ConcreteResource, TransferException> errors =
+                        batch.getErrors() == null ? Collections.emptyMap() : batch.getErrors();
+        if ( !errors.isEmpty() )
+        {
+            logger.debug( "Ignoring metadata retrieval failures for {}", errors.keySet() );
+        }
+
+        final Map<ProjectRef, List<Transfer>> result = new LinkedHashMap<>();
+        for ( Map.Entry<ProjectRef, List<ConcreteResource>> entry : resources.entrySet() )
+        {
+            final List<Transfer> found = new ArrayList<>();
+            for ( ConcreteResource resource : entry.getValue() )
+            {
+                if ( errors.containsKey( resource ) )
+                {
+                    failed.add( entry.getKey() );
+                }
+                final Transfer transfer = batch.getTransfer( resource );
+                if ( transfer != null )
+                {
+                    found.add( transfer );
+                }
+            }
+            if ( !found.isEmpty() )
+            {
+                result.put( entry.getKey(), found );
+            }
+        }
+        return result;
     }
 
     private boolean localMetadataScanningEnabled()
@@ -321,7 +426,20 @@ public class GalleyInfrastructure
         return xpaths;
     }
 
+    /**
+     * @return the on-disk metadata version cache, or null if it has not been configured.
+     */
+    public MetadataVersionCache getMetadataCache()
+    {
+        return metadataCache;
+    }
+
     public void finish() {
         executor.shutdown();
+
+        if ( sharedCache != null )
+        {
+            sharedCache.evict();
+        }
     }
 }
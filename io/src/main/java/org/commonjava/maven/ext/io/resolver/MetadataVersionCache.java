@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang.StringUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.ext.io.CacheLock;
+import org.commonjava.maven.galley.model.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional on-disk cache of the version lists parsed from repository metadata, shared between builds on the
+ * same machine. Entries are keyed by the set of repositories searched plus the project groupId:artifactId and
+ * are considered fresh for a configurable time to live. An expired entry is revalidated by the next lookup: if
+ * the repositories return the same versions the entry is simply marked fresh again.
+ * <p>
+ * Access is guarded by a lock file within the cache directory so that concurrent builds do not see partially
+ * written entries. Any I/O problem with the cache is logged and treated as a cache miss.
+ */
+public class MetadataVersionCache
+{
+    /**
+     * The directory to store the cache in. The cache is disabled unless this is set.
+     */
+    public static final String METADATA_CACHE_DIR = "metadataCacheDir";
+
+    /**
+     * The time in seconds that a cached version list is used without consulting the repositories.
+     */
+    public static final String METADATA_CACHE_TTL = "metadataCacheTTL";
+
+    /**
+     * If true, ignore any existing entries and refresh them from the repositories.
+     */
+    public static final String METADATA_CACHE_REFRESH = "metadataCacheRefresh";
+
+    private static final String DEFAULT_TTL = "900";
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final File cacheDir;
+
+    private final long ttl;
+
+    private final boolean refresh;
+
+    public MetadataVersionCache( final File cacheDir, final long ttl, final TimeUnit unit, final boolean refresh,
+                                 final List<? extends Location> locations )
+    {
+        final StringBuilder repositories = new StringBuilder();
+        for ( Location l : locations )
+        {
+            repositories.append( l.getUri() ).append( '\n' );
+        }
+
+        this.cacheDir = new File( cacheDir, DigestUtils.sha1Hex( repositories.toString() ) );
+        this.ttl = unit.toMillis( ttl );
+        this.refresh = refresh;
+    }
+
+    /**
+     * Creates a cache from the user properties.
+     *
+     * @param userProps the user properties
+     * @param locations the locations that are searched for metadata
+     * @return a cache, or null if caching has not been configured.
+     */
+    public static MetadataVersionCache create( final Properties userProps, final List<? extends Location> locations )
+    {
+        final String dir = userProps.getProperty( METADATA_CACHE_DIR );
+
+        if ( StringUtils.isEmpty( dir ) )
+        {
+            return null;
+        }
+
+        return new MetadataVersionCache( new File( dir ),
+                                         Long.parseLong( userProps.getProperty( METADATA_CACHE_TTL, DEFAULT_TTL ) ),
+                                         TimeUnit.SECONDS,
+                                         Boolean.parseBoolean( userProps.getProperty( METADATA_CACHE_REFRESH ) ),
+                                         locations );
+    }
+
+    /**
+     * @param ref the project to look up
+     * @return the cached versions, or null if there is no fresh entry.
+     */
+    public synchronized List<String> get( final ProjectRef ref )
+    {
+        if ( refresh )
+        {
+            return null;
+        }
+
+        final File entry = getEntry( ref );
+
+        try ( CacheLock ignored = CacheLock.lock( cacheDir, true ) )
+        {
+            if ( !entry.exists() || System.currentTimeMillis() - entry.lastModified() > ttl )
+            {
+                return null;
+            }
+
+            logger.debug( "Using cached metadata versions for {}", ref );
+            return Files.readAllLines( entry.toPath(), StandardCharsets.UTF_8 );
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to read metadata cache entry {} ; ignoring ({})", entry, e.getMessage() );
+            return null;
+        }
+    }
+
+    /**
+     * Stores the versions for the given project. If the existing entry already holds the same versions it is
+     * only marked as fresh. Empty lists are not stored, as the project may simply not have been reachable.
+     *
+     * @param ref the project
+     * @param versions the versions read from the repositories
+     */
+    public synchronized void put( final ProjectRef ref, final List<String> versions )
+    {
+        if ( versions.isEmpty() )
+        {
+            logger.debug( "Not caching empty metadata versions for {}", ref );
+            return;
+        }
+
+        final File entry = getEntry( ref );
+
+        try ( CacheLock ignored = CacheLock.lock( cacheDir, false ) )
+        {
+            if ( entry.exists() && Files.readAllLines( entry.toPath(), StandardCharsets.UTF_8 ).equals( versions ) )
+            {
+                logger.debug( "Revalidated cached metadata versions for {}", ref );
+                if ( entry.setLastModified( System.currentTimeMillis() ) )
+                {
+                    return;
+                }
+            }
+
+            Files.createDirectories( entry.getParentFile().toPath() );
+
+            final File temp = File.createTempFile( entry.getName(), ".tmp", entry.getParentFile() );
+            try
+            {
+                Files.write( temp.toPath(), versions, StandardCharsets.UTF_8 );
+                Files.move( temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE );
+            }
+            finally
+            {
+                Files.deleteIfExists( temp.toPath() );
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to write metadata cache entry {} ; ignoring ({})", entry, e.getMessage() );
+        }
+    }
+
+    private File getEntry( final ProjectRef ref )
+    {
+        return new File( new File( cacheDir, ref.getGroupId() ), ref.getArtifactId() + ".txt" );
+    }
+}
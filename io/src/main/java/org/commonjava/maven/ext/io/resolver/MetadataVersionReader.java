@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.galley.maven.GalleyMavenException;
+import org.commonjava.maven.galley.model.Transfer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extracts the <code>/metadata/versioning/versions/version</code> values from maven-metadata.xml files in a single
+ * streaming pass, rather than building a DOM and evaluating XPath against it.
+ */
+public final class MetadataVersionReader
+{
+    private static final String[] VERSION_PATH = { "metadata", "versioning", "versions", "version" };
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    static
+    {
+        FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+        FACTORY.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+    }
+
+    private MetadataVersionReader()
+    {
+    }
+
+    /**
+     * Reads the versions from each transfer in turn.
+     *
+     * @param transfers the metadata files, in repository order
+     * @return the distinct versions, in the order they were first seen.
+     * @throws GalleyMavenException if a file cannot be read or parsed.
+     */
+    public static List<String> readVersions( final Collection<Transfer> transfers )
+        throws GalleyMavenException
+    {
+        final Set<String> versions = new LinkedHashSet<>();
+
+        for ( final Transfer transfer : transfers )
+        {
+            try ( InputStream in = transfer.openInputStream( false ) )
+            {
+                readVersions( in, versions );
+            }
+            catch ( IOException | XMLStreamException e )
+            {
+                throw new GalleyMavenException( "Failed to read metadata from: {}. Reason: {}", e, transfer,
+                                                e.getMessage() );
+            }
+        }
+        return new ArrayList<>( versions );
+    }
+
+    /**
+     * Adds the versions listed within a single metadata document to the given collection.
+     *
+     * @param in the metadata document
+     * @param versions the collection to add to
+     * @throws XMLStreamException if the document cannot be parsed.
+     */
+    public static void readVersions( final InputStream in, final Collection<String> versions )
+        throws XMLStreamException
+    {
+        final XMLStreamReader reader = FACTORY.createXMLStreamReader( in );
+        try
+        {
+            // Number of leading elements of the current path that match VERSION_PATH, and the current depth.
+            int matched = 0;
+            int depth = 0;
+
+            while ( reader.hasNext() )
+            {
+                switch ( reader.next() )
+                {
+                    case XMLStreamConstants.START_ELEMENT:
+                    {
+                        if ( matched == depth && matched < VERSION_PATH.length
+                                        && VERSION_PATH[matched].equals( reader.getLocalName() ) )
+                        {
+                            matched++;
+                            if ( matched == VERSION_PATH.length )
+                            {
+                                // Consumes the END_ELEMENT as well.
+                                final String version = reader.getElementText().trim();
+                                if ( !version.isEmpty() )
+                                {
+                                    versions.add( version );
+                                }
+                                matched--;
+                                break;
+                            }
+                        }
+                        depth++;
+                        break;
+                    }
+                    case XMLStreamConstants.END_ELEMENT:
+                    {
+                        if ( matched == depth )
+                        {
+                            matched--;
+                        }
+                        depth--;
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.apache.commons.lang.StringUtils;
+import org.commonjava.maven.ext.io.CacheLock;
+import org.commonjava.maven.galley.cache.FileCacheProvider;
+import org.commonjava.maven.galley.io.HashedLocationPathGenerator;
+import org.commonjava.maven.galley.io.NoOpTransferDecorator;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.spi.event.FileEventManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Galley cache that may be shared between builds, and between concurrent builds on the same machine. Content is
+ * stored by the hash of the repository URL and the path within the repository, as with the default per-build
+ * cache.
+ * <p>
+ * Released artifacts are kept until evicted. Repository metadata and snapshots are refreshed once they are older
+ * than a configurable time to live, and content copied from local repositories is refreshed by every build as
+ * those may change between builds.
+ * <p>
+ * Entries are written to a temporary file and renamed into place while holding the lock file within the cache
+ * directory, so that other builds never see partially written entries. Once the cache grows beyond its maximum
+ * size {@link #evict()} removes the least recently used entries.
+ */
+public class SharedCacheProvider
+    extends FileCacheProvider
+{
+    /**
+     * The directory to store the cache in. The shared cache is disabled unless this is set.
+     */
+    public static final String SHARED_CACHE_DIR = "galleyCacheDir";
+
+    /**
+     * The time in seconds that cached repository metadata and snapshots are used without consulting the
+     * repositories.
+     */
+    public static final String SHARED_CACHE_TTL = "galleyCacheTTL";
+
+    /**
+     * The size in megabytes that the cache is reduced to at the end of the build.
+     */
+    public static final String SHARED_CACHE_MAX_SIZE = "galleyCacheMaxSize";
+
+    private static final String DEFAULT_TTL = "900";
+
+    private static final String DEFAULT_MAX_SIZE = "1024";
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final File cacheDir;
+
+    private final long ttl;
+
+    private final long maxSize;
+
+    /**
+     * Entries written or read by the current build.
+     */
+    private final Set<Path> used = Collections.newSetFromMap( new ConcurrentHashMap<>() );
+
+    /**
+     * @param cacheDir the directory to store the cache in
+     * @param ttl the time to live of repository metadata and snapshots
+     * @param unit the unit of the time to live
+     * @param maxSize the size in bytes that the cache is reduced to by {@link #evict()}
+     * @param fileEvents the Galley file event manager
+     */
+    public SharedCacheProvider( final File cacheDir, final long ttl, final TimeUnit unit, final long maxSize,
+                                final FileEventManager fileEvents )
+    {
+        super( cacheDir, new HashedLocationPathGenerator(), fileEvents, new NoOpTransferDecorator() );
+
+        this.cacheDir = cacheDir;
+        this.ttl = unit.toMillis( ttl );
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a cache from the user properties.
+     *
+     * @param userProps the user properties
+     * @param fileEvents the Galley file event manager
+     * @return a cache, or null if a shared cache has not been configured.
+     */
+    public static SharedCacheProvider create( final Properties userProps, final FileEventManager fileEvents )
+    {
+        final String dir = userProps.getProperty( SHARED_CACHE_DIR );
+
+        if ( StringUtils.isEmpty( dir ) )
+        {
+            return null;
+        }
+
+        return new SharedCacheProvider( new File( dir ),
+                                        Long.parseLong( userProps.getProperty( SHARED_CACHE_TTL, DEFAULT_TTL ) ),
+                                        TimeUnit.SECONDS,
+                                        Long.parseLong( userProps.getProperty( SHARED_CACHE_MAX_SIZE,
+                                                                               DEFAULT_MAX_SIZE ) ) * 1024 * 1024,
+                                        fileEvents );
+    }
+
+    /**
+     * Stale entries are reported as missing, so that they are downloaded again.
+     */
+    @Override
+    public boolean exists( final ConcreteResource resource )
+    {
+        if ( !super.exists( resource ) )
+        {
+            return false;
+        }
+
+        final File file = new File( getFilePath( resource ) );
+
+        if ( !used.contains( file.toPath() ) && ( isLocal( resource )
+                        || ( isVolatile( resource ) && System.currentTimeMillis() - file.lastModified() > ttl ) ) )
+        {
+            logger.debug( "Ignoring stale cached copy of {}", resource );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Unlike the per-build cache, entries are never deleted here once they exceed the cache timeout of their
+     * location, as another build may be reading them. Stale entries are instead reported as missing by
+     * {@link #exists(ConcreteResource)} and replaced atomically when downloaded again.
+     */
+    @Override
+    public File getDetachedFile( final ConcreteResource resource )
+    {
+        final File file = new File( getFilePath( resource ) );
+
+        if ( resource.isRoot() && !file.isDirectory() )
+        {
+            file.mkdirs();
+        }
+        return file;
+    }
+
+    @Override
+    public InputStream openInputStream( final ConcreteResource resource )
+                    throws IOException
+    {
+        final InputStream in = super.openInputStream( resource );
+
+        if ( in != null )
+        {
+            touch( new File( getFilePath( resource ) ).toPath() );
+        }
+        return in;
+    }
+
+    /**
+     * Writes to a temporary file that is unique to this stream, which is moved into place when the stream is
+     * closed.
+     */
+    @Override
+    public OutputStream openOutputStream( final ConcreteResource resource )
+                    throws IOException
+    {
+        waitForWriteUnlock( resource );
+        lockWrite( resource );
+
+        final File target = new File( getFilePath( resource ) );
+        Files.createDirectories( target.getParentFile().toPath() );
+
+        final File temp = File.createTempFile( target.getName() + '.', SUFFIX_TO_WRITE, target.getParentFile() );
+
+        return new FilterOutputStream( new FileOutputStream( temp ) )
+        {
+            private boolean closed;
+
+            @Override
+            public void write( final byte[] b, final int off, final int len )
+                            throws IOException
+            {
+                out.write( b, off, len );
+            }
+
+            @Override
+            public void close()
+                            throws IOException
+            {
+                if ( closed )
+                {
+                    return;
+                }
+                closed = true;
+
+                try
+                {
+                    super.close();
+                    commit( temp, target );
+                }
+                finally
+                {
+                    Files.deleteIfExists( temp.toPath() );
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is no larger than its maximum size. Entries used by
+     * the current build are kept. Problems with the cache are logged and otherwise ignored.
+     */
+    public synchronized void evict()
+    {
+        try ( CacheLock ignored = CacheLock.lock( cacheDir, false ) )
+        {
+            final List<Entry> entries = new ArrayList<>();
+            final long[] total = { 0 };
+
+            Files.walkFileTree( cacheDir.toPath(), new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult visitFile( final Path file, final BasicFileAttributes attrs )
+                {
+                    final String name = file.getFileName().toString();
+
+                    if ( attrs.isRegularFile() && !name.equals( CacheLock.LOCK_FILE ) && !name.endsWith( SUFFIX_TO_WRITE ) )
+                    {
+                        entries.add( new Entry( file, attrs.size(), attrs.lastAccessTime().toMillis() ) );
+                        total[0] += attrs.size();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed( final Path file, final IOException e )
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+            } );
+
+            if ( total[0] <= maxSize )
+            {
+                return;
+            }
+
+            entries.sort( Comparator.comparingLong( e -> e.accessed ) );
+
+            int evicted = 0;
+            for ( Entry entry : entries )
+            {
+                if ( total[0] <= maxSize )
+                {
+                    break;
+                }
+                if ( used.contains( entry.path ) )
+                {
+                    continue;
+                }
+                if ( Files.deleteIfExists( entry.path ) )
+                {
+                    total[0] -= entry.size;
+                    evicted++;
+                }
+            }
+            logger.info( "Evicted {} entries from shared cache {} ; {} bytes remain", evicted, cacheDir, total[0] );
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to evict entries from shared cache {} ; ignoring ({})", cacheDir, e.getMessage() );
+        }
+    }
+
+    private synchronized void commit( final File temp, final File target )
+                    throws IOException
+    {
+        try ( CacheLock ignored = CacheLock.lock( cacheDir, false ) )
+        {
+            Files.move( temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        used.add( target.toPath() );
+    }
+
+    /**
+     * Records the time an entry was last used, which decides the order of eviction.
+     */
+    private void touch( final Path file )
+    {
+        used.add( file );
+        try
+        {
+            Files.getFileAttributeView( file, BasicFileAttributeView.class )
+                 .setTimes( null, FileTime.fromMillis( System.currentTimeMillis() ), null );
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "Unable to update access time of {} ({})", file, e.getMessage() );
+        }
+    }
+
+    /**
+     * @return whether the resource is from a local repository, which may change between builds.
+     */
+    private static boolean isLocal( final ConcreteResource resource )
+    {
+        return resource.getLocation().getUri().startsWith( "file:" );
+    }
+
+    /**
+     * @return whether the resource is repository metadata or a snapshot, both of which change over time.
+     */
+    private static boolean isVolatile( final ConcreteResource resource )
+    {
+        final String path = resource.getPath();
+
+        return path.contains( "maven-metadata" ) || path.contains( "-SNAPSHOT" );
+    }
+
+    private static final class Entry
+    {
+        private final Path path;
+
+        private final long size;
+
+        private final long accessed;
+
+        private Entry( final Path path, final long size, final long accessed )
+        {
+            this.path = path;
+            this.size = size;
+            this.accessed = accessed;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out consecutive chunks of a list, adjusting the chunk size from the outcome of earlier requests. The size
+ * is increased additively while chunks complete within the target latency and halved when a chunk fails, so that
+ * the remaining chunks settle close to the largest size the server handles comfortably.
+ */
+class AdaptiveChunker<T>
+{
+    /**
+     * Chunks that complete within this time are considered fast enough to grow the chunk size.
+     */
+    static final long TARGET_LATENCY = TimeUnit.SECONDS.toMillis( 10 );
+
+    /**
+     * The chunk size never grows beyond this multiple of the initial size.
+     */
+    private static final int MAX_GROWTH = 8;
+
+    private final List<T> list;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final int increment;
+
+    private int size;
+
+    private int offset;
+
+    /**
+     * @param list the list to divide
+     * @param initialSize the size of the first chunks
+     * @param minSize the size below which chunks are never shrunk
+     */
+    AdaptiveChunker( List<T> list, int initialSize, int minSize )
+    {
+        this.list = list;
+        this.minSize = Math.max( 1, minSize );
+        this.size = Math.max( this.minSize, initialSize );
+        this.maxSize = this.size * MAX_GROWTH;
+        this.increment = Math.max( 1, this.size / 4 );
+    }
+
+    boolean hasNext()
+    {
+        return offset < list.size();
+    }
+
+    /**
+     * @return the next chunk, of at most the current chunk size.
+     */
+    List<T> next()
+    {
+        final int end = Math.min( list.size(), offset + size );
+        final List<T> chunk = list.subList( offset, end );
+        offset = end;
+        return chunk;
+    }
+
+    /**
+     * Records a successful request. The size is only grown by chunks that were sent at the current size, so that
+     * chunks already in flight when the size changed do not grow it again.
+     *
+     * @param chunkSize the size of the chunk that was sent
+     * @param elapsed the time in milliseconds the request took
+     */
+    void succeeded( int chunkSize, long elapsed )
+    {
+        if ( elapsed <= TARGET_LATENCY && chunkSize >= size )
+        {
+            size = Math.min( maxSize, size + increment );
+        }
+    }
+
+    /**
+     * Records a request that failed due to a timeout or server error.
+     *
+     * @param chunkSize the size of the chunk that was sent
+     */
+    void failed( int chunkSize )
+    {
+        size = Math.max( minSize, Math.min( size, chunkSize / 2 ) );
+    }
+
+    int getSize()
+    {
+        return size;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Serves version translations from a {@link TranslationCache} where possible, only passing GAVs that are missing
+ * or expired on to the wrapped translator.
+ * <p>
+ * GAVs matching the bypass predicate, such as those of the projects being built, are always sent and never
+ * recorded, as are GAVs that the wrapped translator reports as unanswered.
+ */
+public class CachingTranslator
+                implements Translator
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final Translator delegate;
+
+    private final TranslationCache cache;
+
+    private final Predicate<ProjectVersionRef> bypass;
+
+    public CachingTranslator( Translator delegate, TranslationCache cache )
+    {
+        this( delegate, cache, p -> false );
+    }
+
+    public CachingTranslator( Translator delegate, TranslationCache cache, Predicate<ProjectVersionRef> bypass )
+    {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.bypass = bypass;
+    }
+
+    @Override
+    public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects )
+    {
+        return translateVersions( projects, new ArrayList<>() );
+    }
+
+    @Override
+    public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects,
+                                                             Collection<ProjectVersionRef> unanswered )
+    {
+        final List<ProjectVersionRef> cacheable = new ArrayList<>();
+        final List<ProjectVersionRef> bypassed = new ArrayList<>();
+
+        for ( ProjectVersionRef project : projects )
+        {
+            ( bypass.test( project ) ? bypassed : cacheable ).add( project );
+        }
+
+        final Map<ProjectVersionRef, Optional<String>> cached = cache.get( cacheable );
+        final Map<ProjectVersionRef, String> result = new HashMap<>();
+        final List<ProjectVersionRef> misses = new ArrayList<>();
+
+        for ( ProjectVersionRef project : cacheable )
+        {
+            final Optional<String> entry = cached.get( project );
+
+            if ( entry == null )
+            {
+                misses.add( project );
+            }
+            else
+            {
+                entry.ifPresent( v -> result.put( project, v ) );
+            }
+        }
+
+        logger.info( "Using cached translations for {} of {} GAVs", cacheable.size() - misses.size(), projects.size() );
+
+        if ( !misses.isEmpty() || !bypassed.isEmpty() )
+        {
+            final List<ProjectVersionRef> requested = new ArrayList<>( misses );
+            final Set<ProjectVersionRef> failed = new HashSet<>();
+
+            requested.addAll( bypassed );
+
+            final Map<ProjectVersionRef, String> translated = delegate.translateVersions( requested, failed );
+
+            // An absent answer is only recorded as "no translation" if the server actually gave one.
+            misses.removeAll( failed );
+            cache.put( misses, translated );
+            unanswered.addAll( failed );
+            result.putAll( translated );
+        }
+        return result;
+    }
+
+    @Override
+    public List<ProjectVersionRef> findBlacklisted( ProjectRef project )
+    {
+        return delegate.findBlacklisted( project );
+    }
+
+    @Override
+    public void finish()
+    {
+        delegate.finish();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reduces a translation request to its unique GAVs before passing it on to the wrapped translator. References that
+ * only differ in their type, classifier or surrounding whitespace are sent once, and the answer is reapplied to
+ * every original occurrence so callers may look up results using the references they passed in.
+ */
+public class DeduplicatingTranslator
+                implements Translator
+{
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final Translator delegate;
+
+    public DeduplicatingTranslator( Translator delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects )
+    {
+        // Each canonical GAV, in the order first seen, mapped to the original references that reduce to it.
+        final Map<ProjectVersionRef, List<ProjectVersionRef>> fanOut = new LinkedHashMap<>();
+
+        for ( ProjectVersionRef project : projects )
+        {
+            fanOut.computeIfAbsent( canonicalise( project ), k -> new ArrayList<>() ).add( project );
+        }
+
+        final int unique = fanOut.size();
+        if ( unique < projects.size() )
+        {
+            logger.info( "Reduced {} GAVs to {} unique GAVs ({}% duplicates)", projects.size(), unique,
+                         ( projects.size() - unique ) * 100 / projects.size() );
+        }
+
+        final Map<ProjectVersionRef, String> translated =
+                        delegate.translateVersions( new ArrayList<>( fanOut.keySet() ) );
+        final Map<ProjectVersionRef, String> result = new HashMap<>( translated );
+
+        for ( Map.Entry<ProjectVersionRef, String> entry : translated.entrySet() )
+        {
+            final List<ProjectVersionRef> originals = fanOut.get( entry.getKey() );
+
+            if ( originals != null )
+            {
+                for ( ProjectVersionRef original : originals )
+                {
+                    result.put( original, entry.getValue() );
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<ProjectVersionRef> findBlacklisted( ProjectRef project )
+    {
+        return delegate.findBlacklisted( project );
+    }
+
+    @Override
+    public void finish()
+    {
+        delegate.finish();
+    }
+
+    /**
+     * @param project the reference to canonicalise
+     * @return a plain GAV with any type, classifier and surrounding whitespace removed.
+     */
+    static ProjectVersionRef canonicalise( ProjectVersionRef project )
+    {
+        final String groupId = project.getGroupId().trim();
+        final String artifactId = project.getArtifactId().trim();
+        final String version = project.getVersionString().trim();
+
+        if ( project.getClass() == SimpleProjectVersionRef.class && groupId.equals( project.getGroupId() )
+                        && artifactId.equals( project.getArtifactId() ) && version.equals( project.getVersionString() ) )
+        {
+            return project;
+        }
+        return new SimpleProjectVersionRef( groupId, artifactId, version );
+    }
+}
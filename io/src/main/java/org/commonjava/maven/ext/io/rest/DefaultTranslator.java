@@ -15,12 +15,23 @@
  */
 package org.commonjava.maven.ext.io.rest;
 
-import com.mashape.unirest.http.HttpResponse;
-import com.mashape.unirest.http.ObjectMapper;
-import com.mashape.unirest.http.Unirest;
-import com.mashape.unirest.http.exceptions.UnirestException;
 import org.apache.commons.codec.binary.Base32;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.util.ListUtils;
@@ -29,16 +40,36 @@ import org.commonjava.maven.ext.io.rest.mapper.ListingBlacklistMapper;
 import org.commonjava.maven.ext.io.rest.mapper.ReportGAVMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
+import org.slf4j.MDC;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static org.apache.commons.lang.StringUtils.isBlank;
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 import static org.apache.commons.lang.StringUtils.isNotEmpty;
 import static org.apache.http.HttpStatus.SC_OK;
@@ -59,6 +90,12 @@ public class DefaultTranslator
 
     private static final Base32 CODEC = new Base32();
 
+    // The connection timeout is 30 seconds and the socket timeout 10 minutes.
+    private static final RequestConfig REQUEST_CONFIG = RequestConfig.custom()
+                                                                     .setConnectTimeout( 30000 )
+                                                                     .setSocketTimeout( 600000 )
+                                                                     .build();
+
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
     private final String endpointUrl;
@@ -69,9 +106,19 @@ public class DefaultTranslator
 
     private final int initialRestMinSize;
 
+    private final int maxConcurrency;
+
+    private final RetryPolicy retryPolicy;
+
     private final ListingBlacklistMapper lbm;
 
-    private final int RETRY_WAIT_DURATION = 30;
+    private final boolean compressRequests;
+
+    private final CloseableHttpClient client;
+
+    private final HedgePolicy hedgePolicy;
+
+    private final String hedgeUrl;
 
     /**
      * @param endpointUrl is the URL to talk to.
@@ -84,29 +131,147 @@ public class DefaultTranslator
      */
     public DefaultTranslator( String endpointUrl, RestProtocol protocol, int restMaxSize, int restMinSize,
                               String repositoryGroup, String incrementalSerialSuffix )
+    {
+        this( endpointUrl, protocol, restMaxSize, restMinSize, 1, repositoryGroup, incrementalSerialSuffix );
+    }
+
+    /**
+     * @param endpointUrl is the URL to talk to.
+     * @param protocol determines what REST format PME should use.
+     * @param restMaxSize initial (maximum) size of the rest call; if zero will send everything.
+     * @param restMinSize minimum size for the call
+     * @param restMaxConcurrency maximum number of chunks that may be in flight at once; values below two send the
+     *                           chunks sequentially.
+     * @param repositoryGroup the group to pass to the endpoint.
+     * @param incrementalSerialSuffix the suffix to pass to the endpoint.
+     */
+    public DefaultTranslator( String endpointUrl, RestProtocol protocol, int restMaxSize, int restMinSize,
+                              int restMaxConcurrency, String repositoryGroup, String incrementalSerialSuffix )
+    {
+        this( endpointUrl, protocol, restMaxSize, restMinSize, restMaxConcurrency, new ExponentialBackoff(),
+              repositoryGroup, incrementalSerialSuffix );
+    }
+
+    /**
+     * @param endpointUrl is the URL to talk to.
+     * @param protocol determines what REST format PME should use.
+     * @param restMaxSize initial (maximum) size of the rest call; if zero will send everything.
+     * @param restMinSize minimum size for the call
+     * @param restMaxConcurrency maximum number of chunks that may be in flight at once; values below two send the
+     *                           chunks sequentially.
+     * @param retryPolicy decides when chunks that the server reported as unavailable are retried.
+     * @param repositoryGroup the group to pass to the endpoint.
+     * @param incrementalSerialSuffix the suffix to pass to the endpoint.
+     */
+    public DefaultTranslator( String endpointUrl, RestProtocol protocol, int restMaxSize, int restMinSize,
+                              int restMaxConcurrency, RetryPolicy retryPolicy, String repositoryGroup,
+                              String incrementalSerialSuffix )
+    {
+        this( endpointUrl, protocol, restMaxSize, restMinSize, restMaxConcurrency, retryPolicy, 0, false,
+              repositoryGroup, incrementalSerialSuffix );
+    }
+
+    /**
+     * @param endpointUrl is the URL to talk to.
+     * @param protocol determines what REST format PME should use.
+     * @param restMaxSize initial (maximum) size of the rest call; if zero will send everything.
+     * @param restMinSize minimum size for the call
+     * @param restMaxConcurrency maximum number of chunks that may be in flight at once; values below two send the
+     *                           chunks sequentially.
+     * @param retryPolicy decides when chunks that the server reported as unavailable are retried.
+     * @param restMaxConnections size of the connection pool; if zero or less one more than the concurrency is used,
+     *                           leaving room for a blacklist lookup.
+     * @param compressRequests whether to gzip request bodies. Responses are always accepted gzipped.
+     * @param repositoryGroup the group to pass to the endpoint.
+     * @param incrementalSerialSuffix the suffix to pass to the endpoint.
+     */
+    public DefaultTranslator( String endpointUrl, RestProtocol protocol, int restMaxSize, int restMinSize,
+                              int restMaxConcurrency, RetryPolicy retryPolicy, int restMaxConnections,
+                              boolean compressRequests, String repositoryGroup, String incrementalSerialSuffix )
+    {
+        this( endpointUrl, protocol, restMaxSize, restMinSize, restMaxConcurrency, retryPolicy, restMaxConnections,
+              compressRequests, null, repositoryGroup, incrementalSerialSuffix );
+    }
+
+    /**
+     * @param endpointUrl is the URL to talk to.
+     * @param protocol determines what REST format PME should use.
+     * @param restMaxSize initial (maximum) size of the rest call; if zero will send everything.
+     * @param restMinSize minimum size for the call
+     * @param restMaxConcurrency maximum number of chunks that may be in flight at once; values below two send the
+     *                           chunks sequentially.
+     * @param retryPolicy decides when chunks that the server reported as unavailable are retried.
+     * @param restMaxConnections size of the connection pool; if zero or less one more than the concurrency is used,
+     *                           leaving room for a blacklist lookup, doubled if requests are hedged.
+     * @param compressRequests whether to gzip request bodies. Responses are always accepted gzipped.
+     * @param hedgePolicy decides when slow chunks are sent a second time; if null chunks are never hedged.
+     * @param repositoryGroup the group to pass to the endpoint.
+     * @param incrementalSerialSuffix the suffix to pass to the endpoint.
+     */
+    public DefaultTranslator( String endpointUrl, RestProtocol protocol, int restMaxSize, int restMinSize,
+                              int restMaxConcurrency, RetryPolicy retryPolicy, int restMaxConnections,
+                              boolean compressRequests, HedgePolicy hedgePolicy, String repositoryGroup,
+                              String incrementalSerialSuffix )
     {
         this.rgm = new ReportGAVMapper( protocol, repositoryGroup, incrementalSerialSuffix );
         this.lbm = new ListingBlacklistMapper( protocol);
         this.endpointUrl = endpointUrl + ( isNotBlank( endpointUrl ) ? endpointUrl.endsWith( "/" ) ? "" : "/" : "");
         this.initialRestMaxSize = restMaxSize;
         this.initialRestMinSize = restMinSize;
+        this.maxConcurrency = Math.max( 1, restMaxConcurrency );
+        this.retryPolicy = retryPolicy;
+        this.compressRequests = compressRequests;
+        this.hedgePolicy = hedgePolicy;
+
+        final String alternateUrl = hedgePolicy == null ? null : hedgePolicy.getAlternateUrl();
+        this.hedgeUrl = isNotBlank( alternateUrl ) ?
+                        alternateUrl + ( alternateUrl.endsWith( "/" ) ? "" : "/" ) + REPORTS_LOOKUP_GAVS :
+                        this.endpointUrl + REPORTS_LOOKUP_GAVS;
+
+        final PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        final int maxConnections = restMaxConnections > 0 ? restMaxConnections :
+                        ( hedgePolicy == null ? maxConcurrency : 2 * maxConcurrency ) + 1;
+
+        pool.setMaxTotal( maxConnections );
+        pool.setDefaultMaxPerRoute( maxConnections );
+        // Check pooled connections that have been idle for a while, as the server may have closed them.
+        pool.setValidateAfterInactivity( 2000 );
+
+        // Connections are kept alive for as long as the server allows, and gzipped responses are requested and
+        // decompressed by default.
+        this.client = HttpClients.custom()
+                                 .setConnectionManager( pool )
+                                 .setDefaultRequestConfig( REQUEST_CONFIG )
+                                 .build();
     }
 
-    private void init (ObjectMapper objectMapper)
+    /**
+     * Closes the pooled connections.
+     */
+    @Override
+    public void finish()
     {
-        // According to https://github.com/Mashape/unirest-java the default connection timeout is 10000
-        // and the default socketTimeout is 60000.
-        // We have increased the first to 30 seconds and the second to 10 minutes.
-        Unirest.setTimeouts( 30000, 600000 );
-        Unirest.setObjectMapper( objectMapper );
+        try
+        {
+            client.close();
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "Unable to close REST client", e );
+        }
     }
 
-    public void partition(List<ProjectVersionRef> projects, Queue<Task> queue) {
+    /**
+     * Divides the projects into the initial tasks.
+     *
+     * @return a chunker supplying the remaining projects if the chunk size is chosen automatically, otherwise null.
+     */
+    private AdaptiveChunker<ProjectVersionRef> partition(List<ProjectVersionRef> projects, Queue<Task> queue) {
         if ( initialRestMaxSize != 0 )
         {
             if (initialRestMaxSize == -1)
             {
-                autoPartition(projects, queue);
+                return autoPartition(projects);
             }
             else
             {
@@ -117,6 +282,7 @@ public class DefaultTranslator
         {
             noOpPartition(projects, queue);
         }
+        return null;
     }
 
     private void noOpPartition(List<ProjectVersionRef> projects, Queue<Task> queue) {
@@ -139,65 +305,70 @@ public class DefaultTranslator
         logger.debug( "For initial sizing of {} have split the queue into {} ", initialRestMaxSize , queue.size() );
     }
 
-    private void autoPartition(List<ProjectVersionRef> projects, Queue<Task> queue) {
-        List<List<ProjectVersionRef>> partition;
+    /**
+     * The chunk size starts from a band based upon the number of projects, and then adapts to how quickly the
+     * server responds ; see {@link AdaptiveChunker}.
+     */
+    private AdaptiveChunker<ProjectVersionRef> autoPartition(List<ProjectVersionRef> projects) {
+        int chunkSize;
 
         if (projects.size() < 600)
         {
-            logger.info("Using auto partition strategy: {} projects divided in chunks with {} each", projects.size(), 128);
-            partition = ListUtils.partition( projects, 128 );
+            chunkSize = 128;
         }
-        else {
-            if (projects.size() > 600 && projects.size() < 1200)
-            {
-                logger.info("Using auto partition strategy: {} projects divided in chunks with {} each", projects.size(), 64);
-                partition = ListUtils.partition( projects, 64 );
-            }
-            else
-            {
-                logger.info("Using auto partition strategy: {} projects divided in chunks with {} each", projects.size(), 32);
-                partition = ListUtils.partition( projects, 32 );
-            }
+        else if (projects.size() < 1200)
+        {
+            chunkSize = 64;
         }
-
-        for ( List<ProjectVersionRef> p : partition )
+        else
         {
-            queue.add( new Task( rgm, p, endpointUrl + REPORTS_LOOKUP_GAVS ) );
+            chunkSize = 32;
         }
+        logger.info("Using auto partition strategy: {} projects divided in chunks starting with {} each", projects.size(), chunkSize);
+
+        return new AdaptiveChunker<>( projects, chunkSize, initialRestMinSize );
     }
 
     @Override
     public List<ProjectVersionRef> findBlacklisted( ProjectRef ga )
     {
-        init (lbm);
-
         final String blacklistEndpointUrl = endpointUrl + LISTING_BLACKLIST_GA;
         List<ProjectVersionRef> result;
-        HttpResponse<List> r;
 
         logger.trace( "Called findBlacklisted to {} with {}", blacklistEndpointUrl, ga );
 
         try
         {
-            r = Unirest.get( blacklistEndpointUrl )
-                       .header( "accept", "application/json" )
-                       .header( "Content-Type", "application/json" )
-                       .header( "Log-Context", getHeaderContext() )
-                       .queryString( "groupid", ga.getGroupId() )
-                       .queryString( "artifactid", ga.getArtifactId() )
-                       .asObject( List.class );
+            final HttpGet get = new HttpGet( new URIBuilder( blacklistEndpointUrl )
+                                                             .addParameter( "groupid", ga.getGroupId() )
+                                                             .addParameter( "artifactid", ga.getArtifactId() )
+                                                             .build() );
+            get.setHeader( "accept", "application/json" );
+            get.setHeader( "Content-Type", "application/json" );
+            get.setHeader( "Log-Context", getHeaderContext() );
+
+            final int status;
+            final String content;
+
+            try ( CloseableHttpResponse r = client.execute( get ) )
+            {
+                status = r.getStatusLine().getStatusCode();
+                content = r.getEntity() == null ? "" : EntityUtils.toString( r.getEntity(), StandardCharsets.UTF_8 );
+            }
+
+            final List<ProjectVersionRef> body = new ArrayList<>();
+            final String error = lbm.readResponse( content, body );
 
-            int status = r.getStatus();
             if ( status == SC_OK )
             {
-                result = r.getBody();
+                result = body;
             }
             else
             {
-                throw new RestException( String.format( "Failed to establish blacklist calling %s with error %s", this.endpointUrl, lbm.getErrorString() ) );
+                throw new RestException( String.format( "Failed to establish blacklist calling %s with error %s", this.endpointUrl, error ) );
             }
         }
-        catch ( UnirestException e )
+        catch ( IOException | URISyntaxException e )
         {
             throw new RestException( "Unable to contact DA", e );
         }
@@ -233,78 +404,317 @@ public class DefaultTranslator
      * }</pre>
      * There may be a lot of them, possibly causing timeouts or other issues.
      * This is mitigated by splitting them into smaller chunks when an error occurs and retrying.
+     * <p>
+     * Up to <code>restMaxConcurrency</code> chunks are sent at once. Once a chunk has failed no further chunks are
+     * sent; those already in flight are allowed to finish and the earliest dispatched failure is reported.
+     * <p>
+     * Chunks that the server reports as unavailable are retried after a delay chosen by the {@link RetryPolicy};
+     * other chunks carry on in the meantime.
+     * <p>
+     * If a {@link HedgePolicy} is configured a chunk that is slower than usual is sent a second time, possibly to an
+     * alternate endpoint. Whichever response arrives first is used and the other request is aborted.
      */
     public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects )
     {
-        init (rgm );
+        return translateVersions( projects, new ArrayList<>() );
+    }
 
-        final Map<ProjectVersionRef, String> result = new HashMap<>();
+    /**
+     * As {@link #translateVersions(List)}. A successful response that carries an error message rather than (or as
+     * well as) the versions is not treated as a failure, but the GAVs of its chunk are added to unanswered.
+     */
+    @Override
+    public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects,
+                                                             Collection<ProjectVersionRef> unanswered )
+    {
         final Queue<Task> queue = new ArrayDeque<>();
 
-        partition(projects, queue);
+        final AdaptiveChunker<ProjectVersionRef> chunker = partition(projects, queue);
 
-        while ( !queue.isEmpty() )
+        // Results are keyed by dispatch order so that they are merged in the same order regardless of which
+        // chunk completes first.
+        final Map<Integer, Map<ProjectVersionRef, String>> results = new TreeMap<>();
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        final ExecutorService executor = Executors.newFixedThreadPool( maxConcurrency );
+        final ExecutorService hedgeExecutor = hedgePolicy == null ? null : Executors.newCachedThreadPool();
+        final CompletionService<Task> completionService = new ExecutorCompletionService<>( executor );
+
+        final long start = System.nanoTime();
+
+        Task failed = null;
+        int dispatched = 0;
+        int inFlight = 0;
+
+        try
         {
-            Task task = queue.remove();
-            task.executeTranslate();
-            if ( task.isSuccess() )
+            while ( hasPending( chunker, queue ) || inFlight > 0 )
             {
-                result.putAll( task.getResult() );
-            }
-            else
-            {
-                if ( task.canSplit() && isRecoverable(task.getStatus()))
+                while ( failed == null && inFlight < maxConcurrency )
                 {
-                    if (task.getStatus() == HttpStatus.SC_SERVICE_UNAVAILABLE)
+                    // Fresh chunks go before retried ones, as they would with a pre-partitioned queue.
+                    final Task task = chunker != null && chunker.hasNext() ?
+                                    new Task( rgm, chunker.next(), endpointUrl + REPORTS_LOOKUP_GAVS ) :
+                                    nextReady( queue );
+                    if ( task == null )
                     {
-                        logger.info("The DA server is unavailable. Waiting {} before splitting the tasks and retrying",
-                                RETRY_WAIT_DURATION);
-
-                        waitBeforeRetry(RETRY_WAIT_DURATION);
+                        break;
                     }
+                    task.order = dispatched++;
+                    completionService.submit( () -> executeWithContext( task, mdc, hedgeExecutor ), task );
+                    inFlight++;
+                }
 
-                    List<Task> tasks = task.split();
+                final long wait = untilReady( queue );
 
-                    logger.warn( "Failed to translate versions for task @{} due to {}, splitting and retrying. Chunk size was: {} and new chunk size {} in {} segments.",
-                                 task.hashCode(), task.getStatus(), task.getChunkSize(), tasks.get( 0 ).getChunkSize(), tasks.size());
-                    queue.addAll( tasks );
+                if ( inFlight == 0 )
+                {
+                    if ( failed != null || queue.isEmpty() )
+                    {
+                        break;
+                    }
+                    Thread.sleep( wait );
+                    continue;
                 }
-                else
+
+                final Future<Task> future = failed == null && inFlight < maxConcurrency && !queue.isEmpty() ?
+                                completionService.poll( wait, TimeUnit.MILLISECONDS ) :
+                                completionService.take();
+                if ( future == null )
+                {
+                    // A delayed retry is now due.
+                    continue;
+                }
+
+                final Task task = future.get();
+                inFlight--;
+
+                if ( chunker != null )
                 {
-                    if ( task.getStatus() < 0 )
+                    if ( task.isSuccess() )
                     {
-                        logger.debug ("Caught exception calling server with message {}", task.getErrorMessage());
+                        chunker.succeeded( task.getChunkSize(), task.getElapsed() );
                     }
-                    else
+                    else if ( isRecoverable( task.getStatus() ) || task.getStatus() >= HttpStatus.SC_INTERNAL_SERVER_ERROR )
                     {
-                        logger.debug ("Did not get status {} but received {}", SC_OK, task.getStatus());
+                        // Only server-side failures say anything about the chunk size ; client errors and I/O
+                        // failures would fail at any size.
+                        chunker.failed( task.getChunkSize() );
                     }
+                    logger.debug( "Chunk of {} took {}ms with status {} ; chunk size is now {}", task.getChunkSize(),
+                                  task.getElapsed(), task.getStatus(), chunker.getSize() );
+                }
 
-                    if ( task.getStatus() > 0 )
+                if ( task.isSuccess() )
+                {
+                    if ( task.errorString != null )
+                    {
+                        logger.warn( "Response for task @{} carried the error message '{}' ; its {} GAVs are treated as unanswered.",
+                                     task.hashCode(), task.errorString, task.getChunkSize() );
+                        unanswered.addAll( task.chunk );
+                    }
+                    results.put( task.order, task.getResult() );
+                }
+                else if ( failed != null )
+                {
+                    if ( task.order < failed.order )
+                    {
+                        failed = task;
+                    }
+                }
+                else if ( task.getStatus() == HttpStatus.SC_SERVICE_UNAVAILABLE )
+                {
+                    final long delay = retryPolicy.getDelay( task.retries, task.getRetryAfter(),
+                                                             TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) );
+                    if ( delay < 0 )
                     {
-                        throw new RestException(
-                                        "Received response status " + task.getStatus() + " with message: " + task.getErrorMessage());
+                        logger.warn( "The DA server is still unavailable after {} retries of task @{} ; giving up.",
+                                     task.retries, task.hashCode() );
+                        failed = task;
+                        continue;
                     }
-                    else
+
+                    final List<Task> tasks = task.canSplit() ? task.split() : Collections.singletonList( task.retry() );
+                    final long notBefore = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( delay );
+                    for ( Task t : tasks )
                     {
-                        throw new RestException( "Received response status " + task.getStatus() + " with message " + task.getErrorMessage() );
+                        t.retries = task.retries + 1;
+                        t.notBefore = notBefore;
                     }
+
+                    logger.info( "The DA server is unavailable. Waiting {}ms before retrying task @{} (chunk size {}) in {} segments.",
+                                 delay, task.hashCode(), task.getChunkSize(), tasks.size() );
+                    queue.addAll( tasks );
+                }
+                else if ( task.canSplit() && isRecoverable( task.getStatus() ) )
+                {
+                    List<Task> tasks = task.split();
+                    tasks.forEach( t -> t.retries = task.retries );
+
+                    logger.warn( "Failed to translate versions for task @{} due to {}, splitting and retrying. Chunk size was: {} and new chunk size {} in {} segments.",
+                                 task.hashCode(), task.getStatus(), task.getChunkSize(), tasks.get( 0 ).getChunkSize(), tasks.size());
+                    queue.addAll( tasks );
+                }
+                else
+                {
+                    failed = task;
                 }
             }
         }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RestException( "Interrupted while translating versions", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RestException( "Unable to translate versions", e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+            if ( hedgeExecutor != null )
+            {
+                hedgeExecutor.shutdownNow();
+            }
+        }
+
+        if ( failed != null )
+        {
+            if ( failed.getStatus() < 0 )
+            {
+                logger.debug ("Caught exception calling server with message {}", failed.getErrorMessage());
+            }
+            else
+            {
+                logger.debug ("Did not get status {} but received {}", SC_OK, failed.getStatus());
+            }
+
+            if ( failed.getStatus() > 0 )
+            {
+                throw new RestException(
+                                "Received response status " + failed.getStatus() + " with message: " + failed.getErrorMessage());
+            }
+            else
+            {
+                throw new RestException( "Received response status " + failed.getStatus() + " with message " + failed.getErrorMessage() );
+            }
+        }
+
+        final Map<ProjectVersionRef, String> result = new HashMap<>();
+        results.values().forEach( result::putAll );
         return result;
     }
 
+    /**
+     * Runs the task on a worker thread with the caller's logging context, which is also used for the
+     * Log-Context header.
+     */
+    private void executeWithContext( Task task, Map<String, String> mdc, ExecutorService hedgeExecutor )
+    {
+        if ( mdc != null )
+        {
+            MDC.setContextMap( mdc );
+        }
+        try
+        {
+            task.executeTranslate( hedgeExecutor );
+        }
+        finally
+        {
+            MDC.clear();
+        }
+    }
+
+    private boolean hasPending( AdaptiveChunker<ProjectVersionRef> chunker, Queue<Task> queue )
+    {
+        return !queue.isEmpty() || ( chunker != null && chunker.hasNext() );
+    }
+
     private boolean isRecoverable(int httpErrorCode)
     {
         return httpErrorCode == HttpStatus.SC_GATEWAY_TIMEOUT || httpErrorCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
     }
 
-    private void waitBeforeRetry(int seconds) {
-        try {
-            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
-        } catch (InterruptedException e) {
+    /**
+     * Removes and returns the first queued task whose retry delay has passed, preserving queue order otherwise.
+     */
+    private Task nextReady( Queue<Task> queue )
+    {
+        final long now = System.nanoTime();
+        final Iterator<Task> i = queue.iterator();
+
+        while ( i.hasNext() )
+        {
+            final Task task = i.next();
+            if ( task.notBefore - now <= 0 )
+            {
+                i.remove();
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the time in milliseconds until the next queued task may be sent.
+     */
+    private long untilReady( Queue<Task> queue )
+    {
+        final long now = System.nanoTime();
+        long wait = Long.MAX_VALUE;
+
+        for ( Task task : queue )
+        {
+            wait = Math.min( wait, task.notBefore - now );
+        }
+        return wait == Long.MAX_VALUE ? 0 : Math.max( 0, TimeUnit.NANOSECONDS.toMillis( wait ) + 1 );
+    }
+
+    private static String getHeader( HttpResponse response, String name )
+    {
+        final Header header = response.getFirstHeader( name );
+
+        return header == null ? null : header.getValue();
+    }
+
+    private HttpEntity createEntity( byte[] body )
+    {
+        final HttpEntity entity = new ByteArrayEntity( body, ContentType.APPLICATION_JSON );
 
+        return compressRequests ? new GzipCompressingEntity( entity ) : entity;
+    }
+
+    /**
+     * Parses a Retry-After header, which may either be a number of seconds or a date.
+     *
+     * @return the requested delay in milliseconds, or -1 if there is no valid header.
+     */
+    static long parseRetryAfter( String retryAfter )
+    {
+        if ( isBlank( retryAfter ) )
+        {
+            return -1;
+        }
+        try
+        {
+            return TimeUnit.SECONDS.toMillis( Math.max( 0, Long.parseLong( retryAfter.trim() ) ) );
+        }
+        catch ( NumberFormatException e )
+        {
+            try
+            {
+                final ZonedDateTime date = ZonedDateTime.parse( retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME );
+
+                return Math.max( 0, date.toInstant().toEpochMilli() - System.currentTimeMillis() );
+            }
+            catch ( DateTimeParseException ignored )
+            {
+                return -1;
+            }
         }
     }
 
@@ -316,9 +726,9 @@ public class DefaultTranslator
     {
         String headerContext;
 
-        if ( isNotEmpty( org.slf4j.MDC.get( "LOG-CONTEXT" ) ) )
+        if ( isNotEmpty( MDC.get( "LOG-CONTEXT" ) ) )
         {
-            headerContext = org.slf4j.MDC.get( "LOG-CONTEXT" );
+            headerContext = MDC.get( "LOG-CONTEXT" );
         }
         else
         {
@@ -348,6 +758,25 @@ public class DefaultTranslator
 
         private ReportGAVMapper pvrm;
 
+        /**
+         * Position in which this task was dispatched ; used to merge results and report failures deterministically.
+         */
+        private int order;
+
+        private long elapsed;
+
+        /**
+         * Number of times the chunk has been retried after the server reported it was unavailable.
+         */
+        private int retries;
+
+        /**
+         * The earliest time, in {@link System#nanoTime()} terms, at which the task may be sent.
+         */
+        private long notBefore = System.nanoTime();
+
+        private long retryAfter = -1;
+
         Task( ReportGAVMapper pvrm, List<ProjectVersionRef> chunk, String endpointUrl )
         {
             this.pvrm = pvrm;
@@ -355,34 +784,102 @@ public class DefaultTranslator
             this.endpointUrl = endpointUrl;
         }
 
-        void executeTranslate()
+        /**
+         * Sends the chunk. If hedging is enabled and the response is slower than the {@link HedgePolicy} allows,
+         * the chunk is sent again and the first response to arrive is used.
+         *
+         * @param hedgeExecutor runs the individual requests when hedging ; null if hedging is disabled.
+         */
+        void executeTranslate( ExecutorService hedgeExecutor )
         {
-            HttpResponse<Map> r;
+            final long start = System.nanoTime();
+            final long delay = hedgePolicy == null ? -1 : hedgePolicy.requested();
+            final Attempt primary = new Attempt( endpointUrl );
+
+            if ( delay < 0 )
+            {
+                primary.run();
+                complete( primary, start );
+                return;
+            }
+
+            final CompletionService<Attempt> attempts = new ExecutorCompletionService<>( hedgeExecutor );
+            final List<Attempt> started = new ArrayList<>( 2 );
+            Attempt winner = null;
+
+            attempts.submit( primary, primary );
+            started.add( primary );
 
             try
             {
-                r = Unirest.post( this.endpointUrl )
-                           .header( "accept", "application/json" )
-                           .header( "Content-Type", "application/json" )
-                           .header( "Log-Context", getHeaderContext() )
-                           .body( chunk )
-                           .asObject( Map.class );
-
-                status = r.getStatus();
-                if ( status == SC_OK )
+                Future<Attempt> done = attempts.poll( delay, TimeUnit.MILLISECONDS );
+
+                if ( done == null && hedgePolicy.tryHedge() )
                 {
-                    this.result = r.getBody();
+                    logger.debug( "Chunk of {} has taken more than {}ms ; hedging to {}", chunk.size(), delay,
+                                  hedgeUrl );
+                    final Attempt hedge = new Attempt( hedgeUrl );
+                    attempts.submit( hedge, hedge );
+                    started.add( hedge );
                 }
-                else
+
+                // The first response wins ; a failure to get any response only counts if the other attempt fails too.
+                for ( int remaining = started.size(); remaining > 0; remaining-- )
                 {
-                    errorString = pvrm.getErrorString();
+                    winner = ( done == null ? attempts.take() : done ).get();
+                    done = null;
+
+                    if ( winner.status != -1 )
+                    {
+                        break;
+                    }
                 }
             }
-            catch ( UnirestException e )
+            catch ( InterruptedException e )
             {
+                Thread.currentThread().interrupt();
+                winner = null;
                 exception = e;
-                this.status = -1;
             }
+            catch ( ExecutionException e )
+            {
+                if ( e.getCause() instanceof RuntimeException )
+                {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RestException( "Unable to translate versions", e.getCause() );
+            }
+            finally
+            {
+                for ( Attempt attempt : started )
+                {
+                    if ( attempt != winner )
+                    {
+                        attempt.post.abort();
+                    }
+                }
+            }
+
+            if ( winner == null )
+            {
+                elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+                return;
+            }
+            complete( winner, start );
+        }
+
+        private void complete( Attempt attempt, long start )
+        {
+            if ( hedgePolicy != null && attempt.status == SC_OK )
+            {
+                hedgePolicy.record( attempt.elapsed );
+            }
+            status = attempt.status;
+            result = attempt.result;
+            errorString = attempt.errorString;
+            exception = attempt.exception;
+            retryAfter = attempt.retryAfter;
+            elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
         }
 
         public List<Task> split()
@@ -410,6 +907,14 @@ public class DefaultTranslator
             return res;
         }
 
+        /**
+         * @return a new task for the same chunk.
+         */
+        Task retry()
+        {
+            return new Task( pvrm, chunk, endpointUrl );
+        }
+
         boolean canSplit()
         {
             return ( chunk.size() / initialRestMinSize ) > 0 && chunk.size() != 1;
@@ -439,5 +944,86 @@ public class DefaultTranslator
         {
             return chunk.size();
         }
+
+        long getElapsed()
+        {
+            return elapsed;
+        }
+
+        long getRetryAfter()
+        {
+            return retryAfter;
+        }
+
+        /**
+         * A single request for the chunk. The request is built on the calling thread so that it carries the
+         * caller's Log-Context.
+         */
+        private class Attempt
+            implements Runnable
+        {
+            private final HttpPost post;
+
+            private Map<ProjectVersionRef, String> result;
+
+            private int status = -1;
+
+            private Exception exception;
+
+            private String errorString;
+
+            private long retryAfter = -1;
+
+            private long elapsed;
+
+            Attempt( String url )
+            {
+                post = new HttpPost( url );
+                post.setHeader( "accept", "application/json" );
+                post.setHeader( "Log-Context", getHeaderContext() );
+                post.setEntity( createEntity( pvrm.writeRequest( chunk ) ) );
+            }
+
+            @Override
+            public void run()
+            {
+                final long start = System.nanoTime();
+
+                // The body is streamed to the mapper. It is consumed fully so that the connection can be reused.
+                try ( CloseableHttpResponse r = client.execute( post ) )
+                {
+                    final HttpEntity entity = r.getEntity();
+                    final String contentType = getHeader( r, "Content-Type" );
+
+                    status = r.getStatusLine().getStatusCode();
+
+                    try ( InputStream in = entity == null ? new ByteArrayInputStream( new byte[0] ) : entity.getContent() )
+                    {
+                        if ( status == SC_OK )
+                        {
+                            final Map<ProjectVersionRef, String> response = new HashMap<>();
+
+                            errorString = pvrm.readResponse( in, contentType, response );
+                            this.result = response;
+                        }
+                        else
+                        {
+                            errorString = pvrm.readError( in, contentType );
+                            retryAfter = parseRetryAfter( getHeader( r, "Retry-After" ) );
+                        }
+                        EntityUtils.consume( entity );
+                    }
+                }
+                catch ( IOException e )
+                {
+                    exception = e;
+                    this.status = -1;
+                }
+                finally
+                {
+                    elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capped exponential backoff with full jitter: the n-th retry waits a random time between zero and
+ * <code>min( maxDelay, baseDelay * 2^n )</code>, so that builds which failed together do not retry together. A
+ * longer Retry-After requested by the server is honoured. Retries stop once the maximum number of retries for a
+ * chunk is reached or the wait would exceed the total time budget.
+ */
+public class ExponentialBackoff
+    implements RetryPolicy
+{
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    public static final long DEFAULT_BUDGET = TimeUnit.MINUTES.toMillis( 10 );
+
+    private static final long DEFAULT_BASE_DELAY = TimeUnit.SECONDS.toMillis( 1 );
+
+    private static final long DEFAULT_MAX_DELAY = TimeUnit.SECONDS.toMillis( 30 );
+
+    private final long baseDelay;
+
+    private final long maxDelay;
+
+    private final int maxRetries;
+
+    private final long budget;
+
+    public ExponentialBackoff()
+    {
+        this( DEFAULT_MAX_RETRIES, DEFAULT_BUDGET );
+    }
+
+    /**
+     * @param maxRetries the maximum number of times a chunk is retried
+     * @param budget the time in milliseconds, measured from the start of the translation, after which no further
+     *               retries are attempted
+     */
+    public ExponentialBackoff( int maxRetries, long budget )
+    {
+        this( DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, maxRetries, budget );
+    }
+
+    /**
+     * @param baseDelay the upper bound in milliseconds of the first delay
+     * @param maxDelay the upper bound in milliseconds of any delay, other than one requested by the server
+     * @param maxRetries the maximum number of times a chunk is retried
+     * @param budget the time in milliseconds, measured from the start of the translation, after which no further
+     *               retries are attempted
+     */
+    public ExponentialBackoff( long baseDelay, long maxDelay, int maxRetries, long budget )
+    {
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.maxRetries = maxRetries;
+        this.budget = budget;
+    }
+
+    @Override
+    public long getDelay( int retries, long retryAfter, long elapsed )
+    {
+        if ( retries >= maxRetries )
+        {
+            return -1;
+        }
+
+        // Avoid overflow ; by this point the cap applies anyway.
+        final long ceiling = retries >= 30 ? maxDelay : Math.min( maxDelay, baseDelay << retries );
+        final long delay = Math.max( retryAfter, ThreadLocalRandom.current().nextLong( ceiling + 1 ) );
+
+        return elapsed + delay > budget ? -1 : delay;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import java.util.Arrays;
+
+/**
+ * Decides when a chunk that has not yet been answered is sent a second time. The delay is the given percentile of
+ * the latencies observed for recent requests, so only the slowest requests are hedged; no request is hedged until
+ * enough latencies have been observed. The proportion of requests that may be hedged is capped to protect the
+ * server.
+ * <p>
+ * Instances are shared by all concurrently running chunks of a translator.
+ */
+public class HedgePolicy
+{
+    /**
+     * The number of recent latencies the percentile is calculated from.
+     */
+    static final int WINDOW = 100;
+
+    /**
+     * The number of latencies that must be observed before any request is hedged.
+     */
+    static final int MIN_SAMPLES = 10;
+
+    private final double percentile;
+
+    private final double maxRatio;
+
+    private final String alternateUrl;
+
+    private final long[] latencies = new long[WINDOW];
+
+    private int samples;
+
+    private long requests;
+
+    private long hedges;
+
+    /**
+     * @param percentile the percentile of observed latency, between 0 and 100, after which a request is hedged
+     * @param maxRatio the maximum proportion of requests that may be hedged
+     * @param alternateUrl the endpoint to send hedged requests to, or null to use the same endpoint
+     */
+    public HedgePolicy( double percentile, double maxRatio, String alternateUrl )
+    {
+        this.percentile = Math.max( 0, Math.min( 100, percentile ) );
+        this.maxRatio = maxRatio;
+        this.alternateUrl = alternateUrl;
+    }
+
+    /**
+     * Records a request and returns how long to wait for it before hedging.
+     *
+     * @return the delay in milliseconds, or -1 if the request should not be hedged.
+     */
+    synchronized long requested()
+    {
+        requests++;
+
+        if ( samples < MIN_SAMPLES )
+        {
+            return -1;
+        }
+
+        final int count = Math.min( samples, WINDOW );
+        final long[] sorted = Arrays.copyOf( latencies, count );
+        Arrays.sort( sorted );
+
+        final int index = (int) Math.ceil( percentile / 100 * count ) - 1;
+        return sorted[Math.max( 0, Math.min( count - 1, index ) )];
+    }
+
+    /**
+     * Claims a hedge, provided that doing so keeps the proportion of hedged requests within the cap.
+     *
+     * @return true if the request may be hedged.
+     */
+    synchronized boolean tryHedge()
+    {
+        if ( hedges + 1 > maxRatio * requests )
+        {
+            return false;
+        }
+        hedges++;
+        return true;
+    }
+
+    /**
+     * @param elapsed the time in milliseconds an answered request took
+     */
+    synchronized void record( long elapsed )
+    {
+        latencies[samples++ % WINDOW] = elapsed;
+    }
+
+    /**
+     * @return the endpoint to send hedged requests to, or null to use the same endpoint.
+     */
+    String getAlternateUrl()
+    {
+        return alternateUrl;
+    }
+
+    synchronized long getHedges()
+    {
+        return hedges;
+    }
+}
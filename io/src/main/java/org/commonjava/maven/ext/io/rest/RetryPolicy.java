@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+/**
+ * Decides whether, and after how long, a chunk that the server reported as unavailable is retried.
+ */
+public interface RetryPolicy
+{
+    /**
+     * @param retries the number of times this chunk has already been retried
+     * @param retryAfter the delay in milliseconds requested by the server through a Retry-After header, or -1
+     * @param elapsed the time in milliseconds since the translation started
+     * @return the delay in milliseconds before retrying, or -1 to give up.
+     */
+    long getDelay( int retries, long retryAfter, long elapsed );
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang.StringUtils;
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.ext.io.CacheLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional on-disk cache of version translations, shared between builds on the same machine. Entries are keyed by
+ * the endpoint, protocol, repository group and version suffix plus the GAV. Both translations and the absence of
+ * one are cached, the latter with a shorter time to live.
+ * <p>
+ * Each groupId:artifactId is stored in its own file with one line per version. Access is guarded by a lock file
+ * within the cache directory so that concurrent builds do not see partially written entries. Any I/O problem with
+ * the cache is logged and treated as a cache miss.
+ */
+public class TranslationCache
+{
+    /**
+     * The directory to store the cache in. The cache is disabled unless this is set.
+     */
+    public static final String REST_CACHE_DIR = "restCacheDir";
+
+    /**
+     * The time in seconds that a cached translation is used without consulting the endpoint.
+     */
+    public static final String REST_CACHE_TTL = "restCacheTTL";
+
+    /**
+     * The time in seconds that a GAV with no translation is remembered for.
+     */
+    public static final String REST_CACHE_NEGATIVE_TTL = "restCacheNegativeTTL";
+
+    /**
+     * If true, ignore any existing entries and refresh them from the endpoint.
+     */
+    public static final String REST_CACHE_REFRESH = "restCacheRefresh";
+
+    private static final String DEFAULT_TTL = "3600";
+
+    private static final String DEFAULT_NEGATIVE_TTL = "300";
+
+    private static final char SEPARATOR = '\t';
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final File cacheDir;
+
+    private final long ttl;
+
+    private final long negativeTtl;
+
+    private final boolean refresh;
+
+    public TranslationCache( File cacheDir, long ttl, long negativeTtl, TimeUnit unit, boolean refresh,
+                             String endpointUrl, Translator.RestProtocol protocol, String repositoryGroup,
+                             String versionSuffix )
+    {
+        final String key = endpointUrl + '\n' + protocol + '\n' + StringUtils.defaultString( repositoryGroup ) + '\n'
+                        + StringUtils.defaultString( versionSuffix );
+
+        this.cacheDir = new File( cacheDir, DigestUtils.sha1Hex( key ) );
+        this.ttl = unit.toMillis( ttl );
+        this.negativeTtl = unit.toMillis( negativeTtl );
+        this.refresh = refresh;
+    }
+
+    /**
+     * Creates a cache from the user properties.
+     *
+     * @param userProps the user properties
+     * @param endpointUrl the REST endpoint
+     * @param protocol the REST protocol
+     * @param repositoryGroup the repository group passed to the endpoint
+     * @param versionSuffix the version suffix passed to the endpoint
+     * @return a cache, or null if caching has not been configured.
+     */
+    public static TranslationCache create( Properties userProps, String endpointUrl, Translator.RestProtocol protocol,
+                                           String repositoryGroup, String versionSuffix )
+    {
+        final String dir = userProps.getProperty( REST_CACHE_DIR );
+
+        if ( StringUtils.isEmpty( dir ) )
+        {
+            return null;
+        }
+
+        return new TranslationCache( new File( dir ),
+                                     Long.parseLong( userProps.getProperty( REST_CACHE_TTL, DEFAULT_TTL ) ),
+                                     Long.parseLong( userProps.getProperty( REST_CACHE_NEGATIVE_TTL,
+                                                                            DEFAULT_NEGATIVE_TTL ) ),
+                                     TimeUnit.SECONDS,
+                                     Boolean.parseBoolean( userProps.getProperty( REST_CACHE_REFRESH ) ),
+                                     endpointUrl, protocol, repositoryGroup, versionSuffix );
+    }
+
+    /**
+     * @param projects the GAVs to look up
+     * @return the fresh entries found ; an empty value records that the endpoint had no translation.
+     */
+    public synchronized Map<ProjectVersionRef, Optional<String>> get( Collection<ProjectVersionRef> projects )
+    {
+        final Map<ProjectVersionRef, Optional<String>> result = new HashMap<>();
+
+        if ( refresh )
+        {
+            return result;
+        }
+
+        final long now = System.currentTimeMillis();
+
+        try ( CacheLock ignored = CacheLock.lock( cacheDir, true ) )
+        {
+            for ( Map.Entry<ProjectRef, List<ProjectVersionRef>> ga : byGA( projects ).entrySet() )
+            {
+                final Map<String, Entry> entries = read( ga.getKey() );
+
+                for ( ProjectVersionRef project : ga.getValue() )
+                {
+                    final Entry entry = entries.get( project.getVersionString() );
+
+                    if ( entry != null && now - entry.timestamp <= ( entry.version == null ? negativeTtl : ttl ) )
+                    {
+                        result.put( project, Optional.ofNullable( entry.version ) );
+                    }
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to read REST cache {} ; ignoring ({})", cacheDir, e.getMessage() );
+            result.clear();
+        }
+
+        logger.debug( "Found {} of {} GAVs in the REST cache", result.size(), projects.size() );
+        return result;
+    }
+
+    /**
+     * Stores the outcome of a lookup.
+     *
+     * @param projects the GAVs that were looked up
+     * @param translations the translations returned ; any GAV without one is recorded as having no translation.
+     */
+    public synchronized void put( Collection<ProjectVersionRef> projects, Map<ProjectVersionRef, String> translations )
+    {
+        final long now = System.currentTimeMillis();
+
+        try ( CacheLock ignored = CacheLock.lock( cacheDir, false ) )
+        {
+            for ( Map.Entry<ProjectRef, List<ProjectVersionRef>> ga : byGA( projects ).entrySet() )
+            {
+                final Map<String, Entry> entries = read( ga.getKey() );
+
+                for ( ProjectVersionRef project : ga.getValue() )
+                {
+                    entries.put( project.getVersionString(), new Entry( translations.get( project ), now ) );
+                }
+                write( ga.getKey(), entries );
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Unable to write REST cache {} ; ignoring ({})", cacheDir, e.getMessage() );
+        }
+    }
+
+    private Map<ProjectRef, List<ProjectVersionRef>> byGA( Collection<ProjectVersionRef> projects )
+    {
+        final Map<ProjectRef, List<ProjectVersionRef>> result = new LinkedHashMap<>();
+
+        for ( ProjectVersionRef project : projects )
+        {
+            result.computeIfAbsent( project.asProjectRef(), k -> new ArrayList<>() ).add( project );
+        }
+        return result;
+    }
+
+    private File getFile( ProjectRef ga )
+    {
+        return new File( new File( cacheDir, ga.getGroupId() ), ga.getArtifactId() + ".txt" );
+    }
+
+    /**
+     * Each line holds the version, the translation (empty if there was none) and the time it was stored.
+     */
+    private Map<String, Entry> read( ProjectRef ga )
+                    throws IOException
+    {
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        final File file = getFile( ga );
+
+        if ( file.exists() )
+        {
+            for ( String line : Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 ) )
+            {
+                final String[] fields = StringUtils.splitPreserveAllTokens( line, SEPARATOR );
+
+                if ( fields.length != 3 )
+                {
+                    logger.debug( "Ignoring malformed REST cache line '{}' in {}", line, file );
+                    continue;
+                }
+                try
+                {
+                    entries.put( fields[0], new Entry( StringUtils.trimToNull( fields[1] ), Long.parseLong( fields[2] ) ) );
+                }
+                catch ( NumberFormatException e )
+                {
+                    logger.debug( "Ignoring malformed REST cache line '{}' in {}", line, file );
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void write( ProjectRef ga, Map<String, Entry> entries )
+                    throws IOException
+    {
+        final File file = getFile( ga );
+        final List<String> lines = new ArrayList<>( entries.size() );
+
+        for ( Map.Entry<String, Entry> e : entries.entrySet() )
+        {
+            lines.add( e.getKey() + SEPARATOR + StringUtils.defaultString( e.getValue().version ) + SEPARATOR
+                                       + e.getValue().timestamp );
+        }
+
+        Files.createDirectories( file.getParentFile().toPath() );
+
+        final File temp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+        try
+        {
+            Files.write( temp.toPath(), lines, StandardCharsets.UTF_8 );
+            Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        finally
+        {
+            Files.deleteIfExists( temp.toPath() );
+        }
+    }
+
+    private static final class Entry
+    {
+        private final String version;
+
+        private final long timestamp;
+
+        private Entry( String version, long timestamp )
+        {
+            this.version = version;
+            this.timestamp = timestamp;
+        }
+    }
+}
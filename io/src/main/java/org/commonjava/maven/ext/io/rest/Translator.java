@@ -19,6 +19,7 @@ import org.commonjava.maven.atlas.ident.ref.ProjectRef;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.common.ManipulationException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -37,8 +38,30 @@ public interface Translator
      */
     Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects );
 
+    /**
+     * As {@link #translateVersions(List)}, additionally reporting the GAVs that the service did not give a definite
+     * answer for (for instance because the response carried an error message). Their absence from the result does
+     * not mean that they have no translation.
+     *
+     * @param projects - List of projects (GAVs)
+     * @param unanswered - receives the GAVs that were not answered definitively
+     * @return Map of ProjectVersionRef objects as keys and translated versions as values
+     */
+    default Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects,
+                                                              Collection<ProjectVersionRef> unanswered )
+    {
+        return translateVersions( projects );
+    }
+
     List<ProjectVersionRef> findBlacklisted( ProjectRef project );
 
+    /**
+     * Releases any resources, such as pooled connections, held by the translator.
+     */
+    default void finish()
+    {
+    }
+
     enum RestProtocol
     {
         // These two are equivalent. Keeping current for backwards compatibility.
@@ -15,7 +15,6 @@
  */
 package org.commonjava.maven.ext.io.rest.mapper;
 
-import com.mashape.unirest.http.ObjectMapper;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.maven.ext.io.rest.Translator.RestProtocol;
@@ -24,23 +23,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
+ * Reads the responses of blacklist lookups.
+ *
  * Created by rnc on 06/06/17.
  */
 public class ListingBlacklistMapper
-                implements ObjectMapper
 {
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper
                     = new com.fasterxml.jackson.databind.ObjectMapper();
 
-    private String errorString;
-
     private RestProtocol protocol;
 
     public ListingBlacklistMapper( RestProtocol protocol )
@@ -48,19 +45,21 @@ public class ListingBlacklistMapper
         this.protocol = protocol;
     }
 
-    @Override
-    public Object readValue( String s )
+    /**
+     * Reads a response body, which is either a list of GAVs or an error message.
+     *
+     * @param s the response body
+     * @param result receives the blacklisted GAVs
+     * @return the error message, or null if a list was read.
+     */
+    public String readResponse( String s, List<ProjectVersionRef> result )
     {
-        List<ProjectVersionRef> result = new ArrayList<>();
-
-        // Workaround for https://github.com/Mashape/unirest-java/issues/122
-        // Rather than throwing an exception we return an empty body which allows
-        // DefaultTranslator to examine the status codes.
+        // Rather than throwing an exception we return the message, which allows DefaultTranslator to examine the
+        // status codes.
 
         if (s.length() == 0)
         {
-            errorString = "No content to read.";
-            return result;
+            return "No content to read.";
         }
         else if (s.startsWith( "<" ))
         {
@@ -68,17 +67,16 @@ public class ListingBlacklistMapper
             String stripped = s.replaceFirst( ".*</h1>\n", "").replaceFirst( "\n</body></html>", "" );
             logger.debug( "Read HTML string '{}' rather than a JSON stream; stripping message to {}", s, stripped );
 
-            errorString = stripped;
-            return result;
+            return stripped;
         }
         else if (s.startsWith( "{\\\"message\\\":" ) || s.startsWith( "{\"message\":" ))
         {
             String endStripped = s.replace( "\\\"}", "" ).replace( "\"}", "" );
-            errorString = endStripped.substring( endStripped.lastIndexOf( "\"" ) + 1 );
+            String error = endStripped.substring( endStripped.lastIndexOf( "\"" ) + 1 );
 
-            logger.debug( "Read message string {}, processed to {} ", s, errorString );
+            logger.debug( "Read message string {}, processed to {} ", s, error );
 
-            return result;
+            return error;
         }
 
         List<Map<String, Object>> responseBody;
@@ -102,17 +100,6 @@ public class ListingBlacklistMapper
             result.add ( project );
         }
 
-        return result;
-    }
-
-    @Override
-    public String writeValue( Object value )
-    {
-        throw new RestException( "Fatal: Should not be overriding writeObject for ListingBlacklistMapper" );
-    }
-
-    public String getErrorString()
-    {
-        return errorString;
+        return null;
     }
 }
@@ -15,8 +15,12 @@
  */
 package org.commonjava.maven.ext.io.rest.mapper;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.mashape.unirest.http.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.commons.io.IOUtils;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.maven.ext.io.rest.Translator;
@@ -24,29 +28,36 @@ import org.commonjava.maven.ext.io.rest.exception.RestException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.apache.commons.lang.StringUtils.containsIgnoreCase;
+import static org.apache.commons.lang.StringUtils.isNotEmpty;
+
 /**
+ * Writes version lookup requests and reads their responses with the Jackson streaming API, so that neither an
+ * intermediate map per GAV nor a tree of the response is built.
+ *
  * @author vdedik@redhat.com
  */
 public class ReportGAVMapper
-                implements ObjectMapper
 {
     private final Logger logger = LoggerFactory.getLogger( getClass() );
 
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper
         = new com.fasterxml.jackson.databind.ObjectMapper();
 
+    private final JsonFactory factory = objectMapper.getFactory();
+
     private final String repositoryGroup;
 
     private final String versionSuffix;
 
-    private String errorString;
-
     private Translator.RestProtocol protocol;
 
     public ReportGAVMapper( Translator.RestProtocol protocol, String repositoryGroup, String incrementalSerialSuffix )
@@ -56,105 +67,268 @@ public class ReportGAVMapper
         this.versionSuffix = incrementalSerialSuffix;
     }
 
-    @Override
-    public Map<ProjectVersionRef, String> readValue( String s )
+    /**
+     * Serialises the request for the given projects.
+     *
+     * @param projects the projects to look up
+     * @return the UTF-8 encoded request body.
+     */
+    public byte[] writeRequest( List<ProjectVersionRef> projects )
+    {
+        if ( protocol != Translator.RestProtocol.CURRENT )
+        {
+            throw new RestException( "Unknown protocol value " + protocol );
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream( 64 + projects.size() * 96 );
+
+        // Matches the serialisation of GAVSchema, which omits empty fields.
+        try ( JsonGenerator generator = factory.createGenerator( out ) )
+        {
+            generator.writeStartObject();
+            if ( isNotEmpty( versionSuffix ) )
+            {
+                generator.writeStringField( "versionSuffix", versionSuffix );
+            }
+            if ( isNotEmpty( repositoryGroup ) )
+            {
+                generator.writeStringField( "repositoryGroup", repositoryGroup );
+            }
+            generator.writeArrayFieldStart( "gavs" );
+            for ( ProjectVersionRef project : projects )
+            {
+                generator.writeStartObject();
+                generator.writeStringField( "groupId", project.getGroupId() );
+                generator.writeStringField( "artifactId", project.getArtifactId() );
+                generator.writeStringField( "version", project.getVersionString() );
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        catch ( IOException e )
+        {
+            throw new RestException( "Failed to serialize version request: " + e.getMessage(), e );
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a successful response. JSON content is parsed as it is read ; anything else is examined for an error
+     * message, which is logged.
+     *
+     * @param body the response body, may be null
+     * @param contentType the response content type, may be null
+     * @return the best matching version for each project that has one.
+     */
+    public Map<ProjectVersionRef, String> readResponse( InputStream body, String contentType )
     {
-        Map<ProjectVersionRef, String> result = new HashMap<>();
+        final Map<ProjectVersionRef, String> result = new HashMap<>();
+
+        readResponse( body, contentType, result );
+
+        return result;
+    }
+
+    /**
+     * Reads a successful response as {@link #readResponse(InputStream, String)} does, also returning any error
+     * message the body carried in place of, or as well as, the versions.
+     *
+     * @param body the response body, may be null
+     * @param contentType the response content type, may be null
+     * @param result receives the best matching version for each project that has one.
+     * @return the error message, or null if there was none.
+     */
+    public String readResponse( InputStream body, String contentType, Map<ProjectVersionRef, String> result )
+    {
+        final String error;
+
+        if ( isJson( contentType ) && body != null )
+        {
+            try ( JsonParser parser = factory.createParser( body ) )
+            {
+                error = parse( parser, result );
+            }
+            catch ( IOException e )
+            {
+                logger.error( "Failed to decode response of type {}", contentType );
+                throw new RestException( "Failed to read list-of-maps response from version server: " + e.getMessage(), e );
+            }
+        }
+        else
+        {
+            error = read( toString( body ), result );
+        }
+
+        if ( error != null )
+        {
+            logger.debug( "Read error message '{}' from successful response", error );
+        }
+        return error;
+    }
+
+    /**
+     * Reads the message from an unsuccessful response.
+     *
+     * @param body the response body, may be null
+     * @param contentType the response content type, may be null
+     * @return the error message.
+     */
+    public String readError( InputStream body, String contentType )
+    {
+        final String s = toString( body );
+
+        if ( s.isEmpty() || !isJson( contentType ) )
+        {
+            return read( s, new HashMap<>() );
+        }
+
+        try ( JsonParser parser = factory.createParser( s ) )
+        {
+            final String error = parse( parser, new HashMap<>() );
+
+            logger.debug( "Read message string {}, processed to {} ", s, error );
 
-        // Workaround for https://github.com/Mashape/unirest-java/issues/122
-        // Rather than throwing an exception we return an empty body which allows
-        // DefaultTranslator to examine the status codes.
+            return error == null ? s.trim() : error;
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "Failed to decode error response '{}'", s, e );
+            return s.trim();
+        }
+    }
+
+    /**
+     * Reads a buffered response of unknown type, which may be HTML or JSON.
+     *
+     * @return the error message if the response was not a list of versions, otherwise null.
+     */
+    private String read( String s, Map<ProjectVersionRef, String> result )
+    {
+        // Rather than throwing an exception we return the message, which allows DefaultTranslator to examine the
+        // status codes.
 
         if ( s.length() == 0 )
         {
-            errorString = "No content to read.";
-            return result;
+            return "No content to read.";
         }
         else if ( s.startsWith( "<" ) )
         {
             // Read an HTML string.
             String stripped = s.replaceAll( "<.*?>", "" ).replaceAll( "\n", " " ).trim();
             logger.debug( "Read HTML string '{}' rather than a JSON stream; stripping message to '{}'", s, stripped );
-            errorString = stripped;
-            return result;
+            return stripped;
         }
 
-        try
+        try ( JsonParser parser = factory.createParser( s ) )
         {
-            if ( s.startsWith( "{\"" ) )
-            {
-                errorString = objectMapper.readValue( s, ErrorMessage.class ).toString();
-
-                logger.debug( "Read message string {}, processed to {} ", s, errorString );
-
-                return result;
-            }
-
-            @SuppressWarnings( "unchecked" ) List<Map<String, Object>> responseBody = objectMapper.readValue( s, List.class );
+            final String error = parse( parser, result );
 
-            for ( Map<String, Object> gav : responseBody )
+            if ( error != null )
             {
-                String groupId = (String) gav.get( "groupId" );
-                String artifactId = (String) gav.get( "artifactId" );
-                String version = (String) gav.get( "version" );
-                String bestMatchVersion = (String) gav.get( "bestMatchVersion" );
-
-                if ( bestMatchVersion != null )
-                {
-                    ProjectVersionRef project = new SimpleProjectVersionRef( groupId, artifactId, version );
-                    result.put( project, bestMatchVersion );
-                }
+                logger.debug( "Read message string {}, processed to {} ", s, error );
             }
+            return error;
         }
         catch ( IOException e )
         {
             logger.error( "Failed to decode map when reading string {}", s );
             throw new RestException( "Failed to read list-of-maps response from version server: " + e.getMessage(), e );
         }
-
-        return result;
     }
 
-    @Override
-    public String writeValue( Object value )
+    /**
+     * Parses either a list of GAVs, adding those with a best match version to the result, or an error message.
+     *
+     * @return the error message, or null if a list was read.
+     */
+    private String parse( JsonParser parser, Map<ProjectVersionRef, String> result )
+                    throws IOException
     {
-        @SuppressWarnings( "unchecked" )
-        List<ProjectVersionRef> projects = (List<ProjectVersionRef>) value;
-        Object request;
+        JsonToken token = parser.nextToken();
 
-        List<Map<String, Object>> requestBody = new ArrayList<>();
-
-        for ( ProjectVersionRef project : projects )
+        if ( token == null )
         {
-            Map<String, Object> gav = new HashMap<>();
-            gav.put( "groupId", project.getGroupId() );
-            gav.put( "artifactId", project.getArtifactId() );
-            gav.put( "version", project.getVersionString() );
-
-            requestBody.add( gav );
+            return "No content to read.";
         }
-
-        if ( protocol == Translator.RestProtocol.CURRENT )
+        else if ( token == JsonToken.START_OBJECT )
         {
-            request = new GAVSchema( new String[]{}, new String[]{}, repositoryGroup, versionSuffix, requestBody );
+            return objectMapper.readValue( parser, ErrorMessage.class ).toString();
         }
-        else
+        else if ( token != JsonToken.START_ARRAY )
         {
-            throw new RestException( "Unknown protocol value " + protocol );
+            throw new JsonParseException( parser, "Expected a list of GAVs but found " + token );
         }
 
-        try
+        while ( ( token = parser.nextToken() ) == JsonToken.START_OBJECT )
         {
-            return objectMapper.writeValueAsString( request );
+            String groupId = null;
+            String artifactId = null;
+            String version = null;
+            String bestMatchVersion = null;
+
+            while ( parser.nextToken() == JsonToken.FIELD_NAME )
+            {
+                final String field = parser.getCurrentName();
+
+                if ( parser.nextToken().isStructStart() )
+                {
+                    // e.g. availableVersions
+                    parser.skipChildren();
+                    continue;
+                }
+
+                switch ( field )
+                {
+                    case "groupId":
+                        groupId = parser.getValueAsString();
+                        break;
+                    case "artifactId":
+                        artifactId = parser.getValueAsString();
+                        break;
+                    case "version":
+                        version = parser.getValueAsString();
+                        break;
+                    case "bestMatchVersion":
+                        bestMatchVersion = parser.getValueAsString();
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            if ( bestMatchVersion != null )
+            {
+                result.put( new SimpleProjectVersionRef( groupId, artifactId, version ), bestMatchVersion );
+            }
         }
-        catch ( JsonProcessingException e )
+
+        if ( token != JsonToken.END_ARRAY )
         {
-            throw new RestException( "Failed to serialize version request: " + e.getMessage(), e );
+            throw new JsonParseException( parser, "Expected a GAV but found " + token );
         }
+        return null;
+    }
+
+    private static boolean isJson( String contentType )
+    {
+        return containsIgnoreCase( contentType, "json" );
     }
 
-    public String getErrorString()
+    private static String toString( InputStream body )
     {
-        return errorString;
+        if ( body == null )
+        {
+            return "";
+        }
+        try
+        {
+            return IOUtils.toString( body, StandardCharsets.UTF_8 );
+        }
+        catch ( IOException e )
+        {
+            throw new RestException( "Failed to read response from version server: " + e.getMessage(), e );
+        }
     }
 }
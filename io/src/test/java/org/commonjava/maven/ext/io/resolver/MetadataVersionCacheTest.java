@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetadataVersionCacheTest
+{
+    private static final ProjectRef GA = new SimpleProjectRef( "org.foo", "bar" );
+
+    private static final List<Location> REPOS = Collections.singletonList( new SimpleLocation( "central", "http://repo.example.com/maven2" ) );
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testDisabledWithoutDirectory()
+    {
+        assertNull( MetadataVersionCache.create( new Properties(), REPOS ) );
+    }
+
+    @Test
+    public void testStoreAndRetrieve()
+        throws Exception
+    {
+        final Properties props = new Properties();
+        props.setProperty( MetadataVersionCache.METADATA_CACHE_DIR, temp.getRoot().getAbsolutePath() );
+        final MetadataVersionCache cache = MetadataVersionCache.create( props, REPOS );
+
+        assertNull( cache.get( GA ) );
+
+        cache.put( GA, Arrays.asList( "1.0", "1.1" ) );
+        assertEquals( Arrays.asList( "1.0", "1.1" ), cache.get( GA ) );
+
+        // A second build on the same machine sees the entry.
+        assertEquals( Arrays.asList( "1.0", "1.1" ), MetadataVersionCache.create( props, REPOS ).get( GA ) );
+
+        // Empty lists are not stored as the repositories may simply have been unreachable.
+        cache.put( GA, Collections.emptyList() );
+        assertEquals( Arrays.asList( "1.0", "1.1" ), cache.get( GA ) );
+        assertNull( cache.get( new SimpleProjectRef( "org.foo", "empty" ) ) );
+        cache.put( new SimpleProjectRef( "org.foo", "empty" ), Collections.emptyList() );
+        assertNull( cache.get( new SimpleProjectRef( "org.foo", "empty" ) ) );
+    }
+
+    @Test
+    public void testKeyedByRepositories()
+    {
+        final MetadataVersionCache cache = new MetadataVersionCache( temp.getRoot(), 1, TimeUnit.HOURS, false, REPOS );
+        final MetadataVersionCache other = new MetadataVersionCache( temp.getRoot(), 1, TimeUnit.HOURS, false,
+                                                                     Collections.singletonList( new SimpleLocation( "other", "http://other.example.com" ) ) );
+
+        cache.put( GA, Collections.singletonList( "1.0" ) );
+
+        assertNull( other.get( GA ) );
+        assertNull( cache.get( new SimpleProjectRef( "org.foo", "baz" ) ) );
+    }
+
+    @Test
+    public void testExpiryAndRevalidation()
+    {
+        final MetadataVersionCache cache = new MetadataVersionCache( temp.getRoot(), 1, TimeUnit.HOURS, false, REPOS );
+        cache.put( GA, Collections.singletonList( "1.0" ) );
+
+        final File entry = findEntry( temp.getRoot() );
+        assertTrue( entry.setLastModified( System.currentTimeMillis() - TimeUnit.HOURS.toMillis( 2 ) ) );
+        assertNull( cache.get( GA ) );
+
+        // Revalidating with the same versions only refreshes the entry.
+        cache.put( GA, Collections.singletonList( "1.0" ) );
+        assertEquals( Collections.singletonList( "1.0" ), cache.get( GA ) );
+    }
+
+    @Test
+    public void testForceRefresh()
+    {
+        new MetadataVersionCache( temp.getRoot(), 1, TimeUnit.HOURS, false, REPOS ).put( GA, Collections.singletonList( "1.0" ) );
+
+        final MetadataVersionCache refresh = new MetadataVersionCache( temp.getRoot(), 1, TimeUnit.HOURS, true, REPOS );
+        assertNull( refresh.get( GA ) );
+
+        refresh.put( GA, Arrays.asList( "1.0", "2.0" ) );
+        assertEquals( Arrays.asList( "1.0", "2.0" ),
+                      new MetadataVersionCache( temp.getRoot(), 1, TimeUnit.HOURS, false, REPOS ).get( GA ) );
+    }
+
+    private File findEntry( final File dir )
+    {
+        final File[] files = dir.listFiles();
+        for ( final File f : files == null ? new File[0] : files )
+        {
+            if ( f.isDirectory() )
+            {
+                final File found = findEntry( f );
+                if ( found != null )
+                {
+                    return found;
+                }
+            }
+            else if ( f.getName().endsWith( ".txt" ) )
+            {
+                return f;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
+import org.commonjava.maven.galley.maven.model.view.DocRef;
+import org.commonjava.maven.galley.maven.model.view.XPathManager;
+import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
+import org.commonjava.maven.galley.maven.parse.XMLInfrastructure;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MetadataVersionReaderTest
+{
+    private static final String CENTRAL =
+                    "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                    "<metadata>\n" +
+                    "  <groupId>org.foo</groupId>\n" +
+                    "  <artifactId>bar</artifactId>\n" +
+                    "  <version>1.0</version>\n" +
+                    "  <versioning>\n" +
+                    "    <latest>2.0</latest>\n" +
+                    "    <release>2.0</release>\n" +
+                    "    <versions>\n" +
+                    "      <version>1.0</version>\n" +
+                    "      <version> 1.1 </version>\n" +
+                    "      <version></version>\n" +
+                    "      <version>2.0</version>\n" +
+                    "    </versions>\n" +
+                    "    <lastUpdated>20180101000000</lastUpdated>\n" +
+                    "  </versioning>\n" +
+                    "</metadata>\n";
+
+    private static final String LOCAL =
+                    "<metadata xmlns=\"http://maven.apache.org/METADATA/1.1.0\">\n" +
+                    "  <versioning>\n" +
+                    "    <versions><version>2.0</version><version>2.1.redhat-1</version></versions>\n" +
+                    "    <snapshotVersions><snapshotVersion><version>3.0-SNAPSHOT</version></snapshotVersion></snapshotVersions>\n" +
+                    "  </versioning>\n" +
+                    "  <plugins><versioning><versions><version>9.9</version></versions></versioning></plugins>\n" +
+                    "</metadata>\n";
+
+    @Test
+    public void testReadVersions()
+        throws Exception
+    {
+        final Set<String> versions = new LinkedHashSet<>();
+
+        MetadataVersionReader.readVersions( stream( CENTRAL ), versions );
+        assertEquals( Arrays.asList( "1.0", "1.1", "2.0" ), new ArrayList<>( versions ) );
+
+        MetadataVersionReader.readVersions( stream( LOCAL ), versions );
+        assertEquals( Arrays.asList( "1.0", "1.1", "2.0", "2.1.redhat-1" ), new ArrayList<>( versions ) );
+    }
+
+    @Test
+    public void testMatchesXPath()
+        throws Exception
+    {
+        final XMLInfrastructure xml = new XMLInfrastructure();
+        final ProjectRef ref = new SimpleProjectRef( "org.foo", "bar" );
+        final List<DocRef<ProjectRef>> docs = new ArrayList<>();
+        final Set<String> versions = new LinkedHashSet<>();
+
+        for ( String doc : Arrays.asList( CENTRAL, LOCAL.replace( " xmlns=\"http://maven.apache.org/METADATA/1.1.0\"", "" ) ) )
+        {
+            docs.add( new DocRef<>( ref, doc, xml.parseDocument( doc, stream( doc ) ) ) );
+            MetadataVersionReader.readVersions( stream( doc ), versions );
+        }
+
+        final List<String> expected = new MavenMetadataView( docs, new XPathManager(), xml ).resolveXPathToAggregatedStringList(
+                        "/metadata/versioning/versions/version", true, -1 )
+                                                                                           .stream()
+                                                                                           .map( String::trim )
+                                                                                           .filter( v -> !v.isEmpty() )
+                                                                                           .distinct()
+                                                                                           .collect( Collectors.toList() );
+
+        assertEquals( expected, new ArrayList<>( versions ) );
+    }
+
+    @Test
+    public void testExternalEntitiesNotResolved()
+    {
+        final String doc = "<?xml version=\"1.0\"?>\n" +
+                        "<!DOCTYPE metadata [ <!ENTITY xxe SYSTEM \"file:///etc/hostname\"> ]>\n" +
+                        "<metadata><versioning><versions><version>&xxe;</version></versions></versioning></metadata>";
+        final Set<String> versions = new LinkedHashSet<>();
+        try
+        {
+            MetadataVersionReader.readVersions( stream( doc ), versions );
+            fail( "Expected undefined entity to be rejected" );
+        }
+        catch ( XMLStreamException e )
+        {
+            assertTrue( versions.isEmpty() );
+        }
+    }
+
+    @Test( expected = XMLStreamException.class )
+    public void testMalformed()
+        throws Exception
+    {
+        MetadataVersionReader.readVersions( stream( "<metadata><versioning>" ), new ArrayList<>() );
+    }
+
+    private InputStream stream( String doc )
+    {
+        return new ByteArrayInputStream( doc.getBytes( StandardCharsets.UTF_8 ) );
+    }
+}
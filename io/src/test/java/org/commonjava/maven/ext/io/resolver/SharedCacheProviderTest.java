@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.resolver;
+
+import org.apache.commons.io.IOUtils;
+import org.commonjava.maven.galley.event.NoOpFileEventManager;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SharedCacheProviderTest
+{
+    private static final Location REPO = new SimpleLocation( "central", "http://repo.example.com/maven2" );
+
+    private static final ConcreteResource POM = new ConcreteResource( REPO, "org/foo/bar/1.0/bar-1.0.pom" );
+
+    private static final ConcreteResource METADATA = new ConcreteResource( REPO, "org/foo/bar/maven-metadata.xml" );
+
+    private static final long OLD = System.currentTimeMillis() - TimeUnit.DAYS.toMillis( 2 );
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testDisabledWithoutDirectory()
+    {
+        assertNull( SharedCacheProvider.create( new Properties(), new NoOpFileEventManager() ) );
+    }
+
+    @Test
+    public void testSharedBetweenBuilds()
+        throws Exception
+    {
+        final Properties props = new Properties();
+        props.setProperty( SharedCacheProvider.SHARED_CACHE_DIR, temp.getRoot().getAbsolutePath() );
+
+        write( SharedCacheProvider.create( props, new NoOpFileEventManager() ), POM, "pom" );
+
+        final SharedCacheProvider next = SharedCacheProvider.create( props, new NoOpFileEventManager() );
+        assertTrue( next.exists( POM ) );
+        assertEquals( "pom", read( next, POM ) );
+
+        // Only the entry itself is left in its directory.
+        final File[] files = new File( next.getFilePath( POM ) ).getParentFile().listFiles();
+        assertEquals( 1, files == null ? 0 : files.length );
+    }
+
+    @Test
+    public void testReleasesAreKeptAndMetadataExpires()
+        throws Exception
+    {
+        final SharedCacheProvider cache = newCache( Long.MAX_VALUE );
+        write( cache, POM, "pom" );
+        write( cache, METADATA, "metadata" );
+        age( cache, POM );
+        age( cache, METADATA );
+
+        final SharedCacheProvider next = newCache( Long.MAX_VALUE );
+        assertTrue( next.exists( POM ) );
+        assertEquals( "pom", read( next, POM ) );
+        assertFalse( next.exists( METADATA ) );
+
+        // Once downloaded again it is fresh.
+        write( next, METADATA, "updated" );
+        assertTrue( next.exists( METADATA ) );
+        assertEquals( "updated", read( next, METADATA ) );
+    }
+
+    @Test
+    public void testExpiredEntriesAreNotDeletedFromUnderOtherBuilds()
+        throws Exception
+    {
+        final SharedCacheProvider cache = newCache( Long.MAX_VALUE );
+        final SharedCacheProvider other = newCache( Long.MAX_VALUE );
+        write( cache, METADATA, "metadata" );
+        assertEquals( "metadata", read( cache, METADATA ) );
+        age( cache, METADATA );
+
+        final File file = other.getDetachedFile( METADATA );
+        assertFalse( other.exists( METADATA ) );
+
+        assertTrue( file.isFile() );
+        assertFalse( new File( file.getPath() + ".to-delete" ).exists() );
+        assertTrue( cache.exists( METADATA ) );
+        assertEquals( "metadata", read( cache, METADATA ) );
+    }
+
+    @Test
+    public void testLocalRepositoriesAreNotShared()
+        throws Exception
+    {
+        final ConcreteResource local =
+                        new ConcreteResource( new SimpleLocation( "local", temp.newFolder().toURI().toString() ),
+                                              POM.getPath() );
+        final SharedCacheProvider cache = newCache( Long.MAX_VALUE );
+        write( cache, local, "pom" );
+        age( cache, local );
+
+        assertFalse( newCache( Long.MAX_VALUE ).exists( local ) );
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed()
+        throws Exception
+    {
+        final ConcreteResource other = new ConcreteResource( REPO, "org/foo/baz/1.0/baz-1.0.pom" );
+        final SharedCacheProvider cache = newCache( 5 );
+        write( cache, POM, "1234" );
+        write( cache, METADATA, "1234" );
+        write( cache, other, "1234" );
+        age( cache, POM );
+        age( cache, METADATA );
+        age( cache, other );
+        setAccessed( cache, POM, OLD + 2000 );
+        setAccessed( cache, METADATA, OLD );
+        setAccessed( cache, other, OLD + 1000 );
+
+        final SharedCacheProvider next = newCache( 5 );
+        next.evict();
+
+        assertTrue( next.exists( POM ) );
+        assertFalse( next.exists( METADATA ) );
+        assertFalse( next.exists( other ) );
+    }
+
+    @Test
+    public void testEntriesInUseAreNotEvicted()
+        throws Exception
+    {
+        final SharedCacheProvider cache = newCache( 0 );
+        write( cache, POM, "pom" );
+
+        cache.evict();
+
+        assertTrue( cache.exists( POM ) );
+    }
+
+    private SharedCacheProvider newCache( long maxSize )
+    {
+        return new SharedCacheProvider( temp.getRoot(), 1, TimeUnit.HOURS, maxSize, new NoOpFileEventManager() );
+    }
+
+    private static void write( SharedCacheProvider cache, ConcreteResource resource, String content )
+        throws Exception
+    {
+        try ( OutputStream out = cache.openOutputStream( resource ) )
+        {
+            out.write( content.getBytes( StandardCharsets.UTF_8 ) );
+        }
+        cache.unlockWrite( resource );
+    }
+
+    private static String read( SharedCacheProvider cache, ConcreteResource resource )
+        throws Exception
+    {
+        try ( InputStream in = cache.openInputStream( resource ) )
+        {
+            return IOUtils.toString( in, StandardCharsets.UTF_8 );
+        }
+    }
+
+    private static void age( SharedCacheProvider cache, ConcreteResource resource )
+    {
+        assertTrue( new File( cache.getFilePath( resource ) ).setLastModified( OLD ) );
+        setAccessed( cache, resource, OLD );
+    }
+
+    private static void setAccessed( SharedCacheProvider cache, ConcreteResource resource, long time )
+    {
+        try
+        {
+            Files.getFileAttributeView( new File( cache.getFilePath( resource ) ).toPath(), BasicFileAttributeView.class )
+                 .setTimes( null, FileTime.fromMillis( time ), null );
+        }
+        catch ( Exception e )
+        {
+            throw new AssertionError( e );
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveChunkerTest
+{
+    private static final List<Integer> LIST = IntStream.range( 0, 1000 ).boxed().collect( Collectors.toList() );
+
+    @Test
+    public void testChunksCoverList()
+    {
+        AdaptiveChunker<Integer> chunker = new AdaptiveChunker<>( LIST, 128, 4 );
+        List<Integer> seen = new ArrayList<>();
+
+        while ( chunker.hasNext() )
+        {
+            List<Integer> chunk = chunker.next();
+            assertTrue( chunk.size() <= chunker.getSize() );
+            seen.addAll( chunk );
+            chunker.succeeded( chunk.size(), 1 );
+        }
+        assertEquals( LIST, seen );
+    }
+
+    @Test
+    public void testGrowsAdditivelyWhenFast()
+    {
+        AdaptiveChunker<Integer> chunker = new AdaptiveChunker<>( LIST, 32, 4 );
+
+        assertEquals( 32, chunker.next().size() );
+        chunker.succeeded( 32, 10 );
+        assertEquals( 40, chunker.getSize() );
+        assertEquals( 40, chunker.next().size() );
+        chunker.succeeded( 40, 10 );
+        assertEquals( 48, chunker.getSize() );
+
+        // A chunk sent before the last increase does not grow the size again.
+        chunker.succeeded( 40, 10 );
+        assertEquals( 48, chunker.getSize() );
+    }
+
+    @Test
+    public void testDoesNotGrowWhenSlow()
+    {
+        AdaptiveChunker<Integer> chunker = new AdaptiveChunker<>( LIST, 32, 4 );
+
+        chunker.succeeded( 32, AdaptiveChunker.TARGET_LATENCY + 1 );
+        assertEquals( 32, chunker.getSize() );
+    }
+
+    @Test
+    public void testGrowthIsCapped()
+    {
+        AdaptiveChunker<Integer> chunker = new AdaptiveChunker<>( LIST, 32, 4 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            chunker.succeeded( chunker.getSize(), 10 );
+        }
+        assertEquals( 256, chunker.getSize() );
+    }
+
+    @Test
+    public void testShrinksMultiplicativelyOnFailure()
+    {
+        AdaptiveChunker<Integer> chunker = new AdaptiveChunker<>( LIST, 128, 4 );
+
+        chunker.failed( 128 );
+        assertEquals( 64, chunker.getSize() );
+        // A second failure of a chunk sent at the old size does not shrink it further.
+        chunker.failed( 128 );
+        assertEquals( 64, chunker.getSize() );
+        chunker.failed( 64 );
+        assertEquals( 32, chunker.getSize() );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            chunker.failed( chunker.getSize() );
+        }
+        assertEquals( 4, chunker.getSize() );
+        assertFalse( chunker.next().size() > 4 );
+    }
+}
@@ -15,7 +15,9 @@
  */
 package org.commonjava.maven.ext.io.rest;
 
-import com.mashape.unirest.http.Unirest;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.ext.io.rest.handler.AddSuffixJettyHandler;
@@ -77,9 +79,9 @@ public class BlacklistTranslatorTest
     @Test
     public void testConnection()
     {
-        try
+        try ( CloseableHttpClient client = HttpClients.createDefault() )
         {
-            Unirest.post( mockServer.getUrl() ).asString();
+            client.execute( new HttpPost( mockServer.getUrl() ) ).close();
         }
         catch ( Exception e )
         {
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CachingTranslatorTest
+{
+    private static final ProjectVersionRef EXAMPLE = new SimpleProjectVersionRef( "com.example", "example", "1.0" );
+
+    private static final ProjectVersionRef EXAMPLE_DEP = new SimpleProjectVersionRef( "com.example", "example-dep", "2.0" );
+
+    private static final ProjectVersionRef MISSING = new SimpleProjectVersionRef( "com.example", "example", "1.1" );
+
+    /**
+     * Answers every request successfully, but with an error object rather than a list of versions.
+     */
+    @ClassRule
+    public static MockServer errorServer = new MockServer( new AbstractHandler()
+    {
+        @Override
+        public void handle( String target, Request baseRequest, HttpServletRequest request,
+                            HttpServletResponse response )
+                        throws IOException
+        {
+            response.setStatus( HttpServletResponse.SC_OK );
+            response.setContentType( "application/json" );
+            baseRequest.setHandled( true );
+            response.getWriter().println( "{\"errorType\":\"Communication with remote repository failed\"}" );
+        }
+    } );
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final RecordingTranslator recorder = new RecordingTranslator();
+
+    private File dir;
+
+    @Before
+    public void before()
+    {
+        dir = temp.getRoot();
+        recorder.requests.clear();
+    }
+
+    private TranslationCache newCache( long ttl, long negativeTtl, TimeUnit unit, boolean refresh, String suffix )
+    {
+        return new TranslationCache( dir, ttl, negativeTtl, unit, refresh, "http://da.example.com/",
+                                     Translator.RestProtocol.CURRENT, "", suffix );
+    }
+
+    @Test
+    public void testDisabledWithoutDirectory()
+    {
+        assertNull( TranslationCache.create( new Properties(), "http://da.example.com/",
+                                             Translator.RestProtocol.CURRENT, "", "" ) );
+    }
+
+    @Test
+    public void testOnlyMissesAreSent()
+    {
+        Translator translator = new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) );
+
+        Map<ProjectVersionRef, String> first = translator.translateVersions( Arrays.asList( EXAMPLE, MISSING ) );
+        Map<ProjectVersionRef, String> second = translator.translateVersions( Arrays.asList( EXAMPLE, MISSING, EXAMPLE_DEP ) );
+
+        assertEquals( Collections.singletonMap( EXAMPLE, "1.0.redhat-1" ), first );
+        assertEquals( 2, second.size() );
+        assertEquals( "2.0.redhat-1", second.get( EXAMPLE_DEP ) );
+        assertFalse( second.containsKey( MISSING ) );
+
+        assertEquals( 2, recorder.requests.size() );
+        assertEquals( Collections.singletonList( EXAMPLE_DEP ), recorder.requests.get( 1 ) );
+    }
+
+    @Test
+    public void testSharedBetweenInstances()
+    {
+        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) ).translateVersions(
+                        Collections.singletonList( EXAMPLE ) );
+
+        RecordingTranslator other = new RecordingTranslator();
+        Map<ProjectVersionRef, String> result = new CachingTranslator( other, newCache( 1, 1, TimeUnit.HOURS, false, "" ) )
+                        .translateVersions( Collections.singletonList( EXAMPLE ) );
+
+        assertEquals( "1.0.redhat-1", result.get( EXAMPLE ) );
+        assertTrue( other.requests.isEmpty() );
+    }
+
+    @Test
+    public void testKeyedBySuffix()
+    {
+        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) ).translateVersions(
+                        Collections.singletonList( EXAMPLE ) );
+        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "temporary-redhat" ) ).translateVersions(
+                        Collections.singletonList( EXAMPLE ) );
+
+        assertEquals( 2, recorder.requests.size() );
+    }
+
+    @Test
+    public void testNegativeEntriesExpireSooner()
+                    throws Exception
+    {
+        Translator translator = new CachingTranslator( recorder, newCache( TimeUnit.HOURS.toMillis( 1 ), 10,
+                                                                           TimeUnit.MILLISECONDS, false, "" ) );
+
+        translator.translateVersions( Arrays.asList( EXAMPLE, MISSING ) );
+        Thread.sleep( 50 );
+        translator.translateVersions( Arrays.asList( EXAMPLE, MISSING ) );
+
+        assertEquals( 2, recorder.requests.size() );
+        assertEquals( Collections.singletonList( MISSING ), recorder.requests.get( 1 ) );
+    }
+
+    @Test
+    public void testRefresh()
+    {
+        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) ).translateVersions(
+                        Collections.singletonList( EXAMPLE ) );
+        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, true, "" ) ).translateVersions(
+                        Collections.singletonList( EXAMPLE ) );
+
+        assertEquals( 2, recorder.requests.size() );
+    }
+
+    @Test
+    public void testCorruptEntriesAreIgnored()
+                    throws Exception
+    {
+        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) ).translateVersions(
+                        Collections.singletonList( EXAMPLE ) );
+
+        for ( File f : Files.walk( dir.toPath() ).map( Path::toFile ).toArray( File[]::new ) )
+        {
+            if ( f.getName().equals( "example.txt" ) )
+            {
+                Files.write( f.toPath(), Collections.singletonList( "garbage" ), StandardCharsets.UTF_8 );
+            }
+        }
+
+        Map<ProjectVersionRef, String> result =
+                        new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) ).translateVersions(
+                                        Collections.singletonList( EXAMPLE ) );
+
+        assertEquals( "1.0.redhat-1", result.get( EXAMPLE ) );
+        assertEquals( 2, recorder.requests.size() );
+    }
+
+    @Test
+    public void testBypassedGAVsAreNotCached()
+    {
+        Translator translator = new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ),
+                                                       p -> p.getArtifactId().equals( "example" ) );
+
+        translator.translateVersions( Arrays.asList( EXAMPLE, MISSING, EXAMPLE_DEP ) );
+        Map<ProjectVersionRef, String> result = translator.translateVersions( Arrays.asList( EXAMPLE, MISSING, EXAMPLE_DEP ) );
+
+        assertEquals( "1.0.redhat-1", result.get( EXAMPLE ) );
+        assertEquals( "2.0.redhat-1", result.get( EXAMPLE_DEP ) );
+        assertEquals( 2, recorder.requests.size() );
+        assertEquals( Arrays.asList( EXAMPLE, MISSING ), recorder.requests.get( 1 ) );
+    }
+
+    @Test
+    public void testUnansweredGAVsAreNotCached()
+    {
+        recorder.unanswered = true;
+
+        Translator translator = new CachingTranslator( recorder, newCache( 1, 1, TimeUnit.HOURS, false, "" ) );
+        List<ProjectVersionRef> unanswered = new ArrayList<>();
+
+        translator.translateVersions( Arrays.asList( EXAMPLE, MISSING ), unanswered );
+        translator.translateVersions( Arrays.asList( EXAMPLE, MISSING ) );
+
+        assertEquals( Collections.singletonList( MISSING ), unanswered );
+        assertEquals( 2, recorder.requests.size() );
+        assertEquals( Collections.singletonList( MISSING ), recorder.requests.get( 1 ) );
+    }
+
+    @Test
+    public void testErrorInSuccessfulResponseIsNotCached()
+                    throws Exception
+    {
+        Translator translator = new CachingTranslator(
+                        new DefaultTranslator( errorServer.getUrl(), Translator.RestProtocol.CURRENT, 0,
+                                               Translator.CHUNK_SPLIT_COUNT, "", "" ),
+                        newCache( 1, 1, TimeUnit.HOURS, false, "" ) );
+
+        assertTrue( translator.translateVersions( Collections.singletonList( EXAMPLE ) ).isEmpty() );
+        assertFalse( Files.walk( dir.toPath() ).anyMatch( f -> f.toString().endsWith( ".txt" ) ) );
+    }
+
+    /**
+     * Translates every GAV apart from {@link #MISSING}, recording the requests made. If {@link #unanswered} is set
+     * MISSING is reported as unanswered rather than as having no translation.
+     */
+    private static class RecordingTranslator
+                    implements Translator
+    {
+        private final List<List<ProjectVersionRef>> requests = new ArrayList<>();
+
+        private boolean unanswered;
+
+        @Override
+        public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects,
+                                                                 Collection<ProjectVersionRef> unanswered )
+        {
+            if ( this.unanswered && projects.contains( MISSING ) )
+            {
+                unanswered.add( MISSING );
+            }
+            return translateVersions( projects );
+        }
+
+        @Override
+        public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects )
+        {
+            requests.add( new ArrayList<>( projects ) );
+
+            Map<ProjectVersionRef, String> result = new HashMap<>();
+            for ( ProjectVersionRef p : projects )
+            {
+                if ( !p.equals( MISSING ) )
+                {
+                    result.put( p, p.getVersionString() + ".redhat-1" );
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public List<ProjectVersionRef> findBlacklisted( ProjectRef project )
+        {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectRef;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleArtifactRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class DeduplicatingTranslatorTest
+{
+    private static final ProjectVersionRef EXAMPLE = new SimpleProjectVersionRef( "com.example", "example", "1.0" );
+
+    private static final ProjectVersionRef EXAMPLE_DEP = new SimpleProjectVersionRef( "com.example", "example-dep", "2.0" );
+
+    private static final ProjectVersionRef MISSING = new SimpleProjectVersionRef( "com.example", "example", "1.1" );
+
+    private final RecordingTranslator recorder = new RecordingTranslator();
+
+    private final Translator translator = new DeduplicatingTranslator( recorder );
+
+    @Test
+    public void testTypesAndClassifiersAreSentOnce()
+    {
+        final ProjectVersionRef jar = new SimpleArtifactRef( EXAMPLE, "jar", null );
+        final ProjectVersionRef sources = new SimpleArtifactRef( EXAMPLE, "jar", "sources" );
+        final ProjectVersionRef pom = new SimpleArtifactRef( EXAMPLE, "pom", null );
+
+        final Map<ProjectVersionRef, String> result =
+                        translator.translateVersions( Arrays.asList( EXAMPLE, jar, EXAMPLE_DEP, sources, pom ) );
+
+        assertEquals( 1, recorder.requests.size() );
+        assertEquals( Arrays.asList( EXAMPLE, EXAMPLE_DEP ), recorder.requests.get( 0 ) );
+
+        assertEquals( "1.0.redhat-1", result.get( EXAMPLE ) );
+        assertEquals( "1.0.redhat-1", result.get( sources ) );
+        assertEquals( "1.0.redhat-1", result.get( pom ) );
+        assertEquals( "2.0.redhat-1", result.get( EXAMPLE_DEP ) );
+    }
+
+    @Test
+    public void testWhitespaceIsCanonicalised()
+    {
+        final ProjectVersionRef padded = new SimpleProjectVersionRef( " com.example", "example ", " 1.0\n" );
+
+        final Map<ProjectVersionRef, String> result = translator.translateVersions( Arrays.asList( padded, EXAMPLE ) );
+
+        assertEquals( Collections.singletonList( EXAMPLE ), recorder.requests.get( 0 ) );
+        assertEquals( "1.0.redhat-1", result.get( padded ) );
+        assertEquals( "1.0.redhat-1", result.get( EXAMPLE ) );
+    }
+
+    @Test
+    public void testMissingTranslationsStayMissing()
+    {
+        final ProjectVersionRef missingJar = new SimpleArtifactRef( MISSING, "jar", null );
+
+        final Map<ProjectVersionRef, String> result =
+                        translator.translateVersions( Arrays.asList( MISSING, missingJar, EXAMPLE ) );
+
+        assertEquals( Arrays.asList( MISSING, EXAMPLE ), recorder.requests.get( 0 ) );
+        assertFalse( result.containsKey( MISSING ) );
+        assertFalse( result.containsKey( missingJar ) );
+        assertEquals( 1, result.size() );
+    }
+
+    @Test
+    public void testCanonicalReferenceIsReused()
+    {
+        assertSame( EXAMPLE, DeduplicatingTranslator.canonicalise( EXAMPLE ) );
+        assertEquals( EXAMPLE, DeduplicatingTranslator.canonicalise( new SimpleArtifactRef( EXAMPLE, "war", null ) ) );
+    }
+
+    private static class RecordingTranslator
+                    implements Translator
+    {
+        private final List<List<ProjectVersionRef>> requests = new ArrayList<>();
+
+        @Override
+        public Map<ProjectVersionRef, String> translateVersions( List<ProjectVersionRef> projects )
+        {
+            requests.add( new ArrayList<>( projects ) );
+
+            Map<ProjectVersionRef, String> result = new HashMap<>();
+            for ( ProjectVersionRef p : projects )
+            {
+                if ( !p.equals( MISSING ) )
+                {
+                    result.put( p, p.getVersionString() + ".redhat-1" );
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public List<ProjectVersionRef> findBlacklisted( ProjectRef project )
+        {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExponentialBackoffTest
+{
+    @Test
+    public void testDelayIsJitteredWithinCappedExponent()
+    {
+        ExponentialBackoff backoff = new ExponentialBackoff( 100, 1000, 20, Long.MAX_VALUE );
+
+        for ( int retries = 0; retries < 20; retries++ )
+        {
+            long ceiling = Math.min( 1000, 100L << retries );
+            long max = 0;
+            for ( int i = 0; i < 200; i++ )
+            {
+                long delay = backoff.getDelay( retries, -1, 0 );
+                assertTrue( delay >= 0 && delay <= ceiling );
+                max = Math.max( max, delay );
+            }
+            // Full jitter uses the whole range.
+            assertTrue( max > ceiling / 2 );
+        }
+    }
+
+    @Test
+    public void testHonoursRetryAfter()
+    {
+        ExponentialBackoff backoff = new ExponentialBackoff( 100, 1000, 5, Long.MAX_VALUE );
+
+        assertEquals( 5000, backoff.getDelay( 0, 5000, 0 ) );
+    }
+
+    @Test
+    public void testGivesUp()
+    {
+        ExponentialBackoff backoff = new ExponentialBackoff( 100, 1000, 3, 10000 );
+
+        assertTrue( backoff.getDelay( 2, -1, 0 ) >= 0 );
+        assertEquals( -1, backoff.getDelay( 3, -1, 0 ) );
+        assertEquals( -1, backoff.getDelay( 0, -1, 10001 ) );
+        assertEquals( -1, backoff.getDelay( 0, 5000, 6000 ) );
+    }
+}
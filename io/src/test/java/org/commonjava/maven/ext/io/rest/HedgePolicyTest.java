@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HedgePolicyTest
+{
+    @Test
+    public void testNoHedgeUntilEnoughSamples()
+    {
+        HedgePolicy policy = new HedgePolicy( 50, 1, null );
+
+        for ( int i = 1; i < HedgePolicy.MIN_SAMPLES; i++ )
+        {
+            policy.record( i );
+            assertEquals( -1, policy.requested() );
+        }
+        policy.record( HedgePolicy.MIN_SAMPLES );
+        assertTrue( policy.requested() >= 0 );
+    }
+
+    @Test
+    public void testDelayIsPercentileOfRecentLatencies()
+    {
+        HedgePolicy policy = new HedgePolicy( 90, 1, null );
+
+        for ( int i = 1; i <= HedgePolicy.WINDOW; i++ )
+        {
+            policy.record( i );
+        }
+        assertEquals( 90, policy.requested() );
+
+        // Older latencies drop out of the window.
+        for ( int i = 1; i <= HedgePolicy.WINDOW; i++ )
+        {
+            policy.record( 1000 + i );
+        }
+        assertEquals( 1090, policy.requested() );
+    }
+
+    @Test
+    public void testHedgesAreCapped()
+    {
+        HedgePolicy policy = new HedgePolicy( 90, 0.1, null );
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            policy.requested();
+        }
+        assertTrue( policy.tryHedge() );
+        assertTrue( policy.tryHedge() );
+        assertFalse( policy.tryHedge() );
+        assertEquals( 2, policy.getHedges() );
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.handler.AddSuffixJettyHandler;
+import org.commonjava.maven.ext.io.rest.handler.CompressionRecordingHandler;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.commonjava.maven.ext.io.rest.Translator.RestProtocol.CURRENT;
+import static org.junit.Assert.assertEquals;
+
+public class VersionTranslatorCompressionTest
+{
+    private static final List<ProjectVersionRef> GAVS = Arrays.asList(
+                    new SimpleProjectVersionRef( "com.example", "example", "1.0" ),
+                    new SimpleProjectVersionRef( "com.example", "example-dep", "2.0" ),
+                    new SimpleProjectVersionRef( "com.example", "example-plugin", "3.0" ),
+                    new SimpleProjectVersionRef( "com.example", "example-bom", "4.0" ) );
+
+    private final CompressionRecordingHandler handler = new CompressionRecordingHandler( new AddSuffixJettyHandler() );
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private Translator translator;
+
+    @After
+    public void after()
+    {
+        translator.finish();
+    }
+
+    private Translator newTranslator( int restMaxSize, boolean compressRequests )
+    {
+        translator = new DefaultTranslator( mockServer.getUrl(), CURRENT, restMaxSize, 1, 1,
+                                            new ExponentialBackoff(), 0, compressRequests, "", "" );
+        return translator;
+    }
+
+    @Test
+    public void testCompressedRoundTrip()
+    {
+        Map<ProjectVersionRef, String> result = newTranslator( 0, true ).translateVersions( GAVS );
+
+        assertEquals( 4, result.size() );
+        assertEquals( "1.0-redhat-1", result.get( GAVS.get( 0 ) ) );
+        assertEquals( "4.0-redhat-1", result.get( GAVS.get( 3 ) ) );
+        assertEquals( Collections.singletonList( "gzip" ), handler.getRequestEncodings() );
+        assertEquals( Collections.singletonList( "gzip" ), handler.getResponseEncodings() );
+    }
+
+    @Test
+    public void testRequestsAreNotCompressedByDefault()
+    {
+        Map<ProjectVersionRef, String> result = newTranslator( 0, false ).translateVersions( GAVS );
+
+        assertEquals( 4, result.size() );
+        assertEquals( Collections.singletonList( "null" ), handler.getRequestEncodings() );
+        // Responses are still accepted compressed.
+        assertEquals( Collections.singletonList( "gzip" ), handler.getResponseEncodings() );
+    }
+
+    @Test
+    public void testConnectionIsReused()
+    {
+        Map<ProjectVersionRef, String> result = newTranslator( 1, true ).translateVersions( GAVS );
+
+        assertEquals( 4, result.size() );
+        assertEquals( 4, handler.getRequestEncodings().size() );
+        assertEquals( 1, handler.getClientPorts().size() );
+    }
+}
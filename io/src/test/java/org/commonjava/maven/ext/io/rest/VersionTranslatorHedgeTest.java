@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.handler.AddSuffixJettyHandler;
+import org.commonjava.maven.ext.io.rest.handler.DelayingJettyHandler;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.commonjava.maven.ext.io.rest.Translator.RestProtocol.CURRENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VersionTranslatorHedgeTest
+{
+    private static final int GAVS = 40;
+
+    private final DelayingJettyHandler handler =
+                    new DelayingJettyHandler( new AddSuffixJettyHandler(), 42, 0.25, 1000 );
+
+    private final DelayingJettyHandler alternateHandler =
+                    new DelayingJettyHandler( new AddSuffixJettyHandler(), 42, 0, 0 );
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    @Rule
+    public MockServer alternateServer = new MockServer( alternateHandler );
+
+    private Translator translator;
+
+    @After
+    public void after()
+    {
+        translator.finish();
+    }
+
+    private Translator newTranslator( HedgePolicy policy )
+    {
+        translator = new DefaultTranslator( mockServer.getUrl(), CURRENT, 1, 1, 1, new ExponentialBackoff(), 0,
+                                            false, policy, "", "" );
+        return translator;
+    }
+
+    private static List<ProjectVersionRef> createGAVs()
+    {
+        final List<ProjectVersionRef> gavs = new ArrayList<>();
+
+        for ( int i = 0; i < GAVS; i++ )
+        {
+            gavs.add( new SimpleProjectVersionRef( "com.example", "example-" + i, "1." + i ) );
+        }
+        return gavs;
+    }
+
+    @Test
+    public void testSlowRequestsAreHedgedToAlternate()
+    {
+        final HedgePolicy policy = new HedgePolicy( 90, 0.5, alternateServer.getUrl() );
+        final List<ProjectVersionRef> gavs = createGAVs();
+
+        final Map<ProjectVersionRef, String> result = newTranslator( policy ).translateVersions( gavs );
+
+        assertEquals( GAVS, result.size() );
+        for ( ProjectVersionRef gav : gavs )
+        {
+            assertEquals( gav.getVersionString() + "-redhat-1", result.get( gav ) );
+        }
+
+        assertEquals( GAVS, handler.getRequests() );
+        assertTrue( handler.getDelayed() > 0 );
+        assertTrue( policy.getHedges() > 0 );
+        assertTrue( policy.getHedges() <= GAVS / 2 );
+        // A request to the alternate server is only abandoned if the original has already been answered.
+        assertTrue( alternateHandler.getRequests() > 0 );
+        assertTrue( alternateHandler.getRequests() <= policy.getHedges() );
+    }
+
+    @Test
+    public void testHedgesAreCapped()
+    {
+        final HedgePolicy policy = new HedgePolicy( 90, 0, alternateServer.getUrl() );
+
+        final Map<ProjectVersionRef, String> result = newTranslator( policy ).translateVersions( createGAVs() );
+
+        assertEquals( GAVS, result.size() );
+        assertEquals( 0, policy.getHedges() );
+        assertEquals( 0, alternateHandler.getRequests() );
+    }
+}
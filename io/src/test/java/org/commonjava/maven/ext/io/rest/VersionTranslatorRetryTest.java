@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest;
+
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.exception.RestException;
+import org.commonjava.maven.ext.io.rest.handler.AddSuffixJettyHandler;
+import org.commonjava.maven.ext.io.rest.handler.UnavailableJettyHandler;
+import org.commonjava.maven.ext.io.rest.rule.MockServer;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.commonjava.maven.ext.io.rest.Translator.RestProtocol.CURRENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VersionTranslatorRetryTest
+{
+    private static final List<ProjectVersionRef> GAVS = Arrays.asList(
+                    new SimpleProjectVersionRef( "com.example", "example", "1.0" ),
+                    new SimpleProjectVersionRef( "com.example", "example-dep", "2.0" ) );
+
+    private final UnavailableJettyHandler handler = new UnavailableJettyHandler( new AddSuffixJettyHandler() );
+
+    @Rule
+    public MockServer mockServer = new MockServer( handler );
+
+    private Translator newTranslator( int restMaxSize, int maxRetries, long budget )
+    {
+        return new DefaultTranslator( mockServer.getUrl(), CURRENT, restMaxSize, Translator.CHUNK_SPLIT_COUNT, 2,
+                                      new ExponentialBackoff( 10, 50, maxRetries, budget ), "", "" );
+    }
+
+    @Test
+    public void testRetriesUntilAvailable()
+    {
+        handler.reset( 3, null );
+
+        Map<ProjectVersionRef, String> result = newTranslator( 0, 5, 10000 ).translateVersions( GAVS );
+
+        assertEquals( "1.0-redhat-1", result.get( GAVS.get( 0 ) ) );
+        assertEquals( "2.0-redhat-1", result.get( GAVS.get( 1 ) ) );
+        assertEquals( 4, handler.getRequests() );
+    }
+
+    @Test
+    public void testGivesUpAfterMaxRetries()
+    {
+        handler.reset( Integer.MAX_VALUE, null );
+
+        try
+        {
+            newTranslator( 0, 2, 10000 ).translateVersions( GAVS.subList( 0, 1 ) );
+            fail();
+        }
+        catch ( RestException e )
+        {
+            assertTrue( e.getMessage().contains( "503" ) );
+        }
+        assertEquals( 3, handler.getRequests() );
+    }
+
+    @Test
+    public void testHonoursRetryAfter()
+    {
+        handler.reset( 1, "1" );
+
+        long start = System.nanoTime();
+        Map<ProjectVersionRef, String> result = newTranslator( 0, 5, 10000 ).translateVersions( GAVS );
+
+        assertEquals( 2, result.size() );
+        assertTrue( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) >= 1000 );
+    }
+
+    @Test
+    public void testGivesUpWhenRetryAfterExceedsBudget()
+    {
+        handler.reset( 1, "60" );
+
+        long start = System.nanoTime();
+        try
+        {
+            newTranslator( 0, 5, 1000 ).translateVersions( GAVS );
+            fail();
+        }
+        catch ( RestException e )
+        {
+            assertTrue( e.getMessage().contains( "503" ) );
+        }
+        assertEquals( 1, handler.getRequests() );
+        assertTrue( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) < 10000 );
+    }
+
+    @Test
+    public void testOtherChunksContinueWhileWaiting()
+    {
+        // The first chunk is told to wait ; the second is sent and completes in the meantime.
+        handler.reset( 1, "1" );
+
+        Map<ProjectVersionRef, String> result = newTranslator( 1, 5, 10000 ).translateVersions( GAVS );
+
+        assertEquals( 2, result.size() );
+        assertEquals( 3, handler.getRequests() );
+    }
+
+    @Test
+    public void testParseRetryAfter()
+    {
+        assertEquals( -1, DefaultTranslator.parseRetryAfter( null ) );
+        assertEquals( -1, DefaultTranslator.parseRetryAfter( "soon" ) );
+        assertEquals( 120000, DefaultTranslator.parseRetryAfter( " 120 " ) );
+
+        long delay = DefaultTranslator.parseRetryAfter(
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format( ZonedDateTime.now().plusMinutes( 5 ) ) );
+        assertTrue( delay > TimeUnit.MINUTES.toMillis( 4 ) && delay <= TimeUnit.MINUTES.toMillis( 5 ) );
+
+        assertEquals( 0, DefaultTranslator.parseRetryAfter(
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format( ZonedDateTime.now().minusMinutes( 5 ) ) ) );
+    }
+}
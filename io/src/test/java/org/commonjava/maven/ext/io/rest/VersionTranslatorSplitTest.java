@@ -15,7 +15,9 @@
  */
 package org.commonjava.maven.ext.io.rest;
 
-import com.mashape.unirest.http.Unirest;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.ext.io.rest.exception.RestException;
 import org.commonjava.maven.ext.io.rest.handler.SpyFailJettyHandler;
@@ -32,6 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -85,6 +88,7 @@ public class VersionTranslatorSplitTest
     {
         LOG.info( "Executing test " + testName.getMethodName() );
 
+        handler.reset();
         handler.setStatusCode( HttpServletResponse.SC_GATEWAY_TIMEOUT );
         versionTranslator = new DefaultTranslator( mockServer.getUrl(), protocol, 0, Translator.CHUNK_SPLIT_COUNT,
                                                    "", "" );
@@ -98,9 +102,9 @@ public class VersionTranslatorSplitTest
     @Test
     public void testConnection()
     {
-        try
+        try ( CloseableHttpClient client = HttpClients.createDefault() )
         {
-            Unirest.post( mockServer.getUrl() ).asString();
+            client.execute( new HttpPost( mockServer.getUrl() ) ).close();
         }
         catch ( Exception e )
         {
@@ -292,4 +296,44 @@ public class VersionTranslatorSplitTest
         }
         assertEquals( 1, requestData.get( 15 ).size() );
     }
+
+    @Test
+    public void testTranslateVersionsConcurrentSplit()
+    {
+        this.versionTranslator = new DefaultTranslator( mockServer.getUrl(), protocol, 0, Translator.CHUNK_SPLIT_COUNT,
+                                                        4, "", "" );
+
+        List<ProjectVersionRef> data = aLotOfGavs.subList( 0, 37 );
+        handler.setDelay( 200 );
+        try
+        {
+            versionTranslator.translateVersions( data );
+            fail();
+        }
+        catch ( RestException ex )
+        {
+            assertTrue( ex.getMessage().contains( "504" ) );
+        }
+        List<List<Map<String, Object>>> requestData = new ArrayList<>( handler.getRequestData() );
+
+        // split 37 -> 9, 9, 9, 10 which are all sent together. The order they arrive in, and how far the splitting
+        // gets before the first unsplittable chunk fails, depends on scheduling.
+        LOG.debug( requestData.toString() );
+        assertTrue( requestData.size() >= 6 );
+        assertEquals( 37, requestData.get( 0 ).size() );
+
+        List<Integer> sizes = new ArrayList<>();
+        Set<Map<String, Object>> chunks = new HashSet<>();
+        for ( List<Map<String, Object>> e : requestData.subList( 1, 5 ) )
+        {
+            sizes.add( e.size() );
+            chunks.addAll( e );
+        }
+        sizes.sort( Integer::compare );
+        assertEquals( Arrays.asList( 9, 9, 9, 10 ), sizes );
+        assertEquals( new HashSet<>( requestData.get( 0 ) ), chunks );
+
+        assertTrue( handler.getMaxInFlight() > 1 );
+        assertTrue( handler.getMaxInFlight() <= 4 );
+    }
 }
@@ -19,7 +19,9 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mashape.unirest.http.Unirest;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.maven.ext.io.rest.exception.RestException;
@@ -93,9 +95,9 @@ public class VersionTranslatorTest
     @Test
     public void testConnection()
     {
-        try
+        try ( CloseableHttpClient client = HttpClients.createDefault() )
         {
-            Unirest.post( mockServer.getUrl() ).asString();
+            client.execute( new HttpPost( mockServer.getUrl() ) ).close();
         }
         catch ( Exception e )
         {
@@ -152,6 +154,31 @@ public class VersionTranslatorTest
         }
     }
 
+    @Test
+    public void testTranslateVersionsConcurrently()
+    {
+        Translator translator = new DefaultTranslator( mockServer.getUrl(), protocol, 10, Translator.CHUNK_SPLIT_COUNT,
+                                                       4, "indyGroup", "" );
+
+        Map<ProjectVersionRef, String> actualResult = translator.translateVersions( aLotOfGavs );
+
+        assertThat( actualResult.size(), is( new HashSet<>( aLotOfGavs ).size() ) );
+        for ( ProjectVersionRef gav : aLotOfGavs )
+        {
+            assertThat( actualResult.get( gav ), is( gav.getVersionString() + "-redhat-1" ) );
+        }
+        assertThat( actualResult, is( versionTranslator.translateVersions( aLotOfGavs ) ) );
+    }
+
+    @Test
+    public void testTranslateVersionsAutoPartition()
+    {
+        Translator translator = new DefaultTranslator( mockServer.getUrl(), protocol, -1, Translator.CHUNK_SPLIT_COUNT,
+                                                       2, "indyGroup", "" );
+
+        assertThat( translator.translateVersions( aLotOfGavs ), is( versionTranslator.translateVersions( aLotOfGavs ) ) );
+    }
+
     @Test( timeout = 500 )
     public void testTranslateVersionsPerformance()
     {
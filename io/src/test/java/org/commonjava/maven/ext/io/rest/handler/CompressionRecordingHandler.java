@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest.handler;
+
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Jetty handler that gzips responses and inflates gzipped requests for the wrapped handler, recording the content
+ * encodings and client ports seen.
+ */
+public class CompressionRecordingHandler
+                extends HandlerWrapper
+{
+    private final List<String> requestEncodings = new CopyOnWriteArrayList<>();
+
+    private final List<String> responseEncodings = new CopyOnWriteArrayList<>();
+
+    private final Set<Integer> clientPorts = Collections.newSetFromMap( new ConcurrentHashMap<>() );
+
+    public CompressionRecordingHandler( Handler handler )
+    {
+        final GzipHandler gzip = new GzipHandler();
+        gzip.setIncludedMethods( "GET", "POST" );
+        gzip.setInflateBufferSize( 4096 );
+        gzip.setMinGzipSize( 0 );
+        gzip.setHandler( handler );
+
+        setHandler( gzip );
+    }
+
+    @Override
+    public void handle( String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response )
+                    throws IOException, ServletException
+    {
+        requestEncodings.add( String.valueOf( request.getHeader( "Content-Encoding" ) ) );
+        clientPorts.add( request.getRemotePort() );
+
+        super.handle( target, baseRequest, request, response );
+
+        // The content encoding is only decided once the response is committed.
+        response.flushBuffer();
+        responseEncodings.add( String.valueOf( response.getHeader( "Content-Encoding" ) ) );
+    }
+
+    public List<String> getRequestEncodings()
+    {
+        return requestEncodings;
+    }
+
+    public List<String> getResponseEncodings()
+    {
+        return responseEncodings;
+    }
+
+    public Set<Integer> getClientPorts()
+    {
+        return clientPorts;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest.handler;
+
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jetty handler that delays a random proportion of requests before passing them on to the wrapped handler. The
+ * random sequence is seeded so that the same requests are delayed on every run.
+ */
+public class DelayingJettyHandler
+                extends HandlerWrapper
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( DelayingJettyHandler.class );
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger delayed = new AtomicInteger();
+
+    private final Random random;
+
+    private final double probability;
+
+    private final long delay;
+
+    /**
+     * @param handler the handler to pass requests on to
+     * @param seed the seed for choosing which requests to delay
+     * @param probability the proportion of requests to delay
+     * @param delay the delay in milliseconds
+     */
+    public DelayingJettyHandler( Handler handler, long seed, double probability, long delay )
+    {
+        this.random = new Random( seed );
+        this.probability = probability;
+        this.delay = delay;
+
+        setHandler( handler );
+    }
+
+    @Override
+    public void handle( String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response )
+                    throws IOException, ServletException
+    {
+        final boolean delay;
+
+        synchronized ( random )
+        {
+            delay = random.nextDouble() < probability;
+        }
+        requests.incrementAndGet();
+
+        if ( delay )
+        {
+            LOGGER.info( "Handling with DelayingJettyHandler: delaying request by {}ms", this.delay );
+            delayed.incrementAndGet();
+            try
+            {
+                Thread.sleep( this.delay );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new ServletException( e );
+            }
+        }
+        super.handle( target, baseRequest, request, response );
+    }
+
+    public int getRequests()
+    {
+        return requests.get();
+    }
+
+    public int getDelayed()
+    {
+        return delayed.get();
+    }
+}
@@ -29,8 +29,10 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Jetty handler that records requests and always fails with HTTP error 504.
@@ -50,7 +52,13 @@ public class SpyFailJettyHandler extends AbstractHandler implements Handler
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private final List<List<Map<String, Object>>> requestData = new ArrayList<>();
+    private final List<List<Map<String, Object>>> requestData = Collections.synchronizedList( new ArrayList<>() );
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private long delay;
 
     private int responseCode = HttpServletResponse.SC_GATEWAY_TIMEOUT;
 
@@ -93,6 +101,20 @@ public class SpyFailJettyHandler extends AbstractHandler implements Handler
 
             requestData.add(requestBody);
 
+            maxInFlight.accumulateAndGet( inFlight.incrementAndGet(), Math::max );
+            try
+            {
+                Thread.sleep( delay );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                inFlight.decrementAndGet();
+            }
+
             response.setStatus( responseCode );
             baseRequest.setHandled( true );
 
@@ -111,4 +133,27 @@ public class SpyFailJettyHandler extends AbstractHandler implements Handler
     {
         this.responseCode = responseCode;
     }
+
+    /**
+     * @param delay time in milliseconds to hold each request for before responding.
+     */
+    public void setDelay( long delay )
+    {
+        this.delay = delay;
+    }
+
+    /**
+     * @return the highest number of requests that were handled at the same time since the last reset.
+     */
+    public int getMaxInFlight()
+    {
+        return maxInFlight.get();
+    }
+
+    public void reset()
+    {
+        requestData.clear();
+        maxInFlight.set( 0 );
+        delay = 0;
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest.handler;
+
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jetty handler that responds to the first requests with HTTP error 503, optionally with a Retry-After header,
+ * before passing requests on to the wrapped handler.
+ */
+public class UnavailableJettyHandler
+                extends HandlerWrapper
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( UnavailableJettyHandler.class );
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile int failures;
+
+    private volatile String retryAfter;
+
+    public UnavailableJettyHandler( Handler handler )
+    {
+        setHandler( handler );
+    }
+
+    @Override
+    public void handle( String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response )
+                    throws IOException, ServletException
+    {
+        if ( requests.incrementAndGet() <= failures )
+        {
+            LOGGER.info( "Handling with UnavailableJettyHandler: request {} of {} failing", requests.get(), failures );
+
+            if ( retryAfter != null )
+            {
+                response.setHeader( "Retry-After", retryAfter );
+            }
+            response.setStatus( HttpServletResponse.SC_SERVICE_UNAVAILABLE );
+            baseRequest.setHandled( true );
+        }
+        else
+        {
+            super.handle( target, baseRequest, request, response );
+        }
+    }
+
+    /**
+     * @param failures the number of requests to fail, counting from now.
+     * @param retryAfter the Retry-After header to send, or null for none.
+     */
+    public void reset( int failures, String retryAfter )
+    {
+        this.requests.set( 0 );
+        this.failures = failures;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getRequests()
+    {
+        return requests.get();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2012 Red Hat, Inc. (jcasey@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.maven.ext.io.rest.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.commonjava.maven.atlas.ident.ref.ProjectVersionRef;
+import org.commonjava.maven.atlas.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.maven.ext.io.rest.Translator.RestProtocol;
+import org.commonjava.maven.ext.io.rest.exception.RestException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReportGAVMapperTest
+{
+    private static final List<ProjectVersionRef> GAVS = Arrays.asList(
+                    new SimpleProjectVersionRef( "com.example", "example", "1.0" ),
+                    new SimpleProjectVersionRef( "org.commonjava", "example", "1.1" ) );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testWriteRequestMatchesSchema()
+                    throws Exception
+    {
+        for ( String[] params : new String[][] { { "", "" }, { "indyGroup", "" }, { "", "redhat" },
+                        { "indyGroup", "redhat" } } )
+        {
+            ReportGAVMapper mapper = new ReportGAVMapper( RestProtocol.CURRENT, params[0], params[1] );
+
+            List<Map<String, Object>> gavs = new ArrayList<>();
+            for ( ProjectVersionRef p : GAVS )
+            {
+                Map<String, Object> gav = new HashMap<>();
+                gav.put( "groupId", p.getGroupId() );
+                gav.put( "artifactId", p.getArtifactId() );
+                gav.put( "version", p.getVersionString() );
+                gavs.add( gav );
+            }
+            String expected = objectMapper.writeValueAsString(
+                            new GAVSchema( new String[] {}, new String[] {}, params[0], params[1], gavs ) );
+
+            assertEquals( objectMapper.readTree( expected ),
+                          objectMapper.readTree( mapper.writeRequest( GAVS ) ) );
+        }
+    }
+
+    @Test
+    public void testReadResponse()
+    {
+        ReportGAVMapper mapper = new ReportGAVMapper( RestProtocol.CURRENT, "", "" );
+
+        Map<ProjectVersionRef, String> result = mapper.readResponse( stream(
+                        "[ { \"groupId\": \"com.example\", \"artifactId\": \"example\", \"version\": \"1.0\","
+                                        + " \"availableVersions\": [ \"1.0.redhat-1\" ], \"details\": { \"a\": [ 1 ] },"
+                                        + " \"bestMatchVersion\": \"1.0.redhat-1\", \"whitelisted\": false },"
+                                        + " { \"groupId\": \"org.commonjava\", \"artifactId\": \"example\","
+                                        + " \"version\": \"1.1\", \"bestMatchVersion\": null } ]" ),
+                                                                     "application/json;charset=utf-8" );
+
+        assertEquals( 1, result.size() );
+        assertEquals( "1.0.redhat-1", result.get( GAVS.get( 0 ) ) );
+    }
+
+    @Test
+    public void testReadResponseWithoutContentType()
+    {
+        ReportGAVMapper mapper = new ReportGAVMapper( RestProtocol.CURRENT, "", "" );
+
+        Map<ProjectVersionRef, String> result = mapper.readResponse( stream(
+                        "[{\"groupId\":\"com.example\",\"artifactId\":\"example\",\"version\":\"1.0\","
+                                        + "\"bestMatchVersion\":\"1.0.redhat-1\"}]" ), null );
+
+        assertEquals( "1.0.redhat-1", result.get( GAVS.get( 0 ) ) );
+        assertTrue( mapper.readResponse( null, null ).isEmpty() );
+    }
+
+    @Test
+    public void testReadErrorFromSuccessfulResponse()
+    {
+        ReportGAVMapper mapper = new ReportGAVMapper( RestProtocol.CURRENT, "", "" );
+        Map<ProjectVersionRef, String> result = new HashMap<>();
+
+        String error = mapper.readResponse( stream( "{\"errorType\":\"Communication with remote repository failed\"}" ),
+                                            "application/json", result );
+
+        assertNotNull( error );
+        assertTrue( result.isEmpty() );
+        assertNull( mapper.readResponse( stream( "[]" ), "application/json", result ) );
+    }
+
+    @Test( expected = RestException.class )
+    public void testReadMalformedResponse()
+    {
+        new ReportGAVMapper( RestProtocol.CURRENT, "", "" ).readResponse( stream( "[ { \"groupId\": " ),
+                                                                           "application/json" );
+    }
+
+    @Test
+    public void testReadError()
+    {
+        ReportGAVMapper mapper = new ReportGAVMapper( RestProtocol.CURRENT, "", "" );
+
+        assertEquals( "No content to read.", mapper.readError( null, null ) );
+        assertEquals( "MY-TYPE MY-MESSAGE ", mapper.readError(
+                        stream( "{\"errorType\":\"MY-TYPE\",\"errorMessage\":\"MY-MESSAGE\"}" ), "application/json" ) );
+        assertEquals( "504 Gateway Time-out The server didn't respond in time.", mapper.readError(
+                        stream( "<html><body><h1>504 Gateway Time-out</h1>\nThe server didn't respond in time.\n"
+                                                + "</body></html>" ), "text/html" ) );
+        assertEquals( "not json", mapper.readError( stream( "not json" ), "application/json" ) );
+    }
+
+    private static InputStream stream( String s )
+    {
+        return new ByteArrayInputStream( s.getBytes( StandardCharsets.UTF_8 ) );
+    }
+}